@@ -49,7 +49,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     const result = await pool.query(
       `SELECT p.persona_id, p.username, COUNT(po.id) as post_count
        FROM personas p
-       LEFT JOIN posts po ON p.persona_id = po.author
+       LEFT JOIN posts po ON p.persona_id = po.author AND po.deleted_at IS NULL
        GROUP BY p.persona_id, p.username
        ORDER BY post_count DESC
        LIMIT $1`,
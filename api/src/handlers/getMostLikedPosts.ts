@@ -59,6 +59,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
        LEFT JOIN personas per ON po.author = per.persona_id
        LEFT JOIN users u ON po.user_author = u.id
        LEFT JOIN likes l ON po.id = l.post_id
+       WHERE po.deleted_at IS NULL
        GROUP BY po.id, po.title, po.author, po.user_author, per.username, u.username
        ORDER BY like_count DESC
        LIMIT $1`,
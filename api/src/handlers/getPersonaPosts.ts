@@ -72,7 +72,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     LEFT JOIN personas per ON p.author = per.persona_id
     LEFT JOIN likes l ON p.id = l.post_id
     LEFT JOIN comments c ON p.id = c.post_id
-    WHERE p.author = $1
+    WHERE p.author = $1 AND p.deleted_at IS NULL
     GROUP BY p.id, p.body, p.author, p.title, per.username, p.created_at
     ORDER BY p.created_at DESC
     LIMIT $2 OFFSET $3
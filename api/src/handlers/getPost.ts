@@ -61,7 +61,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
               'created_at', c.created_at
             )
             ORDER BY c.created_at ASC
-          ) FILTER (WHERE c.id IS NOT NULL),
+          ) FILTER (WHERE c.id IS NOT NULL AND c_u.deleted_at IS NULL),
           '[]'::json
         ) AS comments
       FROM posts p
@@ -70,7 +70,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
       LEFT JOIN comments c ON p.id = c.post_id
       LEFT JOIN personas c_per ON c.author_id = c_per.persona_id
       LEFT JOIN users c_u ON c.user_author_id = c_u.id
-      WHERE p.id = $1
+      WHERE p.id = $1 AND p.deleted_at IS NULL
       GROUP BY p.id, p.title, p.body, p.author, p.user_author, per.username, u.username, p.created_at
   `;
 
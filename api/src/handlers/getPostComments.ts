@@ -53,7 +53,8 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     FROM comments c
     LEFT JOIN personas per ON c.author_id = per.persona_id
     LEFT JOIN users u ON c.user_author_id = u.id
-    WHERE c.post_id = $1
+    JOIN posts p ON c.post_id = p.id AND p.deleted_at IS NULL
+    WHERE c.post_id = $1 AND u.deleted_at IS NULL
     ORDER BY c.created_at DESC
   `;
 
@@ -63,6 +63,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     LEFT JOIN users u ON p.user_author = u.id
     LEFT JOIN likes l ON p.id = l.post_id
     LEFT JOIN comments c ON p.id = c.post_id
+    WHERE p.deleted_at IS NULL
     GROUP BY p.id, p.body, p.author, p.user_author, per.username, u.username, p.created_at
     ORDER BY p.created_at DESC
     LIMIT $1 OFFSET $2
@@ -58,7 +58,8 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     LEFT JOIN users u ON p.user_author = u.id
     LEFT JOIN likes l ON p.id = l.post_id
     LEFT JOIN comments c ON p.id = c.post_id
-    WHERE p.id >= (SELECT (RANDOM() * MAX(id))::bigint FROM posts)
+    WHERE p.id >= (SELECT (RANDOM() * MAX(id))::bigint FROM posts WHERE deleted_at IS NULL)
+      AND p.deleted_at IS NULL
     GROUP BY p.id, p.body, p.author, p.user_author, per.username, u.username, p.created_at
     LIMIT $1
   `;
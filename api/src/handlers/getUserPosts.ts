@@ -73,7 +73,7 @@ export const handler: APIGatewayProxyHandlerV2 = async (event) => {
     LEFT JOIN users u ON p.user_author = u.id
     LEFT JOIN likes l ON p.id = l.post_id
     LEFT JOIN comments c ON p.id = c.post_id
-    WHERE p.user_author = $1
+    WHERE p.user_author = $1 AND p.deleted_at IS NULL
     GROUP BY p.id, p.body, p.author, p.user_author, p.title, per.username, u.username, p.created_at
     ORDER BY p.created_at DESC
     LIMIT $2 OFFSET $3
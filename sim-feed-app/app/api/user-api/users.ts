@@ -1,4 +1,4 @@
-import type { UserStatsDto, UpdateUserBioDto, UserDto } from "~/lib/user-api-dtos";
+import type { UserStatsDto, UpdateUserBioDto, UserDto, UserSearchDto, UsernameSuggestionDto } from "~/lib/user-api-dtos";
 import { userApiClient } from "../apiConfig";
 
 const V1_USERS = "/api/v1/users";
@@ -14,8 +14,24 @@ export const updateUserBio = async (id: string, newBio: UpdateUserBioDto) => {
 };
 
 export const searchUsers = async (query: string): Promise<UserDto[]> => {
-  const response = await userApiClient.get(`${V1_USERS}/search`, {
+  const response = await userApiClient.get<UserSearchDto>(`${V1_USERS}/search`, {
     params: { username: query },
   });
+  return response.data.users;
+};
+
+export const autocompleteUsernames = async (
+  prefix: string,
+  limit = 10,
+  usersOnly = false,
+): Promise<UsernameSuggestionDto[]> => {
+  const response = await userApiClient.get<UsernameSuggestionDto[]>(`${V1_USERS}/autocomplete`, {
+    params: { prefix, limit, usersOnly },
+  });
   return response.data;
-};
\ No newline at end of file
+};
+
+export const getUsersByIds = async (userIds: string[]): Promise<UserDto[]> => {
+  const response = await userApiClient.post<UserDto[]>(`${V1_USERS}/batch`, { userIds });
+  return response.data;
+};
@@ -3,6 +3,7 @@ import { Modal } from "./modals";
 import { useDebounce } from "use-debounce";
 import { useState, useMemo } from "react";
 import { useSearchUsers } from "~/hooks/useSearchUsers";
+import { useSuggestUsers } from "~/hooks/useSuggestUsers";
 import type { UserDto } from "~/lib/user-api-dtos";
 import { EnhancedLink } from "./link";
 
@@ -314,7 +315,7 @@ export const UserSearchSelect = ({
 }: UserSearchSelectProps) => {
   const [query, setQuery] = useState("");
   const [debouncedQuery] = useDebounce(query, 500);
-  const { data, isLoading, isError } = useSearchUsers(debouncedQuery);
+  const { data, isLoading, isError } = useSuggestUsers(debouncedQuery);
 
   const excludedIds = useMemo(
     () => new Set([...selectedUsers.map((u) => u.id), ...excludeUserIds]),
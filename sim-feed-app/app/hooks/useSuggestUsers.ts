@@ -0,0 +1,22 @@
+import { autocompleteUsernames, getUsersByIds } from "~/api/user-api/users";
+import { useQuery } from "@tanstack/react-query";
+import type { UserDto } from "~/lib/user-api-dtos";
+
+// Prefix matches come from the in-memory username index, users only; only the matched users' profiles are fetched.
+const suggestUsers = async (prefix: string): Promise<UserDto[]> => {
+  const suggestions = await autocompleteUsernames(prefix, 10, true);
+  const userIds = suggestions.flatMap((suggestion) => (suggestion.userId ? [suggestion.userId] : []));
+  if (userIds.length === 0) return [];
+  const users = await getUsersByIds(userIds);
+  const byId = new Map(users.map((user) => [user.id, user]));
+  return userIds.flatMap((id) => byId.get(id) ?? []);
+};
+
+export const useSuggestUsers = (query: string) => {
+  const prefix = query.trim();
+  return useQuery({
+    queryKey: ["users", "autocomplete", prefix],
+    queryFn: () => suggestUsers(prefix),
+    enabled: prefix.length > 0,
+  });
+};
@@ -19,6 +19,18 @@ export type UserDto = {
   image_url: string | null;
 }
 
+export type UserSearchDto = {
+  users: UserDto[];
+  nextCursor: string | null;
+}
+
+export type UsernameSuggestionDto = {
+  userId: string | null;
+  personaId: number | null;
+  username: string;
+  followers: number;
+}
+
 export type PersonaDto = {
   personaId: number;
   username: string;
@@ -3,7 +3,8 @@ CREATE TABLE IF NOT EXISTS personas (
     bio TEXT NOT NULL,
     description TEXT,
     username VARCHAR(255),
-    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
 CREATE TABLE IF NOT EXISTS users (
@@ -12,7 +13,8 @@ CREATE TABLE IF NOT EXISTS users (
     bio VARCHAR(250),
     image_url VARCHAR(255),
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    deleted_at TIMESTAMPTZ
 );
 
 CREATE TABLE IF NOT EXISTS posts (
@@ -22,6 +24,7 @@ CREATE TABLE IF NOT EXISTS posts (
     author BIGINT,
     user_author VARCHAR(255),
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    deleted_at TIMESTAMPTZ,
     FOREIGN KEY (author) REFERENCES personas(persona_id),
     FOREIGN KEY (user_author) REFERENCES users(id),
     CHECK (
@@ -112,7 +115,8 @@ CREATE TABLE IF NOT EXISTS chats (
     chat_name VARCHAR(255) NOT NULL,
     creator_id VARCHAR(255) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT NOW(),
-    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    deleted_at TIMESTAMP
 );
 
 CREATE TABLE IF NOT EXISTS chat_members (
@@ -121,6 +125,7 @@ CREATE TABLE IF NOT EXISTS chat_members (
     user_id VARCHAR(255),
     persona_id BIGINT,
     joined_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_read_message_id BIGINT,
     FOREIGN KEY (chat_id) REFERENCES chats(id),
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (persona_id) REFERENCES personas(persona_id),
@@ -131,6 +136,19 @@ CREATE TABLE IF NOT EXISTS chat_members (
     )
 );
 
+-- chat messages; ids are Snowflake ids generated by user-service. body_tsv feeds message search
+-- and is filled by trg_message_body_tsv below.
+CREATE TABLE IF NOT EXISTS message (
+    id BIGINT PRIMARY KEY,
+    body VARCHAR(1000) NOT NULL,
+    chat_id BIGINT NOT NULL REFERENCES chats(id),
+    user_id VARCHAR(255) REFERENCES users(id),
+    persona_id BIGINT REFERENCES personas(persona_id),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    body_tsv tsvector
+);
+
 CREATE TYPE agent_event_type AS ENUM (
     'CREATE_POST',
     'LIKE_POST',
@@ -139,37 +157,66 @@ CREATE TYPE agent_event_type AS ENUM (
     'UPDATE_BIO'
 );
 
+-- Agent event tables are range-partitioned by week on created_at. A detail row takes its
+-- created_at from NOW() in the same transaction as its agent_events row, so it shares the event's
+-- timestamp and partition, and a whole week can be rolled up and dropped at once
+-- (see ensure_agent_event_partitions and roll_up_agent_event_partition below).
 CREATE TABLE IF NOT EXISTS agent_events (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     persona_id BIGINT NOT NULL REFERENCES personas(persona_id),
     event_type VARCHAR(31) NOT NULL,
-    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
-);
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
 
 CREATE TABLE IF NOT EXISTS agent_event_post (
-    id BIGINT PRIMARY KEY REFERENCES agent_events(id),
-    post_id BIGINT NOT NULL UNIQUE REFERENCES posts(id)
-);
+    id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL REFERENCES posts(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+) PARTITION BY RANGE (created_at);
 
 CREATE TABLE IF NOT EXISTS agent_event_like (
-    id BIGINT PRIMARY KEY REFERENCES agent_events(id),
-    like_id BIGINT NOT NULL UNIQUE REFERENCES likes(id)
-);
+    id BIGINT NOT NULL,
+    like_id BIGINT NOT NULL REFERENCES likes(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+) PARTITION BY RANGE (created_at);
 
 CREATE TABLE IF NOT EXISTS agent_event_comment (
-    id BIGINT PRIMARY KEY REFERENCES agent_events(id),
+    id BIGINT NOT NULL,
     post_id BIGINT NOT NULL REFERENCES posts(id),
-    comment_id BIGINT NOT NULL UNIQUE REFERENCES comments(id)
-);
+    comment_id BIGINT NOT NULL REFERENCES comments(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+) PARTITION BY RANGE (created_at);
 
 CREATE TABLE IF NOT EXISTS agent_event_follow (
-    id BIGINT PRIMARY KEY REFERENCES agent_events(id),
-    followed_id BIGINT NOT NULL REFERENCES personas(persona_id)
-);
+    id BIGINT NOT NULL,
+    followed_id BIGINT NOT NULL REFERENCES personas(persona_id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+) PARTITION BY RANGE (created_at);
 
 CREATE TABLE IF NOT EXISTS agent_event_bio (
-    id BIGINT PRIMARY KEY REFERENCES agent_events(id),
-    bio TEXT NOT NULL
+    id BIGINT NOT NULL,
+    bio TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- hourly per-persona, per-type counts of agent events whose raw partitions have been dropped
+CREATE TABLE IF NOT EXISTS agent_event_hourly (
+    persona_id BIGINT NOT NULL,
+    event_type VARCHAR(31) NOT NULL,
+    hour TIMESTAMPTZ NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (persona_id, event_type, hour)
 );
 
 CREATE INDEX IF NOT EXISTS idx_posts_author ON posts(author);
@@ -183,6 +230,8 @@ CREATE INDEX IF NOT EXISTS idx_likes_user_id ON likes(user_id);
 CREATE INDEX IF NOT EXISTS idx_follows_follower ON follows(follower);
 CREATE INDEX IF NOT EXISTS idx_follows_followed ON follows(followed);
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
+CREATE INDEX IF NOT EXISTS idx_personas_updated_at ON personas(updated_at);
 CREATE INDEX IF NOT EXISTS idx_user_follows_follower ON user_follows(follower);
 CREATE INDEX IF NOT EXISTS idx_user_follows_persona_followed ON user_follows(persona_followed);
 CREATE INDEX IF NOT EXISTS idx_user_follows_user_followed ON user_follows(user_followed);
@@ -190,6 +239,61 @@ CREATE INDEX IF NOT EXISTS idx_chats_creator_id ON chats(creator_id);
 CREATE INDEX IF NOT EXISTS idx_chat_members_chat_id ON chat_members(chat_id);
 CREATE INDEX IF NOT EXISTS idx_chat_members_user_id ON chat_members(user_id);
 CREATE UNIQUE INDEX IF NOT EXISTS idx_chat_room_user ON chat_members(chat_id, user_id);
+CREATE TABLE IF NOT EXISTS post_tags (
+    id BIGSERIAL PRIMARY KEY,
+    kind VARCHAR(10) NOT NULL,
+    tag VARCHAR(100) NOT NULL,
+    post_id BIGINT NOT NULL REFERENCES posts(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Hashtags and mentions of one post: up to 20 distinct of each, lower-cased, in order of first
+-- appearance. A tag is 1-50 word characters after # or @ that is not preceded by a word character
+-- or another # / @.
+CREATE OR REPLACE FUNCTION extract_post_tags(title TEXT, body TEXT) RETURNS TABLE (kind TEXT, tag TEXT) AS $$
+    (SELECT 'HASHTAG', lower(m[1])
+    FROM regexp_matches(coalesce(title, '') || ' ' || coalesce(body, ''), '(?<![\w#])#(\w{1,50})(?!\w)', 'g') WITH ORDINALITY AS r(m, pos)
+    GROUP BY lower(m[1]) ORDER BY min(pos) LIMIT 20)
+    UNION ALL
+    (SELECT 'MENTION', lower(m[1])
+    FROM regexp_matches(coalesce(title, '') || ' ' || coalesce(body, ''), '(?<![\w@])@(\w{1,50})(?!\w)', 'g') WITH ORDINALITY AS r(m, pos)
+    GROUP BY lower(m[1]) ORDER BY min(pos) LIMIT 20)
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Fills post_tags for every new post, whichever service inserts it.
+CREATE OR REPLACE FUNCTION index_post_tags() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO post_tags (kind, tag, post_id)
+    SELECT t.kind, t.tag, NEW.id FROM extract_post_tags(NEW.title, NEW.body) t;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_posts_index_tags AFTER INSERT ON posts FOR EACH ROW EXECUTE FUNCTION index_post_tags();
+
+-- Snowflake node ids (0-31), leased by each running user-service instance so no two share one
+-- (SnowflakeConfiguration); a row is free once expires_at has passed
+CREATE TABLE IF NOT EXISTS snowflake_node_leases (
+    node_id INT PRIMARY KEY,
+    owner VARCHAR(255),
+    expires_at TIMESTAMPTZ NOT NULL DEFAULT 'epoch'
+);
+INSERT INTO snowflake_node_leases (node_id) SELECT generate_series(0, 31) ON CONFLICT DO NOTHING;
+
+-- home feed: newest live posts per author
+CREATE INDEX IF NOT EXISTS idx_posts_author_id ON posts(author, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_posts_user_author_id ON posts(user_author, id DESC) WHERE deleted_at IS NULL;
+-- post_tags indexes
+CREATE UNIQUE INDEX IF NOT EXISTS idx_post_tags_kind_tag_post ON post_tags(kind, tag, post_id);
+CREATE INDEX IF NOT EXISTS idx_post_tags_post_id ON post_tags(post_id);
+-- trending hashtags recount recent minutes from here (TrendingTagCounter)
+CREATE INDEX IF NOT EXISTS idx_post_tags_created_at ON post_tags(created_at);
+-- trending posts read new likes and comments in this order (EngagementCatchUp)
+CREATE INDEX IF NOT EXISTS idx_likes_created_at_id ON likes(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_created_at_id ON comments(created_at, id);
+-- tombstone indexes, only tombstoned rows waiting for the purger are indexed
+CREATE INDEX IF NOT EXISTS idx_posts_deleted_at ON posts(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_chats_deleted_at ON chats(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_deleted_at ON users(deleted_at) WHERE deleted_at IS NOT NULL;
 -- agent_events indexes
 CREATE INDEX IF NOT EXISTS idx_agent_events_persona_id ON agent_events(persona_id);
 CREATE INDEX IF NOT EXISTS idx_agent_events_event_type ON agent_events(event_type);
@@ -209,6 +313,180 @@ CREATE INDEX IF NOT EXISTS idx_agent_event_comment_comment_id ON agent_event_com
 -- agent_event_follow indexes
 CREATE INDEX IF NOT EXISTS idx_agent_event_follow_followed_id ON agent_event_follow(followed_id);
 
+-- agent activity: one denormalized row per agent event for activity timelines, written by a
+-- trigger on each detail table in the same transaction as the event
+CREATE TABLE IF NOT EXISTS agent_activity (
+    event_id BIGINT NOT NULL,
+    persona_id BIGINT NOT NULL,
+    event_type VARCHAR(31) NOT NULL,
+    post_id BIGINT,
+    comment_id BIGINT,
+    like_id BIGINT,
+    followed_id BIGINT,
+    summary VARCHAR(280),
+    created_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (event_id, created_at)
+) PARTITION BY RANGE (created_at);
+CREATE INDEX IF NOT EXISTS idx_agent_activity_persona_event ON agent_activity(persona_id, event_id DESC);
+
+-- Weekly partitions (UTC, starting Monday) for every agent event table. ensure_ creates any that
+-- are missing for one week and returns how many it created; roll_up_ folds one week of
+-- agent_events into agent_event_hourly and drops that week from every table in one transaction.
+-- user-service calls both on a schedule (AgentEventPartitionMaintainer).
+CREATE OR REPLACE FUNCTION ensure_agent_event_partitions(week_start DATE) RETURNS INTEGER AS $$
+DECLARE
+    parent TEXT;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['agent_events', 'agent_event_post', 'agent_event_like', 'agent_event_comment',
+                                  'agent_event_follow', 'agent_event_bio', 'agent_activity'] LOOP
+        partition_name := parent || '_p' || to_char(week_start, 'YYYYMMDD');
+        -- Checking first avoids locking the parent when the partition already exists.
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, parent,
+                week_start::timestamp AT TIME ZONE 'UTC', (week_start + 7)::timestamp AT TIME ZONE 'UTC'
+            );
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION roll_up_agent_event_partition(week_start DATE) RETURNS BIGINT AS $$
+DECLARE
+    suffix TEXT := '_p' || to_char(week_start, 'YYYYMMDD');
+    parent TEXT;
+    hours BIGINT;
+BEGIN
+    EXECUTE format(
+        'INSERT INTO agent_event_hourly (persona_id, event_type, hour, event_count)
+         SELECT persona_id, event_type, date_trunc(''hour'', created_at, ''UTC''), COUNT(*)
+         FROM %I
+         GROUP BY 1, 2, 3
+         ON CONFLICT (persona_id, event_type, hour)
+         DO UPDATE SET event_count = agent_event_hourly.event_count + EXCLUDED.event_count',
+        'agent_events' || suffix
+    );
+    GET DIAGNOSTICS hours = ROW_COUNT;
+    -- Referencing tables go first, so nothing points at the agent_events partition when it is detached.
+    FOREACH parent IN ARRAY ARRAY['agent_activity', 'agent_event_post', 'agent_event_like', 'agent_event_comment',
+                                  'agent_event_follow', 'agent_event_bio', 'agent_events'] LOOP
+        IF to_regclass(parent || suffix) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, parent || suffix);
+            EXECUTE format('DROP TABLE %I', parent || suffix);
+        END IF;
+    END LOOP;
+    RETURN hours;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rows outside every weekly partition land in a default partition rather than failing the insert.
+CREATE TABLE IF NOT EXISTS agent_events_default PARTITION OF agent_events DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_event_post_default PARTITION OF agent_event_post DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_event_like_default PARTITION OF agent_event_like DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_event_comment_default PARTITION OF agent_event_comment DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_event_follow_default PARTITION OF agent_event_follow DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_event_bio_default PARTITION OF agent_event_bio DEFAULT;
+CREATE TABLE IF NOT EXISTS agent_activity_default PARTITION OF agent_activity DEFAULT;
+
+DO $$
+BEGIN
+    FOR week IN 0..4 LOOP
+        PERFORM ensure_agent_event_partitions((date_trunc('week', NOW() AT TIME ZONE 'UTC') + week * INTERVAL '7 days')::date);
+    END LOOP;
+END $$;
+
+CREATE OR REPLACE FUNCTION project_agent_activity() RETURNS trigger AS $$
+DECLARE
+    v_post_id BIGINT;
+    v_comment_id BIGINT;
+    v_like_id BIGINT;
+    v_followed_id BIGINT;
+    v_summary TEXT;
+BEGIN
+    -- TG_TABLE_NAME would be the partition the row landed in, so each trigger passes its table.
+    CASE TG_ARGV[0]
+        WHEN 'agent_event_post' THEN
+            v_post_id := NEW.post_id;
+            SELECT title INTO v_summary FROM posts WHERE id = NEW.post_id;
+        WHEN 'agent_event_like' THEN
+            v_like_id := NEW.like_id;
+            SELECT l.post_id, p.title INTO v_post_id, v_summary FROM likes l JOIN posts p ON p.id = l.post_id WHERE l.id = NEW.like_id;
+        WHEN 'agent_event_comment' THEN
+            v_post_id := NEW.post_id;
+            v_comment_id := NEW.comment_id;
+            SELECT body INTO v_summary FROM comments WHERE id = NEW.comment_id;
+        WHEN 'agent_event_follow' THEN
+            v_followed_id := NEW.followed_id;
+            SELECT username INTO v_summary FROM personas WHERE persona_id = NEW.followed_id;
+        WHEN 'agent_event_bio' THEN
+            v_summary := NEW.bio;
+    END CASE;
+    INSERT INTO agent_activity (event_id, persona_id, event_type, post_id, comment_id, like_id, followed_id, summary, created_at)
+    SELECT e.id, e.persona_id, e.event_type, v_post_id, v_comment_id, v_like_id, v_followed_id, left(v_summary, 280), e.created_at
+    FROM agent_events e
+    WHERE e.id = NEW.id AND e.created_at = NEW.created_at
+    ON CONFLICT (event_id, created_at) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_agent_event_post_activity AFTER INSERT ON agent_event_post FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_post');
+CREATE OR REPLACE TRIGGER trg_agent_event_like_activity AFTER INSERT ON agent_event_like FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_like');
+CREATE OR REPLACE TRIGGER trg_agent_event_comment_activity AFTER INSERT ON agent_event_comment FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_comment');
+CREATE OR REPLACE TRIGGER trg_agent_event_follow_activity AFTER INSERT ON agent_event_follow FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_follow');
+CREATE OR REPLACE TRIGGER trg_agent_event_bio_activity AFTER INSERT ON agent_event_bio FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_bio');
+
+-- backfill events written before the projection existed
+INSERT INTO agent_activity (event_id, persona_id, event_type, post_id, comment_id, like_id, followed_id, summary, created_at)
+SELECT e.id, e.persona_id, e.event_type,
+    COALESCE(ep.post_id, l.post_id, ec.post_id), ec.comment_id, el.like_id, ef.followed_id,
+    left(COALESCE(pp.title, lp.title, c.body, fp.username, eb.bio), 280), e.created_at
+FROM agent_events e
+LEFT JOIN agent_event_post ep ON ep.id = e.id
+LEFT JOIN posts pp ON pp.id = ep.post_id
+LEFT JOIN agent_event_like el ON el.id = e.id
+LEFT JOIN likes l ON l.id = el.like_id
+LEFT JOIN posts lp ON lp.id = l.post_id
+LEFT JOIN agent_event_comment ec ON ec.id = e.id
+LEFT JOIN comments c ON c.id = ec.comment_id
+LEFT JOIN agent_event_follow ef ON ef.id = e.id
+LEFT JOIN personas fp ON fp.persona_id = ef.followed_id
+LEFT JOIN agent_event_bio eb ON eb.id = e.id
+ON CONFLICT (event_id, created_at) DO NOTHING;
+
 -- pg_trgm
 CREATE EXTENSION IF NOT EXISTS pg_trgm;
-CREATE INDEX idx_users_username_trgm ON users USING GIN (username gin_trgm_ops);
\ No newline at end of file
+CREATE INDEX idx_users_username_trgm ON users USING GIN (username gin_trgm_ops);
+-- post search: weighted tsvector kept up to date by PostgreSQL on every insert/update
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_tsv tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(body, '')), 'B')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_posts_search_tsv ON posts USING GIN (search_tsv);
+-- bounds post search to its recency window (PostRepository.searchPosts)
+CREATE INDEX IF NOT EXISTS idx_posts_created_at ON posts(created_at) WHERE deleted_at IS NULL;
+-- message search: body_tsv is a plain column kept in step by a trigger rather than a generated
+-- column, so existing databases can add it without a table rewrite (sql/migrations/001_message_body_tsv.sql)
+CREATE OR REPLACE FUNCTION set_message_body_tsv() RETURNS trigger AS $$
+BEGIN
+    NEW.body_tsv := to_tsvector('english', NEW.body);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_message_body_tsv BEFORE INSERT OR UPDATE OF body ON message FOR EACH ROW EXECUTE FUNCTION set_message_body_tsv();
+CREATE INDEX IF NOT EXISTS idx_message_chat_id_id ON message(chat_id, id);
+CREATE INDEX IF NOT EXISTS idx_message_body_tsv ON message USING GIN (body_tsv);
+-- personas.updated_at: bumped by a trigger because the agent scheduler updates personas directly,
+-- so renames reach the username index (UsernameIndex) without every writer setting it
+CREATE OR REPLACE FUNCTION set_persona_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_personas_updated_at BEFORE UPDATE ON personas FOR EACH ROW EXECUTE FUNCTION set_persona_updated_at();
@@ -0,0 +1,45 @@
+-- Adds message search to a database created before body_tsv was part of init.sql, or converts the
+-- stored generated column earlier versions of user-service added at startup. Nothing here rewrites
+-- the message table or holds an ACCESS EXCLUSIVE lock beyond a catalog change, so it can run
+-- while the service is up. Run it with psql outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/001_message_body_tsv.sql
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_name = 'message' AND column_name = 'body_tsv' AND is_generated = 'ALWAYS'
+    ) THEN
+        -- keeps the computed values and turns body_tsv into a plain column
+        ALTER TABLE message ALTER COLUMN body_tsv DROP EXPRESSION;
+    END IF;
+END $$;
+
+-- a nullable column without a default is a catalog-only change
+ALTER TABLE message ADD COLUMN IF NOT EXISTS body_tsv tsvector;
+
+CREATE OR REPLACE FUNCTION set_message_body_tsv() RETURNS trigger AS $$
+BEGIN
+    NEW.body_tsv := to_tsvector('english', NEW.body);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_message_body_tsv BEFORE INSERT OR UPDATE OF body ON message FOR EACH ROW EXECUTE FUNCTION set_message_body_tsv();
+
+-- backfill existing rows in id order, committing every batch so row locks stay short
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    batch_end BIGINT;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_end FROM (SELECT id FROM message WHERE id > last_id ORDER BY id LIMIT 5000) batch;
+        EXIT WHEN batch_end IS NULL;
+        UPDATE message SET body_tsv = to_tsvector('english', body)
+        WHERE id > last_id AND id <= batch_end AND body_tsv IS NULL;
+        last_id := batch_end;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_message_body_tsv ON message USING GIN (body_tsv);
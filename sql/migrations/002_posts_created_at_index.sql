@@ -0,0 +1,5 @@
+-- Adds the index that bounds post search to its recency window on databases created before it was
+-- part of init.sql. Run it with psql outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/002_posts_created_at_index.sql
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_created_at ON posts(created_at) WHERE deleted_at IS NULL;
@@ -0,0 +1,52 @@
+-- Moves tag extraction into the database for databases created before it was part of init.sql:
+-- installs the trigger that fills post_tags on every posts insert, indexes posts written before it
+-- (persona posts were never indexed), adds the index trending tags are recounted from and drops the
+-- per-node tag_trend_buckets checkpoints. Run it with psql outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/003_post_tags_trigger.sql
+
+-- Hashtags and mentions of one post: up to 20 distinct of each, lower-cased, in order of first
+-- appearance. A tag is 1-50 word characters after # or @ that is not preceded by a word character
+-- or another # / @.
+CREATE OR REPLACE FUNCTION extract_post_tags(title TEXT, body TEXT) RETURNS TABLE (kind TEXT, tag TEXT) AS $$
+    (SELECT 'HASHTAG', lower(m[1])
+    FROM regexp_matches(coalesce(title, '') || ' ' || coalesce(body, ''), '(?<![\w#])#(\w{1,50})(?!\w)', 'g') WITH ORDINALITY AS r(m, pos)
+    GROUP BY lower(m[1]) ORDER BY min(pos) LIMIT 20)
+    UNION ALL
+    (SELECT 'MENTION', lower(m[1])
+    FROM regexp_matches(coalesce(title, '') || ' ' || coalesce(body, ''), '(?<![\w@])@(\w{1,50})(?!\w)', 'g') WITH ORDINALITY AS r(m, pos)
+    GROUP BY lower(m[1]) ORDER BY min(pos) LIMIT 20)
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Fills post_tags for every new post, whichever service inserts it.
+CREATE OR REPLACE FUNCTION index_post_tags() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO post_tags (kind, tag, post_id)
+    SELECT t.kind, t.tag, NEW.id FROM extract_post_tags(NEW.title, NEW.body) t;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_posts_index_tags AFTER INSERT ON posts FOR EACH ROW EXECUTE FUNCTION index_post_tags();
+
+-- index existing posts in id order, committing every batch; rows take the post's created_at so old
+-- posts do not show up as trending, and rows already written by user-service are kept
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    batch_end BIGINT;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_end FROM (SELECT id FROM posts WHERE id > last_id ORDER BY id LIMIT 5000) batch;
+        EXIT WHEN batch_end IS NULL;
+        INSERT INTO post_tags (kind, tag, post_id, created_at)
+        SELECT t.kind, t.tag, p.id, p.created_at
+        FROM posts p, extract_post_tags(p.title, p.body) t
+        WHERE p.id > last_id AND p.id <= batch_end AND p.deleted_at IS NULL
+        ON CONFLICT (kind, tag, post_id) DO NOTHING;
+        last_id := batch_end;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_tags_created_at ON post_tags(created_at);
+
+DROP TABLE IF EXISTS tag_trend_buckets;
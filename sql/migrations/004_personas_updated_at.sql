@@ -0,0 +1,16 @@
+-- Adds personas.updated_at, which the username index polls to pick up persona renames, on databases
+-- created before it was part of init.sql. The constant default makes the new column a catalog-only
+-- change, so the table is not rewritten. Run it with psql outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/004_personas_updated_at.sql
+
+ALTER TABLE personas ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+CREATE OR REPLACE FUNCTION set_persona_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER trg_personas_updated_at BEFORE UPDATE ON personas FOR EACH ROW EXECUTE FUNCTION set_persona_updated_at();
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_personas_updated_at ON personas(updated_at);
@@ -0,0 +1,288 @@
+-- Converts the agent event tables (agent_events, the five agent_event_* detail tables and
+-- agent_activity) of databases created before they were partitioned into the weekly partitioned
+-- tables of init.sql, keeping every event. The old tables are renamed aside and the partitioned
+-- ones take their names in one short transaction, so writers go on inserting while the old rows
+-- are copied over in batches; the old tables are dropped once the copy is done. Run it with psql
+-- outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/005_partition_agent_events.sql
+
+CREATE TABLE IF NOT EXISTS agent_event_hourly (
+    persona_id BIGINT NOT NULL,
+    event_type VARCHAR(31) NOT NULL,
+    hour TIMESTAMPTZ NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (persona_id, event_type, hour)
+);
+
+CREATE OR REPLACE FUNCTION ensure_agent_event_partitions(week_start DATE) RETURNS INTEGER AS $$
+DECLARE
+    parent TEXT;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['agent_events', 'agent_event_post', 'agent_event_like', 'agent_event_comment',
+                                  'agent_event_follow', 'agent_event_bio', 'agent_activity'] LOOP
+        partition_name := parent || '_p' || to_char(week_start, 'YYYYMMDD');
+        -- Checking first avoids locking the parent when the partition already exists.
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, parent,
+                week_start::timestamp AT TIME ZONE 'UTC', (week_start + 7)::timestamp AT TIME ZONE 'UTC'
+            );
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION roll_up_agent_event_partition(week_start DATE) RETURNS BIGINT AS $$
+DECLARE
+    suffix TEXT := '_p' || to_char(week_start, 'YYYYMMDD');
+    parent TEXT;
+    hours BIGINT;
+BEGIN
+    EXECUTE format(
+        'INSERT INTO agent_event_hourly (persona_id, event_type, hour, event_count)
+         SELECT persona_id, event_type, date_trunc(''hour'', created_at, ''UTC''), COUNT(*)
+         FROM %I
+         GROUP BY 1, 2, 3
+         ON CONFLICT (persona_id, event_type, hour)
+         DO UPDATE SET event_count = agent_event_hourly.event_count + EXCLUDED.event_count',
+        'agent_events' || suffix
+    );
+    GET DIAGNOSTICS hours = ROW_COUNT;
+    -- Referencing tables go first, so nothing points at the agent_events partition when it is detached.
+    FOREACH parent IN ARRAY ARRAY['agent_activity', 'agent_event_post', 'agent_event_like', 'agent_event_comment',
+                                  'agent_event_follow', 'agent_event_bio', 'agent_events'] LOOP
+        IF to_regclass(parent || suffix) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, parent || suffix);
+            EXECUTE format('DROP TABLE %I', parent || suffix);
+        END IF;
+    END LOOP;
+    RETURN hours;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION project_agent_activity() RETURNS trigger AS $$
+DECLARE
+    v_post_id BIGINT;
+    v_comment_id BIGINT;
+    v_like_id BIGINT;
+    v_followed_id BIGINT;
+    v_summary TEXT;
+BEGIN
+    -- TG_TABLE_NAME would be the partition the row landed in, so each trigger passes its table.
+    CASE TG_ARGV[0]
+        WHEN 'agent_event_post' THEN
+            v_post_id := NEW.post_id;
+            SELECT title INTO v_summary FROM posts WHERE id = NEW.post_id;
+        WHEN 'agent_event_like' THEN
+            v_like_id := NEW.like_id;
+            SELECT l.post_id, p.title INTO v_post_id, v_summary FROM likes l JOIN posts p ON p.id = l.post_id WHERE l.id = NEW.like_id;
+        WHEN 'agent_event_comment' THEN
+            v_post_id := NEW.post_id;
+            v_comment_id := NEW.comment_id;
+            SELECT body INTO v_summary FROM comments WHERE id = NEW.comment_id;
+        WHEN 'agent_event_follow' THEN
+            v_followed_id := NEW.followed_id;
+            SELECT username INTO v_summary FROM personas WHERE persona_id = NEW.followed_id;
+        WHEN 'agent_event_bio' THEN
+            v_summary := NEW.bio;
+    END CASE;
+    INSERT INTO agent_activity (event_id, persona_id, event_type, post_id, comment_id, like_id, followed_id, summary, created_at)
+    SELECT e.id, e.persona_id, e.event_type, v_post_id, v_comment_id, v_like_id, v_followed_id, left(v_summary, 280), e.created_at
+    FROM agent_events e
+    WHERE e.id = NEW.id AND e.created_at = NEW.created_at
+    ON CONFLICT (event_id, created_at) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Swap: move the unpartitioned tables aside and create the partitioned ones under their names.
+-- Skipped when agent_events is already partitioned, so the script can be re-run after an
+-- interrupted copy.
+DO $$
+DECLARE
+    parent TEXT;
+    this_week DATE := date_trunc('week', NOW() AT TIME ZONE 'UTC')::date;
+    first_week DATE;
+BEGIN
+    IF to_regclass('agent_events') IS NULL OR (SELECT relkind FROM pg_class WHERE oid = 'agent_events'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    FOREACH parent IN ARRAY ARRAY['agent_events', 'agent_event_post', 'agent_event_like', 'agent_event_comment',
+                                  'agent_event_follow', 'agent_event_bio', 'agent_activity'] LOOP
+        IF to_regclass(parent) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', parent, parent || '_unpartitioned');
+            -- Index names are schema-wide, so the old ones would clash with (or, being IF NOT
+            -- EXISTS in init.sql, stand in for) those of the new tables.
+            EXECUTE format('ALTER INDEX IF EXISTS %I RENAME TO %I', parent || '_pkey', parent || '_unpartitioned_pkey');
+        END IF;
+    END LOOP;
+    DROP INDEX IF EXISTS idx_agent_events_persona_id, idx_agent_events_event_type, idx_agent_events_created_at,
+        idx_agent_events_persona_event, idx_agent_event_post_post_id, idx_agent_event_like_like_id,
+        idx_agent_event_comment_post_id, idx_agent_event_comment_comment_id, idx_agent_event_follow_followed_id,
+        idx_agent_activity_persona_event;
+
+    CREATE TABLE agent_events (
+        id BIGINT NOT NULL DEFAULT nextval('agent_events_id_seq'),
+        persona_id BIGINT NOT NULL REFERENCES personas(persona_id),
+        event_type VARCHAR(31) NOT NULL,
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+    -- The old ids keep their values, so new events continue the same sequence.
+    ALTER SEQUENCE agent_events_id_seq OWNED BY agent_events.id;
+
+    CREATE TABLE agent_event_post (
+        id BIGINT NOT NULL,
+        post_id BIGINT NOT NULL REFERENCES posts(id),
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at),
+        FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE agent_event_like (
+        id BIGINT NOT NULL,
+        like_id BIGINT NOT NULL REFERENCES likes(id),
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at),
+        FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE agent_event_comment (
+        id BIGINT NOT NULL,
+        post_id BIGINT NOT NULL REFERENCES posts(id),
+        comment_id BIGINT NOT NULL REFERENCES comments(id),
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at),
+        FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE agent_event_follow (
+        id BIGINT NOT NULL,
+        followed_id BIGINT NOT NULL REFERENCES personas(persona_id),
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at),
+        FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE agent_event_bio (
+        id BIGINT NOT NULL,
+        bio TEXT NOT NULL,
+        created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, created_at),
+        FOREIGN KEY (id, created_at) REFERENCES agent_events(id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE agent_activity (
+        event_id BIGINT NOT NULL,
+        persona_id BIGINT NOT NULL,
+        event_type VARCHAR(31) NOT NULL,
+        post_id BIGINT,
+        comment_id BIGINT,
+        like_id BIGINT,
+        followed_id BIGINT,
+        summary VARCHAR(280),
+        created_at TIMESTAMPTZ NOT NULL,
+        PRIMARY KEY (event_id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    -- A weekly partition for every week that holds old events, through the premake window, so
+    -- nothing copied lands in the default partitions, which the maintainer never rolls up.
+    SELECT COALESCE(date_trunc('week', min(created_at) AT TIME ZONE 'UTC')::date, this_week)
+    INTO first_week FROM agent_events_unpartitioned;
+    FOR week IN 0..((this_week - first_week) / 7 + 4) LOOP
+        PERFORM ensure_agent_event_partitions(first_week + week * 7);
+    END LOOP;
+    CREATE TABLE agent_events_default PARTITION OF agent_events DEFAULT;
+    CREATE TABLE agent_event_post_default PARTITION OF agent_event_post DEFAULT;
+    CREATE TABLE agent_event_like_default PARTITION OF agent_event_like DEFAULT;
+    CREATE TABLE agent_event_comment_default PARTITION OF agent_event_comment DEFAULT;
+    CREATE TABLE agent_event_follow_default PARTITION OF agent_event_follow DEFAULT;
+    CREATE TABLE agent_event_bio_default PARTITION OF agent_event_bio DEFAULT;
+    CREATE TABLE agent_activity_default PARTITION OF agent_activity DEFAULT;
+
+    CREATE INDEX idx_agent_events_persona_id ON agent_events(persona_id);
+    CREATE INDEX idx_agent_events_event_type ON agent_events(event_type);
+    CREATE INDEX idx_agent_events_created_at ON agent_events(created_at DESC);
+    CREATE INDEX idx_agent_events_persona_event ON agent_events(persona_id, event_type);
+    CREATE INDEX idx_agent_event_post_post_id ON agent_event_post(post_id);
+    CREATE INDEX idx_agent_event_like_like_id ON agent_event_like(like_id);
+    CREATE INDEX idx_agent_event_comment_post_id ON agent_event_comment(post_id);
+    CREATE INDEX idx_agent_event_comment_comment_id ON agent_event_comment(comment_id);
+    CREATE INDEX idx_agent_event_follow_followed_id ON agent_event_follow(followed_id);
+    CREATE INDEX idx_agent_activity_persona_event ON agent_activity(persona_id, event_id DESC);
+
+    -- In the same transaction, so no event written after the swap misses agent_activity.
+    CREATE TRIGGER trg_agent_event_post_activity AFTER INSERT ON agent_event_post FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_post');
+    CREATE TRIGGER trg_agent_event_like_activity AFTER INSERT ON agent_event_like FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_like');
+    CREATE TRIGGER trg_agent_event_comment_activity AFTER INSERT ON agent_event_comment FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_comment');
+    CREATE TRIGGER trg_agent_event_follow_activity AFTER INSERT ON agent_event_follow FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_follow');
+    CREATE TRIGGER trg_agent_event_bio_activity AFTER INSERT ON agent_event_bio FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_bio');
+END $$;
+
+-- Replaces the triggers of databases partitioned by an earlier init.sql, which passed no table to
+-- project_agent_activity.
+CREATE OR REPLACE TRIGGER trg_agent_event_post_activity AFTER INSERT ON agent_event_post FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_post');
+CREATE OR REPLACE TRIGGER trg_agent_event_like_activity AFTER INSERT ON agent_event_like FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_like');
+CREATE OR REPLACE TRIGGER trg_agent_event_comment_activity AFTER INSERT ON agent_event_comment FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_comment');
+CREATE OR REPLACE TRIGGER trg_agent_event_follow_activity AFTER INSERT ON agent_event_follow FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_follow');
+CREATE OR REPLACE TRIGGER trg_agent_event_bio_activity AFTER INSERT ON agent_event_bio FOR EACH ROW EXECUTE FUNCTION project_agent_activity('agent_event_bio');
+
+-- Copy the old events in id order, committing every batch. Detail rows take their event's
+-- created_at and the triggers project them into agent_activity; rows already copied by an
+-- earlier, interrupted run are skipped.
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    batch_end BIGINT;
+BEGIN
+    IF to_regclass('agent_events_unpartitioned') IS NULL THEN
+        RETURN;
+    END IF;
+    LOOP
+        SELECT max(id) INTO batch_end FROM (SELECT id FROM agent_events_unpartitioned WHERE id > last_id ORDER BY id LIMIT 5000) batch;
+        EXIT WHEN batch_end IS NULL;
+        INSERT INTO agent_events (id, persona_id, event_type, created_at)
+        SELECT e.id, e.persona_id, e.event_type, e.created_at
+        FROM agent_events_unpartitioned e
+        WHERE e.id > last_id AND e.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        INSERT INTO agent_event_post (id, post_id, created_at)
+        SELECT d.id, d.post_id, e.created_at
+        FROM agent_event_post_unpartitioned d JOIN agent_events_unpartitioned e ON e.id = d.id
+        WHERE d.id > last_id AND d.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        INSERT INTO agent_event_like (id, like_id, created_at)
+        SELECT d.id, d.like_id, e.created_at
+        FROM agent_event_like_unpartitioned d JOIN agent_events_unpartitioned e ON e.id = d.id
+        WHERE d.id > last_id AND d.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        INSERT INTO agent_event_comment (id, post_id, comment_id, created_at)
+        SELECT d.id, d.post_id, d.comment_id, e.created_at
+        FROM agent_event_comment_unpartitioned d JOIN agent_events_unpartitioned e ON e.id = d.id
+        WHERE d.id > last_id AND d.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        INSERT INTO agent_event_follow (id, followed_id, created_at)
+        SELECT d.id, d.followed_id, e.created_at
+        FROM agent_event_follow_unpartitioned d JOIN agent_events_unpartitioned e ON e.id = d.id
+        WHERE d.id > last_id AND d.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        INSERT INTO agent_event_bio (id, bio, created_at)
+        SELECT d.id, d.bio, e.created_at
+        FROM agent_event_bio_unpartitioned d JOIN agent_events_unpartitioned e ON e.id = d.id
+        WHERE d.id > last_id AND d.id <= batch_end
+        ON CONFLICT (id, created_at) DO NOTHING;
+        last_id := batch_end;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- agent_activity is rebuilt from the copied events by the triggers, so its old table goes as is.
+DROP TABLE IF EXISTS agent_activity_unpartitioned, agent_event_post_unpartitioned, agent_event_like_unpartitioned,
+    agent_event_comment_unpartitioned, agent_event_follow_unpartitioned, agent_event_bio_unpartitioned;
+DROP TABLE IF EXISTS agent_events_unpartitioned;
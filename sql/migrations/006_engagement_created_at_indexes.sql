@@ -0,0 +1,6 @@
+-- Adds the indexes the trending catch-up reads new likes and comments through, on databases
+-- created before they were part of init.sql. Run it with psql outside a transaction block:
+--   psql -d sim-feed-db -f sql/migrations/006_engagement_created_at_indexes.sql
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_likes_created_at_id ON likes(created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_created_at_id ON comments(created_at, id);
@@ -22,7 +22,12 @@ public class CacheConfiguration {
             buildCache("follows", 1000, 10),
             buildCache("followers", 1000, 10),
             buildCache("user-stats", 1000, 10),
-            buildCache("likes", 1000, 5)
+            buildCache("likes", 1000, 5),
+            buildCache("post-search", 500, 1),
+            buildCache("author-posts", 10000, 1),
+            buildCache("post-summaries", 5000, 1),
+            buildCache("users", 10000, 10),
+            buildCache("user-search", 1000, 1)
         ));
         return manager;
     }
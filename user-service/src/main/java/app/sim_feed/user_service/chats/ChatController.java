@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import org.springframework.web.bind.annotation.RequestBody;
@@ -15,16 +16,23 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.data.domain.Page;
 
 
+import app.sim_feed.user_service.chats.models.BulkMembersDto;
+import app.sim_feed.user_service.chats.models.BulkMembersResultDto;
 import app.sim_feed.user_service.chats.models.ChatDto;
+import app.sim_feed.user_service.chats.models.ChatUnreadDto;
 import app.sim_feed.user_service.chats.models.ChatsDto;
 import app.sim_feed.user_service.chats.models.NewChatDto;
 import app.sim_feed.user_service.chats.models.NewChatNameDto;
+import app.sim_feed.user_service.chats.models.ReadReceiptDto;
+import app.sim_feed.user_service.messages.models.MessageCursorDto;
 import app.sim_feed.user_service.messages.models.MessageDto;
+import app.sim_feed.user_service.messages.models.MessageSearchDto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import java.net.URI;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 
 
@@ -47,11 +55,31 @@ public class ChatController {
         return chatService.getUserChats(userId);
     }
     
+    @GetMapping("/search")
+    public MessageSearchDto searchMessages(@RequestParam("q") String query, @RequestParam(required = false) Long chatId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal String requesterId) {
+        return chatService.searchMessages(query, chatId, cursor, size, requesterId);
+    }
+    
+    @GetMapping("/unread")
+    public List<ChatUnreadDto> getUnreadCounts(@AuthenticationPrincipal String userId) {
+        return chatService.getUnreadCounts(userId);
+    }
+    
+    @PutMapping("/{chatId}/read")
+    public ChatUnreadDto markRead(@PathVariable @NotNull Long chatId, @RequestBody @Valid ReadReceiptDto readReceiptDto, @AuthenticationPrincipal String userId) {
+        return chatService.markRead(chatId, readReceiptDto.messageId(), userId);
+    }
+    
     @GetMapping("/{chatId}/messages")
     public Page<MessageDto> getChatMessages(@PathVariable @NotNull Long chatId, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal String requesterId) {
         return chatService.getChatMessages(chatId, page, size, requesterId);
     }
     
+    @GetMapping("/{chatId}/messages/cursor")
+    public MessageCursorDto getChatMessagesBefore(@PathVariable @NotNull Long chatId, @RequestParam(required = false) Long before, @RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal String requesterId) {
+        return chatService.getChatMessagesBefore(chatId, before, size, requesterId);
+    }
+    
     @DeleteMapping("/{chatId}")
     public ResponseEntity<Void> deleteChat(@PathVariable @NotNull Long chatId, @AuthenticationPrincipal String userId) {
         chatService.deleteChat(chatId, userId);
@@ -77,6 +105,16 @@ public class ChatController {
         return ResponseEntity.created(location).body(chatDto);
     }
     
+    @PostMapping("/{chatId}/members")
+    public BulkMembersResultDto addMembers(@PathVariable @NotNull Long chatId, @RequestBody @Valid BulkMembersDto bulkMembersDto, @AuthenticationPrincipal String requesterId) {
+        return chatService.addMembers(chatId, bulkMembersDto.userIds(), requesterId);
+    }
+    
+    @PostMapping("/{chatId}/members/removals")
+    public BulkMembersResultDto removeMembers(@PathVariable @NotNull Long chatId, @RequestBody @Valid BulkMembersDto bulkMembersDto, @AuthenticationPrincipal String requesterId) {
+        return chatService.removeMembers(chatId, bulkMembersDto.userIds(), requesterId);
+    }
+    
     @PatchMapping("/{chatId}")
     public ResponseEntity<ChatDto> updateChatName(@PathVariable @NotNull Long chatId, @RequestBody @Valid NewChatNameDto chatNameDto, @AuthenticationPrincipal String requesterId) {
         ChatDto chatDto = chatService.updateChatName(chatId, chatNameDto.chatName(), requesterId);
@@ -1,10 +1,49 @@
 package app.sim_feed.user_service.chats;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import app.sim_feed.user_service.chats.models.ChatMember;
+import app.sim_feed.user_service.chats.models.ChatMemberCandidate;
+import app.sim_feed.user_service.chats.models.ChatUnreadSnapshot;
 
 public interface ChatMemberRepository extends JpaRepository<ChatMember, Long> {
     
-    boolean existsByChatIdAndUserClerkId(Long chatId, String userId);
+    @Query("SELECT COUNT(m) > 0 FROM ChatMember m WHERE m.chat.id = :chatId AND m.user.clerkId = :userId AND m.chat.deletedAt IS NULL")
+    boolean existsByChatIdAndUserClerkId(@Param("chatId") Long chatId, @Param("userId") String userId);
+    
+    @Query("""
+        SELECT new app.sim_feed.user_service.chats.models.ChatMemberCandidate(u.clerkId, m.id)
+        FROM User u
+        LEFT JOIN ChatMember m ON m.user = u AND m.chat.id = :chatId
+        WHERE u.clerkId IN :userIds
+    """)
+    List<ChatMemberCandidate> findCandidates(@Param("chatId") Long chatId, @Param("userIds") Collection<String> userIds);
+    
+    @Query("SELECT m.user.clerkId FROM ChatMember m WHERE m.chat.id = :chatId AND m.user.clerkId IN :userIds")
+    List<String> findMemberUserIds(@Param("chatId") Long chatId, @Param("userIds") Collection<String> userIds);
+    
+    @Modifying
+    @Query("DELETE FROM ChatMember m WHERE m.chat.id = :chatId AND m.user.clerkId IN :userIds")
+    int deleteMembers(@Param("chatId") Long chatId, @Param("userIds") Collection<String> userIds);
+    
+    @Query("SELECT m.chat.id FROM ChatMember m WHERE m.user.clerkId = :userId AND m.chat.deletedAt IS NULL")
+    List<Long> findChatIdsByUserId(@Param("userId") String userId);
     
-}
\ No newline at end of file
+    @Query("""
+        SELECT new app.sim_feed.user_service.chats.models.ChatUnreadSnapshot(m.chat.id, m.lastReadMessageId, COUNT(msg.id), MAX(msg.id))
+        FROM ChatMember m
+        LEFT JOIN Message msg ON msg.chat = m.chat
+            AND (m.lastReadMessageId IS NULL OR msg.id > m.lastReadMessageId)
+            AND (msg.userAuthor IS NULL OR msg.userAuthor <> m.user)
+        WHERE m.user.clerkId = :userId
+        AND m.chat.id IN :chatIds
+        GROUP BY m.chat.id, m.lastReadMessageId
+    """)
+    List<ChatUnreadSnapshot> findUnreadSnapshots(@Param("userId") String userId, @Param("chatIds") Collection<Long> chatIds);
+}
@@ -3,6 +3,8 @@ package app.sim_feed.user_service.chats;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -19,4 +21,12 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
         OR m.user.clerkId = :userId
     """)
     List<Chat> findAllByUserId(@Param("userId") String userId);
+    
+    @Modifying
+    @NativeQuery("UPDATE chats SET deleted_at = CURRENT_TIMESTAMP WHERE id = :chatId AND deleted_at IS NULL")
+    int tombstone(@Param("chatId") Long chatId);
+    
+    @Modifying
+    @NativeQuery("UPDATE chats SET deleted_at = CURRENT_TIMESTAMP WHERE creator_id = :creatorId AND deleted_at IS NULL")
+    int tombstoneAllByCreatorId(@Param("creatorId") String creatorId);
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package app.sim_feed.user_service.chats;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import app.sim_feed.user_service.chats.models.ChatNotification;
+import app.sim_feed.user_service.messages.MessageService;
+import app.sim_feed.user_service.messages.models.MessageDto;
+import lombok.extern.java.Log;
+
+/**
+ * Lets a reconnecting client resume a chat: a SUBSCRIBE to /topic/chats/{chatId} carrying a
+ * {@code last-message-id} header is answered with every newer message, sent to that session only,
+ * right after the broker has registered the subscription. Any message committed after that point is
+ * also delivered live, so the replay has no gaps; one committed while the replay runs can arrive both
+ * ways. In relay mode the replay always reads the database, since this node's recent-message buffer
+ * never sees messages committed on other nodes.
+ */
+@Component
+@Log
+public class ChatResumeInterceptor implements ExecutorChannelInterceptor {
+
+    public static final String LAST_MESSAGE_ID_HEADER = "last-message-id";
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chats/";
+
+    private final MessageService messageService;
+    private final ObjectProvider<MessageChannel> clientOutboundChannel;
+    private final ObjectProvider<MessageConverter> brokerMessageConverter;
+    private volatile SimpMessagingTemplate sessionTemplate;
+
+    @Value("${chat.resume.max-replay:200}")
+    private int maxReplay;
+
+    // The broker channels are created after the interceptors they depend on, so resolve them lazily.
+    public ChatResumeInterceptor(
+        MessageService messageService,
+        @Qualifier("clientOutboundChannel") ObjectProvider<MessageChannel> clientOutboundChannel,
+        @Qualifier("brokerMessageConverter") ObjectProvider<MessageConverter> brokerMessageConverter
+    ) {
+        this.messageService = messageService;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.brokerMessageConverter = brokerMessageConverter;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (ex != null || !(handler instanceof AbstractBrokerMessageHandler)) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (!StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            return;
+        }
+        String destination = accessor.getDestination();
+        String lastMessageId = accessor.getFirstNativeHeader(LAST_MESSAGE_ID_HEADER);
+        if (destination == null || !destination.startsWith(CHAT_TOPIC_PREFIX) || lastMessageId == null) {
+            return;
+        }
+        try {
+            Long chatId = Long.parseLong(destination.substring(CHAT_TOPIC_PREFIX.length()).split("/")[0]);
+            List<MessageDto> missed = messageService.getMessagesAfter(chatId, Long.parseLong(lastMessageId), maxReplay);
+            missed.forEach(missedMessage -> replay(accessor, destination, missedMessage));
+        } catch (NumberFormatException e) {
+            log.warning("Ignoring resume request with invalid " + LAST_MESSAGE_ID_HEADER + " on " + destination);
+        }
+    }
+
+    private void replay(StompHeaderAccessor subscription, String destination, MessageDto message) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(subscription.getSessionId());
+        headers.setSubscriptionId(subscription.getSubscriptionId());
+        headers.setLeaveMutable(true);
+        template().convertAndSend(destination, ChatNotification.message(message), headers.getMessageHeaders());
+    }
+
+    private SimpMessagingTemplate template() {
+        SimpMessagingTemplate template = sessionTemplate;
+        if (template == null) {
+            template = new SimpMessagingTemplate(clientOutboundChannel.getObject());
+            template.setMessageConverter(brokerMessageConverter.getObject());
+            sessionTemplate = template;
+        }
+        return template;
+    }
+}
@@ -1,21 +1,32 @@
 package app.sim_feed.user_service.chats;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.chats.models.BulkMembersResultDto;
 import app.sim_feed.user_service.chats.models.Chat;
 import app.sim_feed.user_service.chats.models.ChatDto;
 import app.sim_feed.user_service.chats.models.ChatMember;
+import app.sim_feed.user_service.chats.models.ChatMemberCandidate;
+import app.sim_feed.user_service.chats.models.ChatUnreadDto;
 import app.sim_feed.user_service.chats.models.ChatsDto;
+import app.sim_feed.user_service.ids.Snowflake;
 import app.sim_feed.user_service.messages.MessageService;
+import app.sim_feed.user_service.messages.models.MessageCursorDto;
 import app.sim_feed.user_service.messages.models.MessageDto;
+import app.sim_feed.user_service.messages.models.MessageSearchDto;
 import app.sim_feed.user_service.users.UserRepository;
 import lombok.RequiredArgsConstructor;
 import app.sim_feed.user_service.users.models.User;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,10 +36,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatService {
     
+    private static final String INSERT_MEMBERS_SQL = "INSERT INTO chat_members (id, chat_id, user_id, joined_at) VALUES ";
+    
     private final ChatRepository chatRepository;
     private final UserRepository userRepository;
     private final ChatMemberRepository chatMemberRepository;
     private final MessageService messageService;
+    private final UnreadCounterService unreadCounterService;
+    private final JdbcTemplate jdbcTemplate;
     
     @Transactional
     public ChatDto createChat(String chatName, List<String> memberIds, String creatorId) {
@@ -83,26 +98,62 @@ public class ChatService {
         return messageService.getMessagesByChatId(chatId, page, size);
     }
     
+    @Transactional(readOnly = true)
+    public MessageCursorDto getChatMessagesBefore(Long chatId, Long beforeMessageId, int size, String requesterId) {
+        if (!chatMemberRepository.existsByChatIdAndUserClerkId(chatId, requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this chat");
+        }
+        return messageService.getMessagesBefore(chatId, beforeMessageId, size);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MessageDto> getChatBacklog(Long chatId, String requesterId) {
+        if (!chatMemberRepository.existsByChatIdAndUserClerkId(chatId, requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this chat");
+        }
+        return messageService.getRecentMessages(chatId);
+    }
+    
+    public MessageSearchDto searchMessages(String query, Long chatId, String cursor, int size, String requesterId) {
+        if (chatId != null && !chatMemberRepository.existsByChatIdAndUserClerkId(chatId, requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this chat");
+        }
+        return messageService.searchMessages(requesterId, query, chatId, cursor, size);
+    }
+    
+    public List<ChatUnreadDto> getUnreadCounts(String userId) {
+        return unreadCounterService.getUnreadCounts(userId);
+    }
+    
+    public ChatUnreadDto markRead(Long chatId, Long messageId, String userId) {
+        if (messageId == null || messageId < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Message ID must be a positive number");
+        }
+        return unreadCounterService.acknowledgeRead(chatId, userId, messageId);
+    }
+    
+    /** Tombstones the chat; members and messages are purged in the background by the tombstone purger. */
+    @Transactional
     public void deleteChat(Long chatId, String userId) {
         Chat chat = chatRepository.findById(chatId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
         if (!chat.getCreatorId().equals(userId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to delete this chat");
         }
-        chatRepository.delete(chat);
+        chatRepository.tombstone(chatId);
+        unreadCounterService.evictChat(chatId);
+        messageService.evictChat(chatId);
     }
     
+    @Transactional
     public void leaveChat(Long chatId, String userId) {
-        if (!chatMemberRepository.existsByChatIdAndUserClerkId(chatId, userId)) {
+        if (chatMemberRepository.deleteMembers(chatId, List.of(userId)) == 0) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "You are not a member of this chat");
         }
-        Chat chat = chatRepository.findById(chatId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
-        
-        chat.getMembers().removeIf(member -> member.getUser() != null && member.getUser().getClerkId().equals(userId));
-        chatRepository.save(chat);
+        unreadCounterService.evictMember(chatId, userId);
     }
     
+    @Transactional
     public ChatDto kickMember(Long chatId, String targetUserId, String requesterId) {
         if (targetUserId.equals(requesterId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You cannot kick yourself from the chat");
@@ -116,6 +167,11 @@ public class ChatService {
         return ChatDto.of(chat);
     }
     
+    /**
+     * Adds one member through the same candidate lookup and INSERT as {@link #addMembers}, so the
+     * row is written with its chat id instead of through the chat's member collection.
+     */
+    @Transactional
     public ChatDto addMember(Long chatId, String targetUserId, String requesterId) {
         if (targetUserId.equals(requesterId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You cannot add yourself to the chat");
@@ -126,20 +182,83 @@ public class ChatService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to add members to this chat");
         }
         
-        if (chatMemberRepository.existsByChatIdAndUserClerkId(chatId, targetUserId)) {
+        ChatMemberCandidate candidate = chatMemberRepository.findCandidates(chatId, List.of(targetUserId))
+            .stream()
+            .findFirst()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        if (candidate.isMember()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "User is already a member of this chat");
         }
-        
-        User user = userRepository.findById(targetUserId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-            
-        ChatMember chatMember = new ChatMember();
-        chatMember.setUser(user);
-        chat.getMembers().add(chatMember);
-        chatRepository.save(chat);
+        insertMembers(chatId, List.of(targetUserId));
+        // The member set has not been read yet, so it loads with the row just inserted.
         return ChatDto.of(chat);
     }
     
+    /**
+     * Adds every listed user that exists and is not yet a member with one multi-row INSERT. Existing
+     * memberships are found in a single lookup over idx_chat_room_user rather than by loading the chat.
+     */
+    @Transactional
+    public BulkMembersResultDto addMembers(Long chatId, List<String> userIds, String requesterId) {
+        Chat chat = chatRepository.findById(chatId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
+        if (!chat.getCreatorId().equals(requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to add members to this chat");
+        }
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        requested.remove(requesterId);
+        
+        List<String> added = requested.isEmpty() ? List.of() : chatMemberRepository.findCandidates(chatId, requested)
+            .stream()
+            .filter(candidate -> !candidate.isMember())
+            .map(ChatMemberCandidate::userId)
+            .toList();
+        if (!added.isEmpty()) {
+            insertMembers(chatId, added);
+        }
+        return new BulkMembersResultDto(chatId, added, skipped(userIds, added));
+    }
+    
+    @Transactional
+    public BulkMembersResultDto removeMembers(Long chatId, List<String> userIds, String requesterId) {
+        Chat chat = chatRepository.findById(chatId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
+        if (!chat.getCreatorId().equals(requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to kick members from this chat");
+        }
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        requested.remove(requesterId);
+        
+        List<String> removed = requested.isEmpty() ? List.of() : chatMemberRepository.findMemberUserIds(chatId, requested);
+        if (!removed.isEmpty()) {
+            chatMemberRepository.deleteMembers(chatId, removed);
+            removed.forEach(userId -> unreadCounterService.evictMember(chatId, userId));
+        }
+        return new BulkMembersResultDto(chatId, removed, skipped(userIds, removed));
+    }
+    
+    private void insertMembers(Long chatId, List<String> userIds) {
+        String sql = INSERT_MEMBERS_SQL + String.join(", ", Collections.nCopies(userIds.size(), "(?, ?, ?, ?)"));
+        LocalDateTime joinedAt = LocalDateTime.now();
+        Object[] args = new Object[userIds.size() * 4];
+        for (int i = 0; i < userIds.size(); i++) {
+            args[i * 4] = Snowflake.instance().nextId();
+            args[i * 4 + 1] = chatId;
+            args[i * 4 + 2] = userIds.get(i);
+            args[i * 4 + 3] = joinedAt;
+        }
+        try {
+            jdbcTemplate.update(sql, args);
+        } catch (DuplicateKeyException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chat members were changed concurrently, please retry");
+        }
+    }
+    
+    private static List<String> skipped(List<String> requested, List<String> changed) {
+        Set<String> changedIds = Set.copyOf(changed);
+        return requested.stream().distinct().filter(userId -> !changedIds.contains(userId)).toList();
+    }
+    
     public ChatDto updateChatName(Long chatId, String chatName, String requesterId) {
         Chat chat = chatRepository.findById(chatId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
@@ -1,13 +1,25 @@
 package app.sim_feed.user_service.chats;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
 import app.sim_feed.user_service.chats.models.ChatNotification;
+import app.sim_feed.user_service.chats.models.PresenceNotification;
+import app.sim_feed.user_service.chats.models.ReadReceiptDto;
+import app.sim_feed.user_service.chats.models.TypingDto;
 import app.sim_feed.user_service.messages.MessageService;
 import app.sim_feed.user_service.messages.models.MessageDto;
 import app.sim_feed.user_service.messages.models.NewMessageDto;
@@ -18,8 +30,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ChatWebSocket {
 
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chats/";
+    // Striped so the lock count stays fixed however many chats there are; a shared stripe only costs parallelism.
+    private static final int SEND_LOCK_STRIPES = 256;
+
     private final ChatMemberRepository chatMemberRepository;
     private final MessageService messageService;
+    private final ChatService chatService;
+    private final UnreadCounterService unreadCounterService;
+    private final PresenceRegistry presenceRegistry;
+    private final TypingCoalescer typingCoalescer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Lock[] sendLocks = IntStream.range(0, SEND_LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
 
     @MessageMapping("/chats/{chatId}/join")
     @SendTo("/topic/chats/{chatId}")
@@ -33,11 +55,53 @@ public class ChatWebSocket {
         return ChatNotification.join(userId, chatId);
     }
     
+    // Subscribing to /app/chats/{chatId}/backlog replies once to the joining session with the newest messages.
+    @SubscribeMapping("/chats/{chatId}/backlog")
+    public List<MessageDto> joinBacklog(@DestinationVariable Long chatId, SimpMessageHeaderAccessor headerAccessor) {
+        String userId = headerAccessor.getUser().getName();
+        return chatService.getChatBacklog(chatId, userId);
+    }
+    
+    // Current online members; later changes arrive as PRESENCE_DIFF notifications on /topic/chats/{chatId}.
+    @SubscribeMapping("/chats/{chatId}/presence")
+    public PresenceNotification presenceSnapshot(@DestinationVariable Long chatId, SimpMessageHeaderAccessor headerAccessor) {
+        String userId = headerAccessor.getUser().getName();
+
+        if (!chatMemberRepository.existsByChatIdAndUserClerkId(chatId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this chat");
+        }
+
+        return presenceRegistry.snapshot(chatId);
+    }
+    
+    // Inbound frames are ordered per session, so senders in the same chat run in parallel. Persisting
+    // and publishing under the chat's lock makes subscribers receive messages in id order.
     @MessageMapping("/chats/{chatId}/message")
-    @SendTo("/topic/chats/{chatId}")
-    public ChatNotification sendMessage(@DestinationVariable Long chatId, @Payload NewMessageDto newMessageDto) {
-        MessageDto messageDto = messageService.createMessage(newMessageDto);
-        return ChatNotification.message(messageDto);
+    public void sendMessage(@DestinationVariable Long chatId, @Payload NewMessageDto newMessageDto) {
+        Lock lock = sendLocks[Math.floorMod(Long.hashCode(chatId), SEND_LOCK_STRIPES)];
+        lock.lock();
+        try {
+            MessageDto messageDto = messageService.createMessage(newMessageDto);
+            unreadCounterService.recordMessage(messageDto);
+            messagingTemplate.convertAndSend(CHAT_TOPIC_PREFIX + chatId, ChatNotification.message(messageDto));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @MessageMapping("/chats/{chatId}/read")
+    public void acknowledgeRead(@DestinationVariable Long chatId, @Payload ReadReceiptDto readReceiptDto, SimpMessageHeaderAccessor headerAccessor) {
+        String userId = headerAccessor.getUser().getName();
+        chatService.markRead(chatId, readReceiptDto.messageId(), userId);
+    }
+    
+    // Typing frames are only taken from sessions present in the chat, which were authorised on subscribe.
+    @MessageMapping("/chats/{chatId}/typing")
+    public void typing(@DestinationVariable Long chatId, @Payload TypingDto typingDto, SimpMessageHeaderAccessor headerAccessor) {
+        String userId = headerAccessor.getUser().getName();
+        if (presenceRegistry.isOnline(chatId, userId)) {
+            typingCoalescer.update(chatId, userId, typingDto.typing());
+        }
     }
     
     @MessageMapping("/chats/{chatId}/leave")
@@ -0,0 +1,318 @@
+package app.sim_feed.user_service.chats;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import app.sim_feed.user_service.chats.models.PresenceNotification;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tracks which users are online in each chat. A user is present in a chat while at least one of
+ * their STOMP sessions is subscribed to /topic/chats/{chatId} and keeps sending frames (heartbeats
+ * included); sessions that go quiet for {@code ttl-ms} are expired by a hashed timer wheel and come
+ * back on their next frame. Joins and leaves are coalesced per chat and published as one diff per
+ * {@code publish-interval-ms}, so flapping connections never reach subscribers.
+ * <p>
+ * Presence is tracked per instance. In relay mode every node only sees, and publishes diffs for,
+ * its own sessions, so snapshots and diffs are flagged {@code partial} there.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceRegistry implements ChannelInterceptor {
+
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chats/";
+    private static final int WHEEL_SLOTS = 64;
+
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.presence.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.presence.tick-ms:1000}")
+    private long tickMs;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    private final Map<String, PresenceSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, ChatPresence> chats = new ConcurrentHashMap<>();
+    private final List<Set<String>> wheel = createWheel();
+    // Written by the scheduler, read by event threads in schedule().
+    private volatile long lastTick = -1;
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long chatId = chatId(accessor.getDestination());
+        Principal user = event.getUser();
+        if (chatId == null || user == null || accessor.getSessionId() == null) {
+            return;
+        }
+        PresenceSession session = sessions.computeIfAbsent(accessor.getSessionId(), id -> {
+            PresenceSession created = new PresenceSession(id, user.getName(), System.currentTimeMillis() + ttlMs);
+            schedule(created);
+            return created;
+        });
+        synchronized (session) {
+            boolean firstSubscription = !session.subscriptions.containsValue(chatId);
+            session.subscriptions.put(accessor.getSubscriptionId(), chatId);
+            if (firstSubscription && session.online) {
+                join(chatId, session.userId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        PresenceSession session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            Long chatId = session.subscriptions.remove(accessor.getSubscriptionId());
+            if (chatId != null && session.online && !session.subscriptions.containsValue(chatId)) {
+                leave(chatId, session.userId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        PresenceSession session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            if (session.online) {
+                session.online = false;
+                session.chatIds().forEach(chatId -> leave(chatId, session.userId));
+            }
+        }
+    }
+
+    // Every inbound frame, heartbeats included, keeps its session alive.
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        PresenceSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session != null) {
+            session.deadline = System.currentTimeMillis() + ttlMs;
+            if (!session.online) {
+                revive(session);
+            }
+        }
+        return message;
+    }
+
+    public List<String> getOnlineUsers(Long chatId) {
+        ChatPresence presence = chats.get(chatId);
+        return presence != null ? presence.online() : List.of();
+    }
+
+    public boolean isOnline(Long chatId, String userId) {
+        ChatPresence presence = chats.get(chatId);
+        return presence != null && presence.contains(userId);
+    }
+
+    public PresenceNotification snapshot(Long chatId) {
+        return PresenceNotification.snapshot(chatId, getOnlineUsers(chatId), isPartial());
+    }
+
+    private boolean isPartial() {
+        return "relay".equalsIgnoreCase(brokerMode);
+    }
+
+    @Scheduled(fixedRateString = "${chat.presence.tick-ms:1000}")
+    public synchronized void advanceWheel() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMs;
+        long from = lastTick < 0 ? currentTick : Math.max(lastTick + 1, currentTick - WHEEL_SLOTS + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Set<String> slot = wheel.get((int) (tick % WHEEL_SLOTS));
+            List<String> due = new ArrayList<>(slot);
+            slot.removeAll(due);
+            due.forEach(sessionId -> {
+                PresenceSession session = sessions.get(sessionId);
+                if (session == null) {
+                    return;
+                }
+                if (session.deadline > now) {
+                    schedule(session);
+                } else {
+                    expire(session);
+                }
+            });
+        }
+        lastTick = currentTick;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.publish-interval-ms:1000}")
+    public void publishDiffs() {
+        boolean partial = isPartial();
+        for (Long chatId : chats.keySet()) {
+            PresenceNotification[] diff = new PresenceNotification[1];
+            chats.computeIfPresent(chatId, (id, presence) -> {
+                diff[0] = presence.drainDiff(id, partial);
+                return presence.isIdle() ? null : presence;
+            });
+            if (diff[0] != null) {
+                messagingTemplate.getObject().convertAndSend(CHAT_TOPIC_PREFIX + chatId, diff[0]);
+            }
+        }
+    }
+
+    private void expire(PresenceSession session) {
+        synchronized (session) {
+            if (!session.online || session.deadline > System.currentTimeMillis()) {
+                return;
+            }
+            session.online = false;
+            session.chatIds().forEach(chatId -> leave(chatId, session.userId));
+        }
+    }
+
+    private void revive(PresenceSession session) {
+        synchronized (session) {
+            if (session.online || !sessions.containsKey(session.sessionId)) {
+                return;
+            }
+            session.online = true;
+            session.chatIds().forEach(chatId -> join(chatId, session.userId));
+            schedule(session);
+        }
+    }
+
+    private void schedule(PresenceSession session) {
+        long deadlineTick = Math.max(session.deadline / tickMs, lastTick + 1);
+        wheel.get((int) (deadlineTick % WHEEL_SLOTS)).add(session.sessionId);
+    }
+
+    private void join(Long chatId, String userId) {
+        chats.compute(chatId, (id, presence) -> {
+            ChatPresence current = presence != null ? presence : new ChatPresence();
+            current.add(userId);
+            return current;
+        });
+    }
+
+    private void leave(Long chatId, String userId) {
+        chats.computeIfPresent(chatId, (id, presence) -> {
+            presence.remove(userId);
+            return presence;
+        });
+    }
+
+    private static Long chatId(String destination) {
+        if (destination == null || !destination.startsWith(CHAT_TOPIC_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(destination.substring(CHAT_TOPIC_PREFIX.length()).split("/")[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<Set<String>> createWheel() {
+        List<Set<String>> slots = new ArrayList<>(WHEEL_SLOTS);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        return slots;
+    }
+
+    private static final class PresenceSession {
+        private final String sessionId;
+        private final String userId;
+        private final Map<String, Long> subscriptions = new LinkedHashMap<>();
+        private volatile long deadline;
+        private volatile boolean online = true;
+
+        private PresenceSession(String sessionId, String userId, long deadline) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.deadline = deadline;
+        }
+
+        Set<Long> chatIds() {
+            return new HashSet<>(subscriptions.values());
+        }
+    }
+
+    // Mutated inside compute on the chat id, but snapshots are read without it, hence the locks.
+    private static final class ChatPresence {
+        private final Map<String, Integer> sessionCounts = new LinkedHashMap<>();
+        private final Set<String> joined = new HashSet<>();
+        private final Set<String> left = new HashSet<>();
+
+        synchronized void add(String userId) {
+            if (sessionCounts.merge(userId, 1, Integer::sum) == 1 && !left.remove(userId)) {
+                joined.add(userId);
+            }
+        }
+
+        synchronized void remove(String userId) {
+            Integer count = sessionCounts.get(userId);
+            if (count == null) {
+                return;
+            }
+            if (count > 1) {
+                sessionCounts.put(userId, count - 1);
+            } else {
+                sessionCounts.remove(userId);
+                if (!joined.remove(userId)) {
+                    left.add(userId);
+                }
+            }
+        }
+
+        synchronized boolean contains(String userId) {
+            return sessionCounts.containsKey(userId);
+        }
+
+        synchronized List<String> online() {
+            return List.copyOf(sessionCounts.keySet());
+        }
+
+        synchronized PresenceNotification drainDiff(Long chatId, boolean partial) {
+            if (joined.isEmpty() && left.isEmpty()) {
+                return null;
+            }
+            PresenceNotification diff = PresenceNotification.diff(chatId, List.copyOf(joined), List.copyOf(left), partial);
+            joined.clear();
+            left.clear();
+            return diff;
+        }
+
+        synchronized boolean isIdle() {
+            return sessionCounts.isEmpty() && joined.isEmpty() && left.isEmpty();
+        }
+    }
+}
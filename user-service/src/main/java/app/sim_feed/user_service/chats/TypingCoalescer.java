@@ -0,0 +1,81 @@
+package app.sim_feed.user_service.chats;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.sim_feed.user_service.chats.models.TypingNotification;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Folds typing start/stop frames into at most one TYPING notification per chat per
+ * {@code window-ms}, carrying the full set of current typists. A typist that stops sending
+ * frames drops out after {@code ttl-ms}. Nothing is persisted.
+ */
+@Component
+@RequiredArgsConstructor
+public class TypingCoalescer {
+
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chats/";
+
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.typing.ttl-ms:5000}")
+    private long ttlMs;
+
+    private final Map<Long, ChatTyping> chats = new ConcurrentHashMap<>();
+
+    public void update(Long chatId, String userId, boolean typing) {
+        long now = System.currentTimeMillis();
+        chats.compute(chatId, (id, current) -> {
+            ChatTyping chatTyping = current != null ? current : new ChatTyping();
+            if (typing) {
+                chatTyping.typists.put(userId, now + ttlMs);
+            } else {
+                chatTyping.typists.remove(userId);
+            }
+            return chatTyping;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${chat.typing.window-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Long chatId : chats.keySet()) {
+            TypingNotification[] notification = new TypingNotification[1];
+            chats.computeIfPresent(chatId, (id, chatTyping) -> {
+                notification[0] = chatTyping.drain(id, now);
+                return chatTyping.typists.isEmpty() ? null : chatTyping;
+            });
+            if (notification[0] != null) {
+                messagingTemplate.getObject().convertAndSend(CHAT_TOPIC_PREFIX + chatId, notification[0]);
+            }
+        }
+    }
+
+    // Only touched inside compute on the chat id.
+    private static final class ChatTyping {
+        private final Map<String, Long> typists = new HashMap<>();
+        private List<String> lastBroadcast = List.of();
+
+        TypingNotification drain(Long chatId, long now) {
+            typists.values().removeIf(expiresAt -> expiresAt <= now);
+            List<String> current = typists.keySet().stream().sorted().toList();
+            if (current.equals(lastBroadcast)) {
+                return null;
+            }
+            lastBroadcast = current;
+            return TypingNotification.of(chatId, current);
+        }
+    }
+}
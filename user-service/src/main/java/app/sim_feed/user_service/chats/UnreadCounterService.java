@@ -0,0 +1,320 @@
+package app.sim_feed.user_service.chats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.chats.models.ChatUnreadDto;
+import app.sim_feed.user_service.chats.models.ChatUnreadSnapshot;
+import app.sim_feed.user_service.messages.MessageRepository;
+import app.sim_feed.user_service.messages.models.MessageDto;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Per-member read cursors and unread counts kept in memory. Cursors are loaded from
+ * {@code chat_members} on first use and then bumped as messages are sent through this node.
+ * Counts are only trusted for {@code chat.unread.max-age-ms} after loading, since messages sent
+ * through other nodes in relay mode, or committed out of id order, never reach this node's counters.
+ * Older cursors, and any cursor that saw a message it cannot place, are recomputed from the
+ * database on the next read. Idle cursors are dropped after {@code chat.unread.idle-eviction-ms},
+ * and at most {@code chat.unread.max-cursors} are kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Log
+public class UnreadCounterService {
+
+    private static final String UPDATE_READ_CURSOR_SQL = """
+        UPDATE chat_members SET last_read_message_id = ?
+        WHERE chat_id = ? AND user_id = ?
+        AND (last_read_message_id IS NULL OR last_read_message_id < ?)
+    """;
+
+    private final ChatMemberRepository chatMemberRepository;
+    private final MessageRepository messageRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Map<String, ReadCursor>> cursors = new ConcurrentHashMap<>();
+    private final Map<Long, Long> latestMessageIds = new ConcurrentHashMap<>();
+    private final Set<ReadCursor> dirtyCursors = ConcurrentHashMap.newKeySet();
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.unread.max-age-ms:60000}")
+    private long maxAgeMs = 60_000;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.unread.idle-eviction-ms:600000}")
+    private long idleEvictionMs = 600_000;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.unread.max-cursors:100000}")
+    private int maxCursors = 100_000;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    public void recordMessage(MessageDto message) {
+        Long chatId = message.chatId();
+        long messageId = message.messageId();
+        latestMessageIds.merge(chatId, messageId, Math::max);
+
+        Map<String, ReadCursor> chatCursors = cursors.get(chatId);
+        if (chatCursors == null) {
+            return;
+        }
+        String senderId = message.userAuthor() != null ? message.userAuthor().userId() : null;
+        chatCursors.forEach((userId, cursor) -> {
+            if (userId.equals(senderId)) {
+                if (cursor.markRead(messageId, 0)) {
+                    dirtyCursors.add(cursor);
+                }
+            } else {
+                cursor.onMessage(messageId);
+            }
+        });
+    }
+
+    public ChatUnreadDto acknowledgeRead(Long chatId, String userId, Long messageId) {
+        ReadCursor cursor = loadCursor(chatId, userId);
+        if (!messageRepository.existsByIdAndChat_Id(messageId, chatId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Message not found in this chat");
+        }
+        long latestMessageId = latestMessageIds.getOrDefault(chatId, 0L);
+        long remaining = messageId >= latestMessageId
+            ? 0
+            : messageRepository.countUnreadAfter(chatId, messageId, userId);
+        if (cursor.markRead(messageId, remaining)) {
+            dirtyCursors.add(cursor);
+        }
+        cursor.touch(clock.getAsLong());
+        return cursor.toDto();
+    }
+
+    public List<ChatUnreadDto> getUnreadCounts(String userId) {
+        List<Long> chatIds = chatMemberRepository.findChatIdsByUserId(userId);
+        long now = clock.getAsLong();
+        List<Long> missing = chatIds.stream()
+            .filter(chatId -> {
+                ReadCursor cursor = findCursor(chatId, userId);
+                return cursor == null || cursor.isStale(now - maxAgeMs);
+            })
+            .toList();
+        if (!missing.isEmpty()) {
+            chatMemberRepository.findUnreadSnapshots(userId, missing)
+                .forEach(snapshot -> register(userId, snapshot));
+        }
+        return chatIds.stream()
+            .map(chatId -> findCursor(chatId, userId))
+            .filter(Objects::nonNull)
+            .map(cursor -> {
+                cursor.touch(now);
+                return cursor.toDto();
+            })
+            .toList();
+    }
+
+    public void evictMember(Long chatId, String userId) {
+        Map<String, ReadCursor> chatCursors = cursors.get(chatId);
+        if (chatCursors == null) {
+            return;
+        }
+        ReadCursor cursor = chatCursors.remove(userId);
+        if (cursor != null) {
+            dirtyCursors.remove(cursor);
+        }
+        if (chatCursors.isEmpty()) {
+            cursors.remove(chatId, chatCursors);
+        }
+    }
+
+    public void evictChat(Long chatId) {
+        Map<String, ReadCursor> chatCursors = cursors.remove(chatId);
+        latestMessageIds.remove(chatId);
+        if (chatCursors != null) {
+            dirtyCursors.removeAll(chatCursors.values());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.unread.flush-interval-ms:5000}")
+    public void flushReadCursors() {
+        if (dirtyCursors.isEmpty()) {
+            return;
+        }
+        List<ReadCursor> flushed = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (ReadCursor cursor : dirtyCursors) {
+            if (dirtyCursors.remove(cursor)) {
+                long lastReadMessageId = cursor.getLastReadMessageId();
+                flushed.add(cursor);
+                batchArgs.add(new Object[] { lastReadMessageId, cursor.chatId, cursor.userId, lastReadMessageId });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_READ_CURSOR_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            log.warning("Failed to flush " + flushed.size() + " read cursors, retrying next cycle: " + e.getMessage());
+            dirtyCursors.addAll(flushed);
+        }
+    }
+
+    /**
+     * Drops cursors nobody has read for {@code idle-eviction-ms}, then the least recently read ones
+     * beyond {@code max-cursors}. Cursors with an unflushed read position are kept until the next flush.
+     */
+    @Scheduled(fixedDelayString = "${chat.unread.eviction-interval-ms:60000}")
+    public void evictIdleCursors() {
+        long idleBefore = clock.getAsLong() - idleEvictionMs;
+        List<ReadCursor> all = new ArrayList<>();
+        cursors.values().forEach(chatCursors -> all.addAll(chatCursors.values()));
+        List<ReadCursor> evictable = all.stream()
+            .filter(cursor -> !dirtyCursors.contains(cursor))
+            .sorted(Comparator.comparingLong(ReadCursor::getLastAccess))
+            .toList();
+        int overflow = all.size() - maxCursors;
+        for (ReadCursor cursor : evictable) {
+            if (cursor.getLastAccess() >= idleBefore && overflow <= 0) {
+                break;
+            }
+            evictMember(cursor.chatId, cursor.userId);
+            overflow--;
+        }
+        latestMessageIds.keySet().retainAll(cursors.keySet());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushReadCursors();
+    }
+
+    private ReadCursor loadCursor(Long chatId, String userId) {
+        ReadCursor cursor = findCursor(chatId, userId);
+        if (cursor != null) {
+            return cursor;
+        }
+        return chatMemberRepository.findUnreadSnapshots(userId, List.of(chatId)).stream()
+            .findFirst()
+            .map(snapshot -> register(userId, snapshot))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this chat"));
+    }
+
+    private ReadCursor findCursor(Long chatId, String userId) {
+        Map<String, ReadCursor> chatCursors = cursors.get(chatId);
+        return chatCursors != null ? chatCursors.get(userId) : null;
+    }
+
+    private ReadCursor register(String userId, ChatUnreadSnapshot snapshot) {
+        long lastReadMessageId = snapshot.lastReadMessageId() != null ? snapshot.lastReadMessageId() : 0L;
+        long latestUnreadMessageId = snapshot.latestUnreadMessageId() != null ? snapshot.latestUnreadMessageId() : 0L;
+        ReadCursor cursor = new ReadCursor(
+            snapshot.chatId(),
+            userId,
+            lastReadMessageId,
+            snapshot.unreadCount(),
+            Math.max(lastReadMessageId, latestUnreadMessageId),
+            clock.getAsLong()
+        );
+        latestMessageIds.merge(snapshot.chatId(), cursor.countedThroughMessageId, Math::max);
+        Map<String, ReadCursor> chatCursors = cursors.computeIfAbsent(snapshot.chatId(), id -> new ConcurrentHashMap<>());
+        ReadCursor existing = chatCursors.get(userId);
+        if (existing == null) {
+            existing = chatCursors.putIfAbsent(userId, cursor);
+            return existing != null ? existing : cursor;
+        }
+        // A reload keeps any newer read position that has not been flushed yet.
+        existing.reload(cursor);
+        return existing;
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    private static final class ReadCursor {
+        private final Long chatId;
+        private final String userId;
+        private long lastReadMessageId;
+        private long unreadCount;
+        private long countedThroughMessageId;
+        private long loadedAt;
+        private boolean stale;
+        private volatile long lastAccess;
+
+        private ReadCursor(Long chatId, String userId, long lastReadMessageId, long unreadCount, long countedThroughMessageId, long loadedAt) {
+            this.chatId = chatId;
+            this.userId = userId;
+            this.lastReadMessageId = lastReadMessageId;
+            this.unreadCount = unreadCount;
+            this.countedThroughMessageId = countedThroughMessageId;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        // A message at or below the counted position is either already counted (it was in the
+        // database when the cursor loaded) or committed out of id order; only a reload can tell.
+        synchronized void onMessage(long messageId) {
+            if (messageId <= countedThroughMessageId) {
+                if (messageId > lastReadMessageId) {
+                    stale = true;
+                }
+                return;
+            }
+            countedThroughMessageId = messageId;
+            unreadCount++;
+        }
+
+        synchronized boolean isStale(long loadedBefore) {
+            return stale || loadedAt < loadedBefore;
+        }
+
+        synchronized void reload(ReadCursor fresh) {
+            loadedAt = fresh.loadedAt;
+            stale = false;
+            if (fresh.lastReadMessageId >= lastReadMessageId) {
+                lastReadMessageId = fresh.lastReadMessageId;
+                unreadCount = fresh.unreadCount;
+                countedThroughMessageId = fresh.countedThroughMessageId;
+            }
+        }
+
+        void touch(long now) {
+            lastAccess = now;
+        }
+
+        long getLastAccess() {
+            return lastAccess;
+        }
+
+        synchronized boolean markRead(long messageId, long remainingUnread) {
+            if (messageId <= lastReadMessageId) {
+                return false;
+            }
+            lastReadMessageId = messageId;
+            unreadCount = remainingUnread;
+            countedThroughMessageId = Math.max(countedThroughMessageId, messageId);
+            return true;
+        }
+
+        synchronized long getLastReadMessageId() {
+            return lastReadMessageId;
+        }
+
+        synchronized ChatUnreadDto toDto() {
+            return new ChatUnreadDto(chatId, lastReadMessageId == 0 ? null : lastReadMessageId, unreadCount);
+        }
+    }
+}
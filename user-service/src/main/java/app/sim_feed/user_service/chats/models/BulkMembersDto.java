@@ -0,0 +1,10 @@
+package app.sim_feed.user_service.chats.models;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record BulkMembersDto(@NotEmpty @Size(max = 100) List<String> userIds) {
+    
+}
@@ -0,0 +1,8 @@
+package app.sim_feed.user_service.chats.models;
+
+import java.util.List;
+
+/** Outcome of a bulk membership change: the users it applied to and the ones it left untouched. */
+public record BulkMembersResultDto(Long chatId, List<String> changed, List<String> skipped) {
+    
+}
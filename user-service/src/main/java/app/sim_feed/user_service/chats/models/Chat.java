@@ -1,7 +1,6 @@
 package app.sim_feed.user_service.chats.models;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -10,7 +9,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
@@ -21,9 +19,12 @@ import java.util.List;
 import java.util.Set;
 
 import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.ids.SnowflakeId;
 import jakarta.persistence.Column;
 import jakarta.persistence.CascadeType;
 
+import org.hibernate.annotations.SQLRestriction;
+
 @Entity
 @Table(
   name = "chats",
@@ -31,6 +32,7 @@ import jakarta.persistence.CascadeType;
     @Index(name = "idx_chats_creator_id", columnList = "creator_id")
   }
 )
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,7 +40,7 @@ import jakarta.persistence.CascadeType;
 public class Chat {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @SnowflakeId
     private Long id;
     
     @Column(name = "chat_name", nullable = false)
@@ -63,6 +65,9 @@ public class Chat {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Column(name = "deleted_at", nullable = true)
+    private LocalDateTime deletedAt;
+    
     @PrePersist
     void onPrePersist() {
         createdAt = LocalDateTime.now();
@@ -2,15 +2,14 @@ package app.sim_feed.user_service.chats.models;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import app.sim_feed.user_service.persona.models.Persona;
 import app.sim_feed.user_service.users.models.User;
+import app.sim_feed.user_service.ids.SnowflakeId;
 
 import java.time.LocalDateTime;
 
@@ -42,7 +41,7 @@ import jakarta.persistence.PreUpdate;
 @AllArgsConstructor
 public class ChatMember {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @SnowflakeId
     private Long id;
     
     @ToString.Exclude
@@ -62,6 +61,9 @@ public class ChatMember {
     @Column(name = "joined_at", nullable = true)
     private LocalDateTime joinedAt;
     
+    @Column(name = "last_read_message_id", nullable = true)
+    private Long lastReadMessageId;
+    
     @PrePersist
     void onPrePersist() {
         validateAuthor();
@@ -0,0 +1,8 @@
+package app.sim_feed.user_service.chats.models;
+
+public record ChatMemberCandidate(String userId, Long memberId) {
+    
+    public boolean isMember() {
+        return memberId != null;
+    }
+}
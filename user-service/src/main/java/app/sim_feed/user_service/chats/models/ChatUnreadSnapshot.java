@@ -0,0 +1,5 @@
+package app.sim_feed.user_service.chats.models;
+
+public record ChatUnreadSnapshot(Long chatId, Long lastReadMessageId, Long unreadCount, Long latestUnreadMessageId) {
+    
+}
@@ -0,0 +1,16 @@
+package app.sim_feed.user_service.chats.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** {@code partial} is true when the sender only sees sessions connected to its own instance (relay mode). */
+public record PresenceNotification(String type, Long chatId, List<String> online, List<String> joined, List<String> left, boolean partial, LocalDateTime timestamp) {
+
+    public static PresenceNotification snapshot(Long chatId, List<String> online, boolean partial) {
+        return new PresenceNotification("PRESENCE_SNAPSHOT", chatId, online, List.of(), List.of(), partial, LocalDateTime.now());
+    }
+
+    public static PresenceNotification diff(Long chatId, List<String> joined, List<String> left, boolean partial) {
+        return new PresenceNotification("PRESENCE_DIFF", chatId, null, joined, left, partial, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,7 @@
+package app.sim_feed.user_service.chats.models;
+
+import jakarta.validation.constraints.NotNull;
+
+public record ReadReceiptDto(@NotNull Long messageId) {
+    
+}
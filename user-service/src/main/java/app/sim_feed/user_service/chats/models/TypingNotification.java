@@ -0,0 +1,11 @@
+package app.sim_feed.user_service.chats.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TypingNotification(String type, Long chatId, List<String> typists, LocalDateTime timestamp) {
+
+    public static TypingNotification of(Long chatId, List<String> typists) {
+        return new TypingNotification("TYPING", chatId, typists, LocalDateTime.now());
+    }
+}
@@ -1,11 +1,18 @@
 package app.sim_feed.user_service.comment;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import app.sim_feed.user_service.comment.models.Comment;
+import app.sim_feed.user_service.post.models.PostCount;
 
 
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
+    @Query("SELECT c.post.id AS postId, COUNT(c) AS total FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<PostCount> countByPostIds(Collection<Long> postIds);
 }
\ No newline at end of file
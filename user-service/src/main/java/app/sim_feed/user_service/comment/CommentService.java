@@ -2,6 +2,7 @@ package app.sim_feed.user_service.comment;
 
 import app.sim_feed.user_service.comment.models.CommentDto;
 import app.sim_feed.user_service.comment.models.NewCommentDto;
+import app.sim_feed.user_service.post.PostHydrationService;
 import app.sim_feed.user_service.post.PostRepository;
 import app.sim_feed.user_service.users.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,7 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final PostHydrationService postHydrationService;
     
     public CommentDto createComment(NewCommentDto newCommentDto, String userId) {
         if (newCommentDto.body() == null || newCommentDto.body().isBlank()) {
@@ -37,6 +39,7 @@ public class CommentService {
             .body(newCommentDto.body())
             .build();
         comment = commentRepository.save(comment);
+        postHydrationService.evict(post.getId());
         return CommentDto.of(comment.getId(), post, user, comment.getBody());
     }
     
@@ -59,5 +62,6 @@ public class CommentService {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User is not the author of this comment");
         }
         commentRepository.delete(comment);
+        postHydrationService.evict(comment.getPost().getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package app.sim_feed.user_service.events;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.sim_feed.user_service.events.models.AgentActivityPageDto;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/activity")
+@RequiredArgsConstructor
+public class AgentActivityController {
+
+    private final AgentActivityService agentActivityService;
+
+    @GetMapping
+    @RateLimiter(name = "api-limiter")
+    public AgentActivityPageDto getActivity(@RequestParam(required = false) Long cursor, @RequestParam(defaultValue = "20") int size) {
+        return agentActivityService.getActivity(cursor, size);
+    }
+
+    @GetMapping("/personas/{personaId}")
+    @RateLimiter(name = "api-limiter")
+    public AgentActivityPageDto getPersonaActivity(
+        @PathVariable Long personaId,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return agentActivityService.getPersonaActivity(personaId, cursor, size);
+    }
+}
@@ -0,0 +1,19 @@
+package app.sim_feed.user_service.events;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import app.sim_feed.user_service.events.models.AgentActivity;
+
+@Repository
+public interface AgentActivityRepository extends JpaRepository<AgentActivity, Long> {
+
+    /** Newest first; served by a backward scan of the primary key. */
+    List<AgentActivity> findByEventIdLessThanOrderByEventIdDesc(Long beforeEventId, Pageable pageable);
+
+    /** Newest first; served by a range scan of {@code idx_agent_activity_persona_event}. */
+    List<AgentActivity> findByPersonaIdAndEventIdLessThanOrderByEventIdDesc(Long personaId, Long beforeEventId, Pageable pageable);
+}
@@ -0,0 +1,52 @@
+package app.sim_feed.user_service.events;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.events.models.AgentActivity;
+import app.sim_feed.user_service.events.models.AgentActivityDto;
+import app.sim_feed.user_service.events.models.AgentActivityPageDto;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Agent activity timelines, read from the {@code agent_activity} projection rather than the joined
+ * event tables. Pages are keyed on the event id: {@code cursor} is the last id of the previous page.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgentActivityService {
+
+    private final AgentActivityRepository agentActivityRepository;
+
+    public AgentActivityPageDto getActivity(Long cursor, int size) {
+        validate(size);
+        return page(agentActivityRepository.findByEventIdLessThanOrderByEventIdDesc(before(cursor), PageRequest.of(0, size)), size);
+    }
+
+    public AgentActivityPageDto getPersonaActivity(Long personaId, Long cursor, int size) {
+        validate(size);
+        return page(
+            agentActivityRepository.findByPersonaIdAndEventIdLessThanOrderByEventIdDesc(personaId, before(cursor), PageRequest.of(0, size)),
+            size
+        );
+    }
+
+    private static void validate(int size) {
+        if (size < 1 || size > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 50");
+        }
+    }
+
+    private static Long before(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+
+    private static AgentActivityPageDto page(List<AgentActivity> rows, int size) {
+        Long nextCursor = rows.size() == size ? rows.getLast().getEventId() : null;
+        return new AgentActivityPageDto(rows.stream().map(AgentActivityDto::of).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,99 @@
+package app.sim_feed.user_service.events;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Keeps the weekly partitions of the agent event tables rolling. Each run creates the current
+ * week and the next {@code premake-weeks} ahead of time, so inserts never fall into the default
+ * partition. Weeks that ended more than {@code retention-weeks} ago are folded into
+ * {@code agent_event_hourly} (per persona, per event type, per hour) and their partitions dropped
+ * from every table, which keeps the raw tables and their indexes at a fixed size.
+ * <p>
+ * The DDL lives in {@code ensure_agent_event_partitions} and {@code roll_up_agent_event_partition}
+ * in {@code sql/init.sql}; each call is a single statement and therefore a single transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class AgentEventPartitionMaintainer {
+
+    private static final String PARTITIONS_SQL = """
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'agent_events'::regclass AND c.relname LIKE 'agent\\_events\\_p%'
+    """;
+    private static final String PARTITION_PREFIX = "agent_events_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private Clock clock = Clock.systemUTC();
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${agent-events.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${agent-events.partitions.premake-weeks:4}")
+    private int premakeWeeks;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${agent-events.partitions.retention-weeks:4}")
+    private int retentionWeeks;
+
+    @Scheduled(fixedDelayString = "${agent-events.partitions.interval-ms:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate currentWeek = LocalDate.now(clock).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        try {
+            int created = 0;
+            for (int week = 0; week <= premakeWeeks; week++) {
+                Integer count = jdbcTemplate.queryForObject("SELECT ensure_agent_event_partitions(?)", Integer.class, currentWeek.plusWeeks(week));
+                created += count != null ? count : 0;
+            }
+            if (created > 0) {
+                log.info("Created " + created + " agent event partitions");
+            }
+            LocalDate oldestKept = currentWeek.minusWeeks(retentionWeeks);
+            for (LocalDate week : expiredWeeks(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class), oldestKept)) {
+                Long hours = jdbcTemplate.queryForObject("SELECT roll_up_agent_event_partition(?)", Long.class, week);
+                log.info("Rolled up agent events for the week of " + week + " into " + hours + " hourly rows and dropped its partitions");
+            }
+        } catch (DataAccessException e) {
+            log.warning("Agent event partition maintenance failed, retrying next cycle: " + e.getMessage());
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** Weeks whose partitions start before {@code oldestKept}, oldest first. */
+    static List<LocalDate> expiredWeeks(List<String> partitionNames, LocalDate oldestKept) {
+        return partitionNames.stream()
+            .filter(name -> name.startsWith(PARTITION_PREFIX))
+            .map(name -> LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX))
+            .filter(week -> week.isBefore(oldestKept))
+            .sorted()
+            .toList();
+    }
+}
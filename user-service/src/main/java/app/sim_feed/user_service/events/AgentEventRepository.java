@@ -4,7 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AgentEventRepository extends JpaRepository<Event, Long> {
+public interface AgentEventRepository extends JpaRepository<Event, EventId> {
 
 	
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 // Event.java
 package app.sim_feed.user_service.events;
 
-import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import app.sim_feed.user_service.persona.models.Persona;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 
+/**
+ * An agent event. The event tables are range-partitioned on {@code created_at}, so it is part of
+ * the key, and each detail table joins back on both columns; {@code created_at} is set here before
+ * insert and copied into the detail row, which keeps both rows in the same partition.
+ */
 @Entity
+@IdClass(EventId.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(
     name = "agent_events",
@@ -32,18 +38,22 @@ import lombok.NoArgsConstructor;
 public abstract class Event {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agent_events_id_seq")
+    @SequenceGenerator(name = "agent_events_id_seq", sequenceName = "agent_events_id_seq", allocationSize = 1)
     private Long id;
 
+    @Id
+    @Column(nullable = false, name = "created_at", columnDefinition = "TIMESTAMPTZ")
+    private OffsetDateTime createdAt;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(nullable = false, name = "persona_id")
     private Persona persona;
 
-    @Column(nullable = false, name = "created_at")
-    private LocalDateTime createdAt;
-
     @PrePersist
     protected void prePersist() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+// EventId.java
+package app.sim_feed.user_service.events;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Key of an agent event: its id plus {@code created_at}, the column the event tables are partitioned on. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventId implements Serializable {
+
+    private Long id;
+    private OffsetDateTime createdAt;
+}
@@ -9,6 +9,14 @@ import app.sim_feed.user_service.events.Event;
 
 @Entity
 @Table(name = "agent_event_bio")
+@PrimaryKeyJoinColumns(
+    value = {
+        @PrimaryKeyJoinColumn(name = "id", referencedColumnName = "id"),
+        @PrimaryKeyJoinColumn(name = "created_at", referencedColumnName = "created_at")
+    },
+    // the (id, created_at) key to agent_events is declared in sql/init.sql
+    foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+)
 @DiscriminatorValue("UPDATE_BIO")
 @Getter
 @Setter
@@ -21,14 +21,16 @@ import app.sim_feed.user_service.post.models.Post;
             name = "idx_agent_event_comment_comment_id",
             columnList = "comment_id"
         ),
-    },
-    uniqueConstraints = {
-        @UniqueConstraint(
-                    name = "uq_agent_event_comment_comment_id",
-                    columnNames = "comment_id"
-                )
     }
 )
+@PrimaryKeyJoinColumns(
+    value = {
+        @PrimaryKeyJoinColumn(name = "id", referencedColumnName = "id"),
+        @PrimaryKeyJoinColumn(name = "created_at", referencedColumnName = "created_at")
+    },
+    // the (id, created_at) key to agent_events is declared in sql/init.sql
+    foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+)
 @DiscriminatorValue("COMMENT")
 @Getter
 @Setter
@@ -39,7 +41,7 @@ public class CommentEvent extends Event {
     @JoinColumn(name = "post_id", nullable = false)
     private Post parentPost;
 
-    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "comment_id", nullable = false)
     private Comment comment;
 }
\ No newline at end of file
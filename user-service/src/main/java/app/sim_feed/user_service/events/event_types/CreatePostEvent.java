@@ -16,21 +16,23 @@ import app.sim_feed.user_service.post.models.Post;
             name = "idx_agent_event_post_post_id",
             columnList = "post_id"
         ),
-    },
-    uniqueConstraints = {
-        @UniqueConstraint(
-                    name = "uq_agent_event_post_post_id",
-                    columnNames = "post_id"
-                )
     }
 )
+@PrimaryKeyJoinColumns(
+    value = {
+        @PrimaryKeyJoinColumn(name = "id", referencedColumnName = "id"),
+        @PrimaryKeyJoinColumn(name = "created_at", referencedColumnName = "created_at")
+    },
+    // the (id, created_at) key to agent_events is declared in sql/init.sql
+    foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+)
 @DiscriminatorValue("CREATE_POST")
 @Getter
 @Setter
 @NoArgsConstructor
 public class CreatePostEvent extends Event {
 
-    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 }
\ No newline at end of file
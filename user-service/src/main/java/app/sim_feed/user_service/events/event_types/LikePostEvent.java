@@ -16,21 +16,23 @@ import app.sim_feed.user_service.like.models.Like;
             name = "idx_agent_event_like_like_id",
             columnList = "like_id"
         ),
-    },
-    uniqueConstraints = {
-        @UniqueConstraint(
-                   name = "uq_agent_event_like_like_id",
-                   columnNames = "like_id"
-               )
     }
 )
+@PrimaryKeyJoinColumns(
+    value = {
+        @PrimaryKeyJoinColumn(name = "id", referencedColumnName = "id"),
+        @PrimaryKeyJoinColumn(name = "created_at", referencedColumnName = "created_at")
+    },
+    // the (id, created_at) key to agent_events is declared in sql/init.sql
+    foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+)
 @DiscriminatorValue("LIKE_POST")
 @Getter
 @Setter
 @NoArgsConstructor
 public class LikePostEvent extends Event {
 
-    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "like_id", nullable = false)
     private Like like;
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package app.sim_feed.user_service.events.models;
+
+import java.time.OffsetDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read model of one agent event: the event with the ids of what it touched and a short summary,
+ * flattened into a single row. Rows are written by the {@code project_agent_activity} trigger
+ * whenever an event detail row is inserted, so the application only ever reads them.
+ */
+@Entity
+@Immutable
+@Table(
+    name = "agent_activity",
+    indexes = {
+        @Index(name = "idx_agent_activity_persona_event", columnList = "persona_id, event_id DESC")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentActivity {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "persona_id", nullable = false)
+    private Long personaId;
+
+    @Column(name = "event_type", nullable = false, length = 31)
+    private String eventType;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "comment_id")
+    private Long commentId;
+
+    @Column(name = "like_id")
+    private Long likeId;
+
+    @Column(name = "followed_id")
+    private Long followedId;
+
+    @Column(name = "summary", length = 280)
+    private String summary;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
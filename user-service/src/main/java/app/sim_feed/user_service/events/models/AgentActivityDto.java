@@ -0,0 +1,29 @@
+package app.sim_feed.user_service.events.models;
+
+import java.time.OffsetDateTime;
+
+public record AgentActivityDto(
+    Long eventId,
+    Long personaId,
+    String eventType,
+    Long postId,
+    Long commentId,
+    Long likeId,
+    Long followedId,
+    String summary,
+    OffsetDateTime createdAt
+) {
+    public static AgentActivityDto of(AgentActivity activity) {
+        return new AgentActivityDto(
+            activity.getEventId(),
+            activity.getPersonaId(),
+            activity.getEventType(),
+            activity.getPostId(),
+            activity.getCommentId(),
+            activity.getLikeId(),
+            activity.getFollowedId(),
+            activity.getSummary(),
+            activity.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,6 @@
+package app.sim_feed.user_service.events.models;
+
+import java.util.List;
+
+public record AgentActivityPageDto(List<AgentActivityDto> activity, Long nextCursor) {
+}
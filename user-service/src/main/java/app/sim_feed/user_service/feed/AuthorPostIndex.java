@@ -0,0 +1,176 @@
+package app.sim_feed.user_service.feed;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Newest post ids per author, newest first. The newest {@code feed.author-cache-depth} ids of each
+ * author live in the {@code author-posts} cache; anything the cache cannot answer is loaded for all
+ * authors at once with one {@code LATERAL} query per author kind, each walking the
+ * {@code (author, id DESC)} index for at most {@code limit} rows. A page therefore costs at most
+ * two round trips per author kind however many accounts are followed.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorPostIndex {
+
+    public static final String CACHE_NAME = "author-posts";
+
+    private static final String PERSONA_POSTS_SQL = """
+        SELECT a.author_id, p.id
+        FROM unnest(?) AS a(author_id)
+        CROSS JOIN LATERAL (
+            SELECT id FROM posts
+            WHERE author = a.author_id AND deleted_at IS NULL AND id < ?
+            ORDER BY id DESC
+            LIMIT ?
+        ) p
+        ORDER BY a.author_id, p.id DESC
+    """;
+    private static final String USER_POSTS_SQL = """
+        SELECT a.author_id, p.id
+        FROM unnest(?) AS a(author_id)
+        CROSS JOIN LATERAL (
+            SELECT id FROM posts
+            WHERE user_author = a.author_id AND deleted_at IS NULL AND id < ?
+            ORDER BY id DESC
+            LIMIT ?
+        ) p
+        ORDER BY a.author_id, p.id DESC
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${feed.author-cache-depth:50}")
+    private int cacheDepth;
+
+    /** Up to {@code limit} ids below {@code beforeId} (all ids when null) for each author, newest first. */
+    public Map<FeedAuthor, List<Long>> postIdsBefore(Collection<FeedAuthor> authors, Long beforeId, int limit) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<FeedAuthor, List<Long>> result = new HashMap<>();
+        List<FeedAuthor> uncached = new ArrayList<>();
+        for (FeedAuthor author : authors) {
+            @SuppressWarnings("unchecked")
+            List<Long> recent = cache != null ? cache.get(author, List.class) : null;
+            if (recent == null) {
+                uncached.add(author);
+            } else {
+                result.put(author, recent);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            Map<FeedAuthor, List<Long>> loaded = load(uncached, null, cacheDepth);
+            for (FeedAuthor author : uncached) {
+                List<Long> recent = List.copyOf(loaded.getOrDefault(author, List.of()));
+                if (cache != null) {
+                    cache.put(author, recent);
+                }
+                result.put(author, recent);
+            }
+        }
+
+        // The cached window answers the page unless it is full and holds fewer than limit ids below the cursor.
+        List<FeedAuthor> beyondWindow = new ArrayList<>();
+        result.replaceAll((author, recent) -> {
+            List<Long> page = below(recent, beforeId, limit);
+            if (page.size() < limit && recent.size() >= cacheDepth) {
+                beyondWindow.add(author);
+            }
+            return page;
+        });
+        if (!beyondWindow.isEmpty()) {
+            Map<FeedAuthor, List<Long>> loaded = load(beyondWindow, beforeId, limit);
+            beyondWindow.forEach(author -> result.put(author, loaded.getOrDefault(author, List.of())));
+        }
+        return result;
+    }
+
+    public void evict(FeedAuthor author) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(author);
+            return;
+        }
+        // Evicting before commit would let a concurrent read cache the pre-commit state again.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(author);
+            }
+        });
+    }
+
+    private static List<Long> below(List<Long> ids, Long beforeId, int limit) {
+        int from = 0;
+        if (beforeId != null) {
+            while (from < ids.size() && ids.get(from) >= beforeId) {
+                from++;
+            }
+        }
+        return ids.subList(from, Math.min(ids.size(), from + limit));
+    }
+
+    private Map<FeedAuthor, List<Long>> load(List<FeedAuthor> authors, Long beforeId, int limit) {
+        List<Object> personaIds = new ArrayList<>();
+        List<Object> userIds = new ArrayList<>();
+        authors.forEach(author -> {
+            if (author.isPersona()) {
+                personaIds.add(author.personaId());
+            } else {
+                userIds.add(author.userId());
+            }
+        });
+        Map<FeedAuthor, List<Long>> loaded = new HashMap<>();
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        if (!personaIds.isEmpty()) {
+            query(PERSONA_POSTS_SQL, "bigint", personaIds, before, limit, (authorId, postId) ->
+                loaded.computeIfAbsent(FeedAuthor.persona(((Number) authorId).longValue()), key -> new ArrayList<>()).add(postId));
+        }
+        if (!userIds.isEmpty()) {
+            query(USER_POSTS_SQL, "varchar", userIds, before, limit, (authorId, postId) ->
+                loaded.computeIfAbsent(FeedAuthor.user((String) authorId), key -> new ArrayList<>()).add(postId));
+        }
+        return loaded;
+    }
+
+    private void query(String sql, String arrayType, List<Object> authorIds, long before, int limit, RowConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            Array array = connection.createArrayOf(arrayType, authorIds.toArray());
+            statement.setArray(1, array);
+            statement.setLong(2, before);
+            statement.setInt(3, limit);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getObject(1), rs.getLong(2));
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(Object authorId, long postId);
+    }
+}
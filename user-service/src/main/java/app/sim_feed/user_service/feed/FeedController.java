@@ -0,0 +1,25 @@
+package app.sim_feed.user_service.feed;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.sim_feed.user_service.feed.models.HomeFeedDto;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final HomeFeedService homeFeedService;
+
+    @GetMapping("/home")
+    @RateLimiter(name = "api-limiter")
+    public HomeFeedDto getHomeFeed(@AuthenticationPrincipal String userId, @RequestParam(required = false) Long cursor, @RequestParam(defaultValue = "20") int size) {
+        return homeFeedService.getHomeFeed(userId, cursor, size);
+    }
+}
@@ -0,0 +1,164 @@
+package app.sim_feed.user_service.feed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import app.sim_feed.user_service.feed.models.HomeFeedDto;
+import app.sim_feed.user_service.follow.FollowRepository;
+import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Home feeds use hybrid fan-out. Posts by users with at most {@code feed.fan-out.follower-threshold}
+ * followers are pushed into their followers' {@link TimelineStore} timelines when created; posts by
+ * more-followed users, and by personas (written by the agent scheduler, not through
+ * {@code createPost}), are pulled at read time from {@link AuthorPostIndex}. The reader's own posts
+ * are always pulled too: timelines are local to each instance, and a post pushed on the node that
+ * created it would otherwise be missing from the author's feed on every other node until the
+ * timeline is rebuilt. A read takes the user's timeline and k-way merges it with the pulled
+ * authors' runs. Rebuilds read the follow list from the database rather than the {@code follows}
+ * cache, so a rebuild racing a follow or unfollow cannot seed the timeline from a stale entry.
+ */
+@Service
+@RequiredArgsConstructor
+public class HomeFeedService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final FollowRepository followRepository;
+    private final AuthorPostIndex authorPostIndex;
+    private final TimelineStore timelineStore;
+    private final PostRepository postRepository;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${feed.fan-out.follower-threshold:1000}")
+    private int followerThreshold;
+
+    /**
+     * Newest-first posts by everyone the user follows, plus their own. {@code cursor} is the
+     * previous page's {@code nextCursor}; ids only grow, so new posts never shift later pages.
+     * Once the cursor passes the oldest id the timeline holds, the pushed authors are read directly.
+     */
+    @Transactional(readOnly = true)
+    public HomeFeedDto getHomeFeed(String userId, Long cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TimelineStore.Timeline timeline = timelineStore.get(userId, capacity -> rebuild(userId, capacity));
+
+        List<List<Long>> runs = new ArrayList<>();
+        Set<FeedAuthor> pulled = new LinkedHashSet<>(timeline.pulledAuthors());
+        Optional<List<Long>> pushed = timeline.idsBefore(cursor, size);
+        if (pushed.isPresent()) {
+            runs.add(pushed.get());
+        } else {
+            pulled.addAll(timeline.pushedAuthors());
+        }
+        if (!pulled.isEmpty()) {
+            runs.addAll(authorPostIndex.postIdsBefore(pulled, cursor, size).values());
+        }
+
+        List<Long> postIds = merge(runs, size);
+        if (postIds.isEmpty()) {
+            return new HomeFeedDto(List.of(), null);
+        }
+        Map<Long, Post> postsById = postRepository.findAllById(postIds).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDto> posts = postIds.stream()
+            .map(postsById::get)
+            .filter(Objects::nonNull)
+            .map(PostDto::of)
+            .toList();
+        Long nextCursor = postIds.size() == size ? postIds.getLast() : null;
+        return new HomeFeedDto(posts, nextCursor);
+    }
+
+    /** Pushes a new post by {@code authorId} to its followers' timelines once it commits, unless the author is above the threshold. */
+    public void publish(String authorId, Long postId) {
+        Runnable fanOut = () -> {
+            List<String> followerIds = followRepository.findFollowerIds(authorId, PageRequest.of(0, followerThreshold + 1));
+            if (followerIds.size() <= followerThreshold) {
+                timelineStore.push(followerIds, postId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fanOut.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fanOut.run();
+            }
+        });
+    }
+
+    private TimelineStore.Seed rebuild(String userId, int capacity) {
+        Set<FeedAuthor> pushed = new LinkedHashSet<>();
+        Set<FeedAuthor> pulled = new LinkedHashSet<>();
+        pulled.add(FeedAuthor.user(userId));
+        for (Long personaId : followRepository.findFollowedPersonaIds(userId)) {
+            pulled.add(FeedAuthor.persona(personaId));
+        }
+        List<String> followedUserIds = followRepository.findFollowedUserIds(userId);
+        Set<String> popular = followedUserIds.isEmpty()
+            ? Set.of()
+            : new HashSet<>(followRepository.findUserIdsWithMoreFollowersThan(followedUserIds, followerThreshold));
+        for (String followedUserId : followedUserIds) {
+            (popular.contains(followedUserId) ? pulled : pushed).add(FeedAuthor.user(followedUserId));
+        }
+        List<Long> postIds = merge(authorPostIndex.postIdsBefore(pushed, null, capacity).values(), capacity);
+        return new TimelineStore.Seed(postIds, Set.copyOf(pulled), Set.copyOf(pushed));
+    }
+
+    static List<Long> merge(Iterable<List<Long>> runs, int limit) {
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>(Comparator.comparingLong(RunCursor::head).reversed());
+        for (List<Long> run : runs) {
+            if (!run.isEmpty()) {
+                heap.add(new RunCursor(run, 0));
+            }
+        }
+        List<Long> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heap.isEmpty()) {
+            RunCursor next = heap.poll();
+            // A post pushed to the timeline can also be pulled with its author's run; runs are newest first, so a repeat is adjacent.
+            if (merged.isEmpty() || merged.getLast() != next.head()) {
+                merged.add(next.head());
+            }
+            if (next.position() + 1 < next.run().size()) {
+                heap.add(new RunCursor(next.run(), next.position() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record RunCursor(List<Long> run, int position) {
+        long head() {
+            return run.get(position);
+        }
+    }
+}
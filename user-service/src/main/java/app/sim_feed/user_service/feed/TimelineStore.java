@@ -0,0 +1,173 @@
+package app.sim_feed.user_service.feed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * Materialized home timelines: for each active user, the newest {@code capacity} post ids written
+ * by the authors whose posts are pushed to followers, plus the set of authors that stay pulled at
+ * read time. A timeline is created on the user's first home feed read and filled by
+ * {@link #push} as posts are created; timelines unread for {@code idle-eviction-ms}, or older than
+ * {@code max-age-ms}, are dropped and rebuilt on the next read, so inactive users cost nothing and
+ * follower-count drift between pushed and pulled authors heals on its own.
+ * <p>
+ * Timelines are local to this instance. A post created on another node only shows up here once
+ * the timeline is rebuilt, so keep {@code max-age-ms} short when scaled out; the reader's own posts
+ * are not held here at all but pulled on every read (see {@link HomeFeedService}).
+ */
+@Component
+@Setter(AccessLevel.PACKAGE)
+public class TimelineStore {
+
+    @Value("${feed.timeline.capacity:200}")
+    private int capacity;
+
+    @Value("${feed.timeline.idle-eviction-ms:1800000}")
+    private long idleEvictionMs;
+
+    @Value("${feed.timeline.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the user's timeline, seeding it through {@code loader} (asked for the newest
+     * {@code capacity} ids) on first use. The timeline is installed before the loader runs so posts
+     * pushed meanwhile are kept.
+     */
+    public Timeline get(String userId, Function<Integer, Seed> loader) {
+        Timeline timeline = timelines.compute(userId, (id, existing) ->
+            existing == null || existing.createdAt < System.currentTimeMillis() - maxAgeMs ? new Timeline(capacity) : existing);
+        timeline.touch();
+        timeline.ensureLoaded(loader);
+        return timeline;
+    }
+
+    /** Adds a committed post to the timelines of those users that have one; everyone else rebuilds on read. */
+    public void push(Collection<String> userIds, long postId) {
+        for (String userId : userIds) {
+            Timeline timeline = timelines.get(userId);
+            if (timeline != null) {
+                timeline.add(postId);
+            }
+        }
+    }
+
+    /** Drops the user's timeline once the current transaction commits, or right away outside one. */
+    public void evict(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timelines.remove(userId);
+            return;
+        }
+        // Evicting before commit would let a concurrent read rebuild the timeline from the old follows.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                timelines.remove(userId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${feed.timeline.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        timelines.entrySet().removeIf(entry ->
+            entry.getValue().lastAccess < now - idleEvictionMs || entry.getValue().createdAt < now - maxAgeMs);
+    }
+
+    int size() {
+        return timelines.size();
+    }
+
+    /** What a rebuild found: newest ids from pushed authors and the authors to merge at read time. */
+    public record Seed(List<Long> postIds, Set<FeedAuthor> pulledAuthors, Set<FeedAuthor> pushedAuthors) {}
+
+    public static final class Timeline {
+        private final int capacity;
+        private final TreeSet<Long> postIds = new TreeSet<>();
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastAccess = createdAt;
+        private volatile Seed seed;
+        private boolean truncated;
+
+        private Timeline(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        synchronized void add(long postId) {
+            postIds.add(postId);
+            while (postIds.size() > capacity) {
+                postIds.pollFirst();
+                truncated = true;
+            }
+        }
+
+        void ensureLoaded(Function<Integer, Seed> loader) {
+            if (seed != null) {
+                return;
+            }
+            synchronized (this) {
+                if (seed != null) {
+                    return;
+                }
+                Seed loaded = loader.apply(capacity);
+                loaded.postIds().forEach(this::add);
+                // A full seed means older pushed posts exist beyond what is held here.
+                truncated |= loaded.postIds().size() >= capacity;
+                seed = loaded;
+            }
+        }
+
+        public Set<FeedAuthor> pulledAuthors() {
+            return seed.pulledAuthors();
+        }
+
+        public Set<FeedAuthor> pushedAuthors() {
+            return seed.pushedAuthors();
+        }
+
+        /**
+         * Up to {@code limit} pushed ids below {@code beforeId}, newest first; empty when the cursor
+         * has moved past what this timeline holds and the pushed authors must be read instead.
+         */
+        public synchronized Optional<List<Long>> idsBefore(Long beforeId, int limit) {
+            Collection<Long> candidates = beforeId == null ? postIds.descendingSet() : postIds.headSet(beforeId, false).descendingSet();
+            List<Long> page = new ArrayList<>(limit);
+            for (Long id : candidates) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(id);
+            }
+            if (page.size() < limit && truncated) {
+                return Optional.empty();
+            }
+            return Optional.of(page);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package app.sim_feed.user_service.feed.models;
+
+/** A post author the home feed can follow: exactly one of {@code personaId} and {@code userId} is set. */
+public record FeedAuthor(Long personaId, String userId) {
+
+    public static FeedAuthor persona(Long personaId) {
+        return new FeedAuthor(personaId, null);
+    }
+
+    public static FeedAuthor user(String userId) {
+        return new FeedAuthor(null, userId);
+    }
+
+    public boolean isPersona() {
+        return personaId != null;
+    }
+}
@@ -0,0 +1,8 @@
+package app.sim_feed.user_service.feed.models;
+
+import java.util.List;
+
+import app.sim_feed.user_service.post.models.PostDto;
+
+public record HomeFeedDto(List<PostDto> posts, Long nextCursor) {
+}
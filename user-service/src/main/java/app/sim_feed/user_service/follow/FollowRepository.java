@@ -4,8 +4,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import app.sim_feed.user_service.follow.models.UserFollow;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 
 @Repository
@@ -21,4 +23,21 @@ public interface FollowRepository extends JpaRepository<UserFollow, Long> {
     
     @Query("SELECT COUNT(f) FROM UserFollow f WHERE f.follower.clerkId = :userId")
     int countFollowingByUserId(String userId);
+    
+    @Query("SELECT f.follower.clerkId FROM UserFollow f WHERE f.userFollowed.clerkId = :userId")
+    List<String> findFollowerIds(String userId, Pageable pageable);
+
+    @Query("SELECT f.userFollowed.clerkId FROM UserFollow f WHERE f.follower.clerkId = :userId AND f.userFollowed IS NOT NULL")
+    List<String> findFollowedUserIds(String userId);
+
+    @Query("SELECT f.personaFollowed.personaId FROM UserFollow f WHERE f.follower.clerkId = :userId AND f.personaFollowed IS NOT NULL")
+    List<Long> findFollowedPersonaIds(String userId);
+    
+    @Query("""
+        SELECT f.userFollowed.clerkId FROM UserFollow f
+        WHERE f.userFollowed.clerkId IN :userIds
+        GROUP BY f.userFollowed.clerkId
+        HAVING COUNT(f) > :threshold
+    """)
+    List<String> findUserIdsWithMoreFollowersThan(Collection<String> userIds, long threshold);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.feed.TimelineStore;
 import app.sim_feed.user_service.follow.models.FollowDto;
 import app.sim_feed.user_service.follow.models.FollowExistsDto;
 import app.sim_feed.user_service.follow.models.NewFollowDto;
@@ -25,8 +26,9 @@ public class FollowService {
     private final UserService userService;
     private final PersonaService personaService;
     private final CacheManager cacheManager;
+    private final TimelineStore timelineStore;
 
-    @CacheEvict(cacheNames = {"follows", "user-stats"}, key = "#requesterId")
+    @CacheEvict(cacheNames = "user-stats", key = "#requesterId")
     public FollowDto follow(NewFollowDto newFollowDto, String requesterId) {
         if (newFollowDto.userId() != null && newFollowDto.userId().equals(requesterId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requester cannot follow themselves.");
@@ -34,11 +36,16 @@ public class FollowService {
         if (newFollowDto.userId() == null && newFollowDto.personaId() == null || newFollowDto.userId() != null && newFollowDto.personaId() != null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either userId or personaId must be provided, not both.");
         }
-        if (newFollowDto.userId() != null) {
-            return followUser(newFollowDto.userId(), requesterId);
-        } else {
-            return followPersona(newFollowDto.personaId(), requesterId);
+        FollowDto dto = newFollowDto.userId() != null
+            ? followUser(newFollowDto.userId(), requesterId)
+            : followPersona(newFollowDto.personaId(), requesterId);
+        // After the follow is saved and the follow list evicted, so a concurrent home feed read cannot rebuild the timeline without it.
+        var cache = cacheManager.getCache("follows");
+        if (cache != null) {
+            cache.evict(requesterId);
         }
+        timelineStore.evict(requesterId);
+        return dto;
     }
 
     private FollowDto followUser(String userId, String requesterId) {
@@ -91,6 +98,7 @@ public class FollowService {
         if (cache != null) {
             cache.evict(requesterId);
         }
+        timelineStore.evict(requesterId);
     }
     
     @Cacheable(cacheNames = "follows", key = "#userId")
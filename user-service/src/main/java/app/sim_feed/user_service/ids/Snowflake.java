@@ -0,0 +1,134 @@
+package app.sim_feed.user_service.ids;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+import lombok.extern.java.Log;
+
+/**
+ * k-sortable id generator in the Snowflake style: milliseconds since {@link #EPOCH}, then the node
+ * id, then a per-millisecond sequence. The layout is trimmed to 53 bits (41 + 5 + 7) so every id
+ * still fits a BIGINT and survives a round trip through JavaScript numbers on the web client,
+ * at the cost of 32 nodes and 128 ids per millisecond per node.
+ * <p>
+ * The generator never hands out a smaller id than before: if the wall clock steps back it keeps
+ * issuing ids from the last timestamp it saw, moving on to the following millisecond whenever a
+ * sequence is exhausted, until the clock catches up again.
+ * <p>
+ * A node id is only safe while this instance holds it, so {@link #extendLease} fences the
+ * generator: once the lease runs out {@link #nextId} refuses to issue ids until it is renewed.
+ */
+@Log
+public final class Snowflake {
+
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+    public static final int NODE_BITS = 5;
+    public static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private static volatile Snowflake instance;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private long lastTimestamp = -1;
+    private long sequence;
+    private volatile long leaseExpiresAt = Long.MAX_VALUE;
+
+    public Snowflake(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Snowflake node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * Installs the shared generator for {@code nodeId}. Once the current generator has issued ids it
+     * is never replaced: configuring the same node again returns it unchanged, and switching to
+     * another node is rejected, because a fresh generator would restart the sequence and could
+     * repeat ids already handed out.
+     */
+    public static synchronized Snowflake configure(long nodeId) {
+        Snowflake current = instance;
+        if (current != null && current.hasIssuedIds()) {
+            if (current.nodeId == nodeId) {
+                return current;
+            }
+            throw new IllegalStateException("Snowflake already issued ids as node " + current.nodeId + ", cannot switch to node " + nodeId);
+        }
+        instance = new Snowflake(nodeId, System::currentTimeMillis);
+        return instance;
+    }
+
+    public static Snowflake instance() {
+        Snowflake current = instance;
+        if (current == null) {
+            throw new IllegalStateException("Snowflake node id has not been configured");
+        }
+        return current;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now >= leaseExpiresAt) {
+            throw new IllegalStateException("Snowflake lease on node " + nodeId + " expired, refusing to issue ids");
+        }
+        long timestamp = now - EPOCH.toEpochMilli();
+        boolean clockBehind = timestamp < lastTimestamp;
+        if (clockBehind) {
+            if (lastTimestamp - timestamp > 1_000) {
+                log.warning("Clock moved back " + (lastTimestamp - timestamp) + "ms; issuing ids from the last seen timestamp");
+            }
+            timestamp = lastTimestamp;
+        }
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Spinning out a large backwards step would stall inserts, so borrow the next millisecond instead.
+                timestamp = clockBehind ? lastTimestamp + 1 : awaitNextMillisecond(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /** Allows ids to be issued until {@code epochMillis}, as measured by this generator's clock. */
+    public void extendLease(long epochMillis) {
+        leaseExpiresAt = epochMillis;
+    }
+
+    synchronized boolean hasIssuedIds() {
+        return lastTimestamp >= 0;
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> TIMESTAMP_SHIFT);
+    }
+
+    /** Smallest id that could have been issued at {@code instant}, for range queries by time. */
+    public static long lowestIdAt(Instant instant) {
+        return Math.max(0, instant.toEpochMilli() - EPOCH.toEpochMilli()) << TIMESTAMP_SHIFT;
+    }
+
+    private long elapsed() {
+        return clock.getAsLong() - EPOCH.toEpochMilli();
+    }
+
+    private long awaitNextMillisecond(long after) {
+        long timestamp = elapsed();
+        while (timestamp <= after) {
+            Thread.onSpinWait();
+            timestamp = elapsed();
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,147 @@
+package app.sim_feed.user_service.ids;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Assigns this instance's Snowflake node id by leasing a row of {@code snowflake_node_leases}, so
+ * two running instances never share a node id. Startup claims the free row that has been idle
+ * longest (or the row for {@code ids.snowflake.node-id} when it is set) and fails if none is free;
+ * the lease is renewed every third of {@code ids.snowflake.lease.duration-ms} and released on
+ * shutdown.
+ * <p>
+ * The generator is fenced a third of the lease before the row expires, which leaves room for clock
+ * skew between hosts: if renewals keep failing, this instance stops issuing ids before another one
+ * can claim the same node id. With {@code ids.snowflake.lease.enabled=false} the node id must be
+ * set explicitly and is trusted as is.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Log
+public class SnowflakeConfiguration {
+
+    private static final String CLAIM_ANY_SQL = """
+        UPDATE snowflake_node_leases
+        SET owner = ?, expires_at = now() + make_interval(secs => ?)
+        WHERE node_id = (
+            SELECT node_id FROM snowflake_node_leases
+            WHERE expires_at < now()
+            ORDER BY expires_at, node_id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING node_id
+    """;
+    private static final String CLAIM_SQL = """
+        UPDATE snowflake_node_leases
+        SET owner = ?, expires_at = now() + make_interval(secs => ?)
+        WHERE node_id = ? AND (owner = ? OR expires_at < now())
+        RETURNING node_id
+    """;
+    private static final String RELEASE_SQL = "UPDATE snowflake_node_leases SET expires_at = now() WHERE node_id = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String owner = ownerName();
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${ids.snowflake.node-id:-1}")
+    private long nodeId;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${ids.snowflake.lease.enabled:true}")
+    private boolean leaseEnabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${ids.snowflake.lease.duration-ms:60000}")
+    private long leaseDurationMs;
+
+    private Snowflake snowflake;
+
+    @PostConstruct
+    void configureNodeId() {
+        if (!leaseEnabled) {
+            if (nodeId < 0) {
+                throw new IllegalStateException("ids.snowflake.node-id (SNOWFLAKE_NODE_ID) must be set when node id leasing is disabled");
+            }
+            snowflake = Snowflake.configure(nodeId);
+            log.info("Snowflake ids use node id " + nodeId);
+            return;
+        }
+        long leaseStart = System.currentTimeMillis();
+        List<Long> claimed = nodeId >= 0
+            ? jdbcTemplate.queryForList(CLAIM_SQL, Long.class, owner, leaseSeconds(), nodeId, owner)
+            : jdbcTemplate.queryForList(CLAIM_ANY_SQL, Long.class, owner, leaseSeconds());
+        if (claimed.isEmpty()) {
+            throw new IllegalStateException(nodeId >= 0
+                ? "Snowflake node id " + nodeId + " is leased by another instance"
+                : "No free Snowflake node id, all " + (Snowflake.MAX_NODE_ID + 1) + " are leased");
+        }
+        snowflake = Snowflake.configure(claimed.getFirst());
+        snowflake.extendLease(fenceAt(leaseStart));
+        log.info("Snowflake ids use leased node id " + snowflake.getNodeId() + " as " + owner);
+    }
+
+    @Scheduled(fixedDelayString = "#{${ids.snowflake.lease.duration-ms:60000} / 3}")
+    public void renewLease() {
+        if (!leaseEnabled || snowflake == null) {
+            return;
+        }
+        long leaseStart = System.currentTimeMillis();
+        try {
+            List<Long> renewed = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, owner, leaseSeconds(), snowflake.getNodeId(), owner);
+            if (renewed.isEmpty()) {
+                log.severe("Snowflake node id " + snowflake.getNodeId() + " was claimed by another instance; no more ids will be issued");
+                return;
+            }
+            snowflake.extendLease(fenceAt(leaseStart));
+        } catch (DataAccessException e) {
+            log.warning("Renewing the Snowflake node lease failed, retrying next cycle: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        if (!leaseEnabled || snowflake == null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(RELEASE_SQL, snowflake.getNodeId(), owner);
+        } catch (DataAccessException e) {
+            log.warning("Releasing the Snowflake node lease failed, it will expire on its own: " + e.getMessage());
+        }
+    }
+
+    private double leaseSeconds() {
+        return leaseDurationMs / 1000.0;
+    }
+
+    private long fenceAt(long leaseStart) {
+        return leaseStart + leaseDurationMs * 2 / 3;
+    }
+
+    private static String ownerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "/" + ProcessHandle.current().pid() + "/" + UUID.randomUUID();
+    }
+}
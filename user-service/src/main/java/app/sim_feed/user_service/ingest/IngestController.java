@@ -0,0 +1,50 @@
+package app.sim_feed.user_service.ingest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.ingest.models.PersonaActionBatchDto;
+import app.sim_feed.user_service.ingest.models.PersonaActionResultDto;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Service-to-service endpoint for the agent scheduler. Callers are not Clerk users, so the path is
+ * open in the security chain and requests must carry the shared {@code ingest.token} instead; with
+ * no token configured the endpoint refuses everything.
+ */
+@RestController
+@RequestMapping("/api/v1/ingest")
+@RequiredArgsConstructor
+public class IngestController {
+
+    private final PersonaActionIngestService personaActionIngestService;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${ingest.token:}")
+    private String token;
+
+    @PostMapping("/persona-actions")
+    public List<PersonaActionResultDto> ingestPersonaActions(
+        @RequestHeader(name = "X-Ingest-Token", required = false) String presentedToken,
+        @RequestBody @Valid PersonaActionBatchDto batch
+    ) {
+        if (token == null || token.isBlank() || presentedToken == null
+            || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), presentedToken.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid ingest token");
+        }
+        return personaActionIngestService.ingest(batch.actions());
+    }
+}
@@ -0,0 +1,377 @@
+package app.sim_feed.user_service.ingest;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.sim_feed.user_service.feed.AuthorPostIndex;
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import app.sim_feed.user_service.ingest.models.PersonaActionDto;
+import app.sim_feed.user_service.ingest.models.PersonaActionResultDto;
+import app.sim_feed.user_service.ingest.models.PersonaActionStatus;
+import app.sim_feed.user_service.ingest.models.PersonaActionType;
+import app.sim_feed.user_service.post.PostHydrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+
+/**
+ * Writes a scheduler wave's persona actions in bulk. After validation, two lookups check every
+ * referenced persona and post at once. The whole batch is then written in one transaction: one
+ * multi-row statement per table for the posts, comments, likes, follows and bio updates, then the
+ * {@code agent_events} rows and their detail rows. That is about a dozen round trips whatever the
+ * batch size. Posts, comments and events get ids from their sequences up front, so each row can be
+ * matched to its action without relying on the order of {@code RETURNING}.
+ * <p>
+ * Every action gets its own result. Likes and follows that already exist come back as
+ * {@link PersonaActionStatus#DUPLICATE} without an event, the same as the scheduler's own
+ * {@code ON CONFLICT DO NOTHING} writes. If the batch transaction fails, the actions are retried one
+ * per transaction, so one bad row cannot fail its neighbours.
+ */
+@Service
+@RequiredArgsConstructor
+@Log
+public class PersonaActionIngestService {
+
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)";
+    private static final String PERSONAS_SQL = "SELECT persona_id FROM personas WHERE persona_id = ANY(?)";
+    private static final String LIVE_POSTS_SQL = "SELECT id FROM posts WHERE id = ANY(?) AND deleted_at IS NULL";
+    private static final String INSERT_POSTS_SQL = "INSERT INTO posts (id, title, body, author) VALUES ";
+    private static final String INSERT_COMMENTS_SQL = "INSERT INTO comments (id, post_id, author_id, body) VALUES ";
+    private static final String INSERT_LIKES_SQL = "INSERT INTO likes (post_id, persona_id) VALUES %s ON CONFLICT (post_id, persona_id) DO NOTHING RETURNING id, persona_id, post_id";
+    private static final String INSERT_FOLLOWS_SQL = "INSERT INTO follows (follower, followed) VALUES %s ON CONFLICT (follower, followed) DO NOTHING RETURNING id, follower, followed";
+    private static final String UPDATE_BIOS_SQL = "UPDATE personas p SET bio = v.bio FROM (VALUES %s) AS v(persona_id, bio) WHERE p.persona_id = v.persona_id";
+    private static final String INSERT_EVENTS_SQL = "INSERT INTO agent_events (id, persona_id, event_type) VALUES ";
+    private static final Map<PersonaActionType, String> INSERT_EVENT_DETAILS_SQL = Map.of(
+        PersonaActionType.CREATE_POST, "INSERT INTO agent_event_post (id, post_id) VALUES ",
+        PersonaActionType.LIKE_POST, "INSERT INTO agent_event_like (id, like_id) VALUES ",
+        PersonaActionType.COMMENT, "INSERT INTO agent_event_comment (id, post_id, comment_id) VALUES ",
+        PersonaActionType.FOLLOW, "INSERT INTO agent_event_follow (id, followed_id) VALUES ",
+        PersonaActionType.UPDATE_BIO, "INSERT INTO agent_event_bio (id, bio) VALUES "
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final AuthorPostIndex authorPostIndex;
+    private final PostHydrationService postHydrationService;
+
+    public List<PersonaActionResultDto> ingest(List<PersonaActionDto> actions) {
+        PersonaActionResultDto[] results = new PersonaActionResultDto[actions.size()];
+        List<Pending> pending = new ArrayList<>();
+        for (int i = 0; i < actions.size(); i++) {
+            String error = validate(actions.get(i));
+            if (error != null) {
+                results[i] = PersonaActionResultDto.of(i, PersonaActionStatus.REJECTED, error);
+            } else {
+                pending.add(new Pending(i, actions.get(i)));
+            }
+        }
+        pending = resolveReferences(pending, results);
+        pending = dropRepeats(pending, results);
+        if (!pending.isEmpty()) {
+            writeAll(pending, results);
+        }
+        return List.of(results);
+    }
+
+    private void writeAll(List<Pending> pending, PersonaActionResultDto[] results) {
+        try {
+            record(new TransactionTemplate(transactionManager).execute(status -> write(pending)), results);
+        } catch (RuntimeException e) {
+            if (pending.size() == 1) {
+                Pending only = pending.getFirst();
+                log.warning("Persona action " + only.action().type() + " by persona " + only.action().personaId() + " failed: " + e.getMessage());
+                results[only.index()] = PersonaActionResultDto.of(only.index(), PersonaActionStatus.FAILED, "Could not be written");
+                return;
+            }
+            log.warning("Ingesting " + pending.size() + " persona actions failed, retrying individually: " + e.getMessage());
+            pending.forEach(single -> writeAll(List.of(single), results));
+        }
+    }
+
+    private static void record(List<PersonaActionResultDto> written, PersonaActionResultDto[] results) {
+        written.forEach(result -> results[result.index()] = result);
+    }
+
+    private List<PersonaActionResultDto> write(List<Pending> batch) {
+        Map<PersonaActionType, List<Pending>> byType = new EnumMap<>(PersonaActionType.class);
+        batch.forEach(pending -> byType.computeIfAbsent(pending.action().type(), type -> new ArrayList<>()).add(pending));
+        List<Written> written = new ArrayList<>();
+        List<PersonaActionResultDto> results = new ArrayList<>();
+        insertPosts(byType.getOrDefault(PersonaActionType.CREATE_POST, List.of()), written);
+        insertComments(byType.getOrDefault(PersonaActionType.COMMENT, List.of()), written);
+        insertLikes(byType.getOrDefault(PersonaActionType.LIKE_POST, List.of()), written, results);
+        insertFollows(byType.getOrDefault(PersonaActionType.FOLLOW, List.of()), written, results);
+        updateBios(byType.getOrDefault(PersonaActionType.UPDATE_BIO, List.of()), written);
+        if (written.isEmpty()) {
+            return results;
+        }
+        List<Long> eventIds = allocateIds("agent_events", written.size());
+        List<Object[]> events = new ArrayList<>();
+        Map<PersonaActionType, List<Object[]>> details = new EnumMap<>(PersonaActionType.class);
+        for (int i = 0; i < written.size(); i++) {
+            Written row = written.get(i);
+            PersonaActionDto action = row.pending().action();
+            Long eventId = eventIds.get(i);
+            events.add(new Object[] { eventId, action.personaId(), action.type().name() });
+            details.computeIfAbsent(action.type(), type -> new ArrayList<>()).add(switch (action.type()) {
+                case CREATE_POST, LIKE_POST -> new Object[] { eventId, row.id() };
+                case COMMENT -> new Object[] { eventId, action.postId(), row.id() };
+                case FOLLOW -> new Object[] { eventId, action.followedId() };
+                case UPDATE_BIO -> new Object[] { eventId, action.bio() };
+            });
+            results.add(PersonaActionResultDto.created(row.pending().index(), row.id(), eventId));
+        }
+        insertRows(INSERT_EVENTS_SQL, events);
+        // Detail rows last: the trigger that projects agent_activity reads the event row they point to.
+        details.forEach((type, rows) -> insertRows(INSERT_EVENT_DETAILS_SQL.get(type), rows));
+        evictCaches(written);
+        return results;
+    }
+
+    private void insertPosts(List<Pending> posts, List<Written> written) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = allocateIds("posts", posts.size());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+            PersonaActionDto action = posts.get(i).action();
+            rows.add(new Object[] { ids.get(i), action.title().trim(), action.body().trim(), action.personaId() });
+            written.add(new Written(posts.get(i), ids.get(i)));
+        }
+        insertRows(INSERT_POSTS_SQL, rows);
+    }
+
+    private void insertComments(List<Pending> comments, List<Written> written) {
+        if (comments.isEmpty()) {
+            return;
+        }
+        List<Long> ids = allocateIds("comments", comments.size());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < comments.size(); i++) {
+            PersonaActionDto action = comments.get(i).action();
+            rows.add(new Object[] { ids.get(i), action.postId(), action.personaId(), action.body().trim() });
+            written.add(new Written(comments.get(i), ids.get(i)));
+        }
+        insertRows(INSERT_COMMENTS_SQL, rows);
+    }
+
+    private void insertLikes(List<Pending> likes, List<Written> written, List<PersonaActionResultDto> results) {
+        insertUnlessExists(INSERT_LIKES_SQL, likes, action -> new Object[] { action.postId(), action.personaId() },
+            action -> pairKey(action.personaId(), action.postId()), "Post already liked", written, results);
+    }
+
+    private void insertFollows(List<Pending> follows, List<Written> written, List<PersonaActionResultDto> results) {
+        insertUnlessExists(INSERT_FOLLOWS_SQL, follows, action -> new Object[] { action.personaId(), action.followedId() },
+            action -> pairKey(action.personaId(), action.followedId()), "Persona already followed", written, results);
+    }
+
+    /** Multi-row insert of unique pairs; rows skipped by {@code ON CONFLICT} are reported as duplicates. */
+    private void insertUnlessExists(
+        String sql,
+        List<Pending> actions,
+        Function<PersonaActionDto, Object[]> toRow,
+        Function<PersonaActionDto, String> toKey,
+        String duplicateMessage,
+        List<Written> written,
+        List<PersonaActionResultDto> results
+    ) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = actions.stream().map(pending -> toRow.apply(pending.action())).toList();
+        Map<String, Long> inserted = new HashMap<>();
+        jdbcTemplate.query(sql.formatted(placeholders(rows.getFirst().length, rows.size())),
+            rs -> {
+                inserted.put(pairKey(rs.getLong(2), rs.getLong(3)), rs.getLong(1));
+            },
+            flatten(rows));
+        for (Pending pending : actions) {
+            Long id = inserted.get(toKey.apply(pending.action()));
+            if (id != null) {
+                written.add(new Written(pending, id));
+            } else {
+                results.add(PersonaActionResultDto.of(pending.index(), PersonaActionStatus.DUPLICATE, duplicateMessage));
+            }
+        }
+    }
+
+    private void updateBios(List<Pending> bios, List<Written> written) {
+        if (bios.isEmpty()) {
+            return;
+        }
+        // Several updates for one persona in a wave each get an event, but only the last one sticks.
+        Map<Long, String> latest = new LinkedHashMap<>();
+        bios.forEach(pending -> latest.put(pending.action().personaId(), pending.action().bio().trim()));
+        List<Object[]> rows = latest.entrySet().stream().map(entry -> new Object[] { entry.getKey(), entry.getValue() }).toList();
+        jdbcTemplate.update(UPDATE_BIOS_SQL.formatted(placeholders(2, rows.size())), flatten(rows));
+        bios.forEach(pending -> written.add(new Written(pending, null)));
+    }
+
+    private void evictCaches(List<Written> written) {
+        Set<Long> authors = new HashSet<>();
+        Set<Long> touchedPosts = new HashSet<>();
+        for (Written row : written) {
+            PersonaActionDto action = row.pending().action();
+            if (action.type() == PersonaActionType.CREATE_POST) {
+                authors.add(action.personaId());
+            } else if (action.type() == PersonaActionType.LIKE_POST || action.type() == PersonaActionType.COMMENT) {
+                touchedPosts.add(action.postId());
+            }
+        }
+        authors.forEach(personaId -> authorPostIndex.evict(FeedAuthor.persona(personaId)));
+        touchedPosts.forEach(postHydrationService::evict);
+    }
+
+    private List<Pending> resolveReferences(List<Pending> pending, PersonaActionResultDto[] results) {
+        if (pending.isEmpty()) {
+            return pending;
+        }
+        Set<Long> personaIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        for (Pending each : pending) {
+            PersonaActionDto action = each.action();
+            personaIds.add(action.personaId());
+            if (action.type() == PersonaActionType.FOLLOW) {
+                personaIds.add(action.followedId());
+            }
+            if (action.type() == PersonaActionType.LIKE_POST || action.type() == PersonaActionType.COMMENT) {
+                postIds.add(action.postId());
+            }
+        }
+        Set<Long> knownPersonas = existingIds(PERSONAS_SQL, personaIds);
+        Set<Long> livePosts = existingIds(LIVE_POSTS_SQL, postIds);
+        List<Pending> resolved = new ArrayList<>();
+        for (Pending each : pending) {
+            PersonaActionDto action = each.action();
+            String error = null;
+            if (!knownPersonas.contains(action.personaId())) {
+                error = "Persona not found";
+            } else if (action.type() == PersonaActionType.FOLLOW && !knownPersonas.contains(action.followedId())) {
+                error = "Followed persona not found";
+            } else if ((action.type() == PersonaActionType.LIKE_POST || action.type() == PersonaActionType.COMMENT) && !livePosts.contains(action.postId())) {
+                error = "Post not found";
+            }
+            if (error != null) {
+                results[each.index()] = PersonaActionResultDto.of(each.index(), PersonaActionStatus.REJECTED, error);
+            } else {
+                resolved.add(each);
+            }
+        }
+        return resolved;
+    }
+
+    /** A like or follow repeated within the same batch is a duplicate of its first occurrence. */
+    private static List<Pending> dropRepeats(List<Pending> pending, PersonaActionResultDto[] results) {
+        Set<String> seen = new HashSet<>();
+        List<Pending> unique = new ArrayList<>();
+        for (Pending each : pending) {
+            PersonaActionDto action = each.action();
+            String key = switch (action.type()) {
+                case LIKE_POST -> "like:" + pairKey(action.personaId(), action.postId());
+                case FOLLOW -> "follow:" + pairKey(action.personaId(), action.followedId());
+                default -> null;
+            };
+            if (key != null && !seen.add(key)) {
+                results[each.index()] = PersonaActionResultDto.of(each.index(), PersonaActionStatus.DUPLICATE, "Repeated in this batch");
+            } else {
+                unique.add(each);
+            }
+        }
+        return unique;
+    }
+
+    static String validate(PersonaActionDto action) {
+        return switch (action.type()) {
+            case CREATE_POST -> {
+                if (isBlank(action.title())) {
+                    yield "Title cannot be blank";
+                }
+                if (action.title().trim().length() > 255) {
+                    yield "Title cannot be longer than 255 characters";
+                }
+                yield isBlank(action.body()) ? "Body cannot be blank" : null;
+            }
+            case LIKE_POST -> action.postId() == null ? "Post id is required" : null;
+            case COMMENT -> {
+                if (action.postId() == null) {
+                    yield "Post id is required";
+                }
+                yield isBlank(action.body()) ? "Comment body cannot be empty" : null;
+            }
+            case FOLLOW -> {
+                if (action.followedId() == null) {
+                    yield "Followed persona id is required";
+                }
+                yield action.followedId().equals(action.personaId()) ? "A persona cannot follow itself" : null;
+            }
+            case UPDATE_BIO -> {
+                if (isBlank(action.bio())) {
+                    yield "Bio cannot be blank";
+                }
+                yield action.bio().trim().length() > 200 ? "Bio cannot be longer than 200 characters" : null;
+            }
+        };
+    }
+
+    private Set<Long> existingIds(String sql, Collection<Long> ids) {
+        Set<Long> found = new HashSet<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, rs -> {
+            found.add(rs.getLong(1));
+        });
+        return found;
+    }
+
+    private List<Long> allocateIds(String table, int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, table, count);
+    }
+
+    private void insertRows(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.update(sql + placeholders(rows.getFirst().length, rows.size()), flatten(rows));
+        }
+    }
+
+    private static String placeholders(int columns, int rows) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+
+    private static Object[] flatten(List<Object[]> rows) {
+        return rows.stream().flatMap(Arrays::stream).toArray();
+    }
+
+    private static String pairKey(long first, long second) {
+        return first + ":" + second;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    record Pending(int index, PersonaActionDto action) {}
+
+    record Written(Pending pending, Long id) {}
+}
@@ -0,0 +1,11 @@
+package app.sim_feed.user_service.ingest.models;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record PersonaActionBatchDto(@NotEmpty @Size(max = 500) List<@NotNull @Valid PersonaActionDto> actions) {
+}
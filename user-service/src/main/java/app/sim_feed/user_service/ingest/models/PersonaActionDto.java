@@ -0,0 +1,19 @@
+package app.sim_feed.user_service.ingest.models;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One persona action. Which of the optional fields are required depends on {@code type}:
+ * {@code title} and {@code body} for a post, {@code postId} for a like, {@code postId} and
+ * {@code body} for a comment, {@code followedId} for a follow and {@code bio} for a bio update.
+ */
+public record PersonaActionDto(
+    @NotNull PersonaActionType type,
+    @NotNull Long personaId,
+    String title,
+    String body,
+    Long postId,
+    Long followedId,
+    String bio
+) {
+}
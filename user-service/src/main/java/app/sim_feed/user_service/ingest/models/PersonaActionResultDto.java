@@ -0,0 +1,16 @@
+package app.sim_feed.user_service.ingest.models;
+
+/**
+ * Outcome of the action at {@code index} in the request. {@code id} is the post, like, comment or
+ * follow row that was written (null for bio updates) and {@code eventId} its agent event.
+ */
+public record PersonaActionResultDto(int index, PersonaActionStatus status, Long id, Long eventId, String message) {
+
+    public static PersonaActionResultDto created(int index, Long id, Long eventId) {
+        return new PersonaActionResultDto(index, PersonaActionStatus.CREATED, id, eventId, null);
+    }
+
+    public static PersonaActionResultDto of(int index, PersonaActionStatus status, String message) {
+        return new PersonaActionResultDto(index, status, null, null, message);
+    }
+}
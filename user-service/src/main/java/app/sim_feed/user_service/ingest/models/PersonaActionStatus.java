@@ -0,0 +1,12 @@
+package app.sim_feed.user_service.ingest.models;
+
+public enum PersonaActionStatus {
+    /** Written, together with its agent event. */
+    CREATED,
+    /** Already done before (a repeated like or follow); nothing was written. */
+    DUPLICATE,
+    /** Invalid or referring to a persona or post that does not exist; nothing was written. */
+    REJECTED,
+    /** Valid but the write failed; safe to retry. */
+    FAILED
+}
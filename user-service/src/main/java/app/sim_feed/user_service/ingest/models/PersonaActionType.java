@@ -0,0 +1,10 @@
+package app.sim_feed.user_service.ingest.models;
+
+/** The actions an agent can take in one scheduler wave; names match {@code agent_events.event_type}. */
+public enum PersonaActionType {
+    CREATE_POST,
+    LIKE_POST,
+    COMMENT,
+    FOLLOW,
+    UPDATE_BIO
+}
@@ -5,20 +5,30 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import app.sim_feed.user_service.like.models.Like;
+import app.sim_feed.user_service.like.models.ViewerLike;
+import app.sim_feed.user_service.post.models.PostCount;
 import app.sim_feed.user_service.users.models.User;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
+    @Query("SELECT l FROM Like l WHERE l.user = :user AND l.post.deletedAt IS NULL ORDER BY l.createdAt DESC")
     Page<Like> findAllByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
     @Query("SELECT l FROM Like l WHERE l.post.id = :postId AND l.user.clerkId = :userId")
     Optional<Like> findByPostIdAndUserId(Long postId, String userId);
     
     @Query("SELECT l.post.id FROM Like l " +
-    "WHERE l.user = :user")
+    "WHERE l.user = :user AND l.post.deletedAt IS NULL")
     List<Long> findAllPostIdByUser(User user);
+    
+    @Query("SELECT l.post.id AS postId, COUNT(l) AS total FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
+    List<PostCount> countByPostIds(Collection<Long> postIds);
+    
+    @Query("SELECT l.post.id AS postId, l.id AS likeId FROM Like l WHERE l.user.clerkId = :userId AND l.post.id IN :postIds")
+    List<ViewerLike> findViewerLikes(String userId, Collection<Long> postIds);
 }
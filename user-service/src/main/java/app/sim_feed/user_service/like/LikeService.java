@@ -14,7 +14,9 @@ import lombok.RequiredArgsConstructor;
 import app.sim_feed.user_service.like.models.Like;
 import app.sim_feed.user_service.like.models.LikeDto;
 import app.sim_feed.user_service.like.models.NewLikeDto;
+import app.sim_feed.user_service.post.PostHydrationService;
 import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.TrendingPostService;
 import app.sim_feed.user_service.post.models.Post;
 import app.sim_feed.user_service.users.UserRepository;
 import app.sim_feed.user_service.users.models.User;
@@ -28,6 +30,8 @@ public class LikeService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final CacheManager cacheManager;
+    private final TrendingPostService trendingPostService;
+    private final PostHydrationService postHydrationService;
     
     public LikeDto like(NewLikeDto newLikeDto, String userId) {
         User user = userRepository.findById(userId).orElseThrow();
@@ -38,6 +42,7 @@ public class LikeService {
             .build();
         like = likeRepository.save(like);
         clearUserLikesCache(userId);
+        postHydrationService.evict(post.getId());
         return  LikeDto.of(like.getId(), post, user);
     }
     
@@ -49,6 +54,8 @@ public class LikeService {
         }
         likeRepository.delete(like);
         clearUserLikesCache(userId);
+        trendingPostService.recordUnlike(like);
+        postHydrationService.evict(postId);
     }
     
     @Cacheable(cacheNames = "likes", key = "#userId + '_' + #page + '_' + #size")
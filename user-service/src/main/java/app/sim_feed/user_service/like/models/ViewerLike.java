@@ -0,0 +1,6 @@
+package app.sim_feed.user_service.like.models;
+
+public interface ViewerLike {
+    Long getPostId();
+    Long getLikeId();
+}
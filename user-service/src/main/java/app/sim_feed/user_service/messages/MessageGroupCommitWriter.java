@@ -0,0 +1,167 @@
+package app.sim_feed.user_service.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.messages.models.MessageDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Optional group commit for chat messages. Callers enqueue a message and block until it is durable;
+ * a single writer thread collects whatever arrives within {@code flush-interval-ms} (up to
+ * {@code max-batch-size}) and persists it in one transaction, which Hibernate sends as one JDBC
+ * batch since message ids are assigned in the application. The queue is FIFO and one thread drains it, so messages
+ * for a chat are inserted, numbered and acknowledged in the order they were submitted. The queue holds
+ * at most {@code max-queue-size} messages; past that, sends fail fast with 503 instead of piling up
+ * behind a slow database.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class MessageGroupCommitWriter {
+
+    private final MessageRepository messageRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.messages.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.messages.group-commit.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.messages.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.messages.group-commit.max-queue-size:10000}")
+    private int maxQueueSize;
+
+    private BlockingQueue<PendingMessage> queue;
+    private volatile boolean running;
+    private Thread writer;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(maxQueueSize);
+        running = true;
+        writer = Thread.ofPlatform().name("message-group-commit").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        drainRemaining();
+    }
+
+    public CompletableFuture<MessageDto> submit(Message message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+        if (!running) {
+            pending.result().completeExceptionally(new IllegalStateException("Message group commit is not running"));
+            return pending.result();
+        }
+        if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many messages are waiting to be saved, please retry"));
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingMessage> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchSize) {
+                    PendingMessage next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void flush(List<PendingMessage> batch) {
+        try {
+            List<Message> saved = new TransactionTemplate(transactionManager).execute(status ->
+                messageRepository.saveAll(batch.stream().map(PendingMessage::message).toList())
+            );
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(MessageDto.of(saved.get(i)));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            // One bad row must not fail its neighbours, so fall back to committing them one by one.
+            // The rolled-back entities already carry ids, so each retry persists a fresh copy.
+            log.warning("Group commit of " + batch.size() + " messages failed, retrying individually: " + e.getMessage());
+            batch.forEach(pending -> flush(List.of(pending.retry())));
+        }
+    }
+
+    private void drainRemaining() {
+        if (queue == null) {
+            return;
+        }
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    record PendingMessage(Message message, CompletableFuture<MessageDto> result) {
+
+        PendingMessage retry() {
+            Message fresh = Message.builder()
+                .body(message.getBody())
+                .chat(message.getChat())
+                .userAuthor(message.getUserAuthor())
+                .personaAuthor(message.getPersonaAuthor())
+                .build();
+            return new PendingMessage(fresh, result);
+        }
+    }
+}
@@ -1,13 +1,60 @@
 package app.sim_feed.user_service.messages;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.messages.models.MessageSearchHit;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findAllByChat_Id(Long chatId, Pageable pageable);
+    
+    List<Message> findAllByChat_IdAndIdLessThan(Long chatId, Long beforeMessageId, Pageable pageable);
+    
+    List<Message> findAllByChat_IdAndIdGreaterThan(Long chatId, Long afterMessageId, Pageable pageable);
+    
+    boolean existsByIdAndChat_Id(Long messageId, Long chatId);
+    
+    @Query("""
+        SELECT COUNT(m) FROM Message m
+        WHERE m.chat.id = :chatId
+        AND m.id > :afterMessageId
+        AND (m.userAuthor IS NULL OR m.userAuthor.clerkId <> :userId)
+    """)
+    long countUnreadAfter(@Param("chatId") Long chatId, @Param("afterMessageId") Long afterMessageId, @Param("userId") String userId);
+    
+    // Matches come from idx_message_body_tsv; only chats the user belongs to are considered.
+    @NativeQuery("""
+        WITH hits AS (
+            SELECT m.id, CAST(ts_rank(m.body_tsv, q.query) AS REAL) AS rank
+            FROM message m
+            JOIN chat_members cm ON cm.chat_id = m.chat_id AND cm.user_id = :userId
+            JOIN chats c ON c.id = m.chat_id AND c.deleted_at IS NULL
+            CROSS JOIN websearch_to_tsquery('english', :query) AS q(query)
+            WHERE m.body_tsv @@ q.query
+            AND (CAST(:chatId AS BIGINT) IS NULL OR m.chat_id = CAST(:chatId AS BIGINT))
+        )
+        SELECT id, rank FROM hits
+        WHERE CAST(:afterRank AS REAL) IS NULL
+        OR rank < CAST(:afterRank AS REAL)
+        OR (rank = CAST(:afterRank AS REAL) AND id < CAST(:afterId AS BIGINT))
+        ORDER BY rank DESC, id DESC
+        LIMIT :limit
+    """)
+    List<MessageSearchHit> searchMessages(
+        @Param("userId") String userId,
+        @Param("query") String query,
+        @Param("chatId") Long chatId,
+        @Param("afterRank") Float afterRank,
+        @Param("afterId") Long afterId,
+        @Param("limit") int limit
+    );
 }
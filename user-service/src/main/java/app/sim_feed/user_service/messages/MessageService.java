@@ -1,18 +1,33 @@
 package app.sim_feed.user_service.messages;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import app.sim_feed.user_service.chats.ChatRepository;
 import app.sim_feed.user_service.chats.models.Chat;
+import app.sim_feed.user_service.messages.RecentMessageCache.RecentMessages;
 import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.messages.models.MessageCursorDto;
 import app.sim_feed.user_service.messages.models.MessageDto;
+import app.sim_feed.user_service.messages.models.MessageSearchCursor;
+import app.sim_feed.user_service.messages.models.MessageSearchDto;
+import app.sim_feed.user_service.messages.models.MessageSearchHit;
 import app.sim_feed.user_service.messages.models.NewMessageDto;
 import app.sim_feed.user_service.users.UserRepository;
 import app.sim_feed.user_service.users.models.User;
@@ -26,6 +41,8 @@ public class MessageService {
     private final MessageRepository messageRepository;
     private final ChatRepository chatRepository;
     private final UserRepository userRepository;
+    private final RecentMessageCache recentMessageCache;
+    private final MessageGroupCommitWriter groupCommitWriter;
 
     public Page<MessageDto> getMessagesByChatId(Long chatId, int page, int size) {
         if (page < 0 || size < 1) {
@@ -35,11 +52,43 @@ public class MessageService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size cannot exceed 200");
         }
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        if (page == 0 && size <= recentMessageCache.getCapacity()) {
+            RecentMessages recent = recentMessageCache.latest(chatId, size, limit -> loadLatestMessages(chatId, limit));
+            return new PageImpl<>(recent.messages(), pageable, recent.totalElements());
+        }
         return messageRepository.findAllByChat_Id(chatId, pageable)
             .map(MessageDto::of);
     }
+
+    /** Newest-first page of messages older than {@code beforeMessageId}; ids are time-ordered, so this is a plain index range scan. */
+    public MessageCursorDto getMessagesBefore(Long chatId, Long beforeMessageId, int size) {
+        if (size < 1 || size > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 200");
+        }
+        if (beforeMessageId == null) {
+            return MessageCursorDto.of(getMessagesByChatId(chatId, 0, size).getContent(), size);
+        }
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+        List<MessageDto> messages = messageRepository.findAllByChat_IdAndIdLessThan(chatId, beforeMessageId, pageable)
+            .stream()
+            .map(MessageDto::of)
+            .toList();
+        return MessageCursorDto.of(messages, size);
+    }
+
+    public List<MessageDto> getRecentMessages(Long chatId) {
+        int capacity = recentMessageCache.getCapacity();
+        return recentMessageCache.latest(chatId, capacity, limit -> loadLatestMessages(chatId, limit)).messages();
+    }
     
-    @Transactional
+    /**
+     * Deliberately not {@code @Transactional}. The chat and user lookups are plain reads, and the
+     * insert is the only write. It commits in its own transaction: the repository's, or the group
+     * commit writer's on its own thread. With group commit on, an outer transaction would keep a
+     * pooled connection checked out while the caller waits for the batch to flush. It could also
+     * never include the insert, since that runs on another thread. Either way the message is durable
+     * before this returns, so it is never acknowledged or broadcast and then rolled back.
+     */
     public MessageDto createMessage(NewMessageDto newMessageDto) {
         Chat chat = chatRepository.findById(newMessageDto.chatId())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat not found"));
@@ -52,10 +101,97 @@ public class MessageService {
             .userAuthor(user)
             .build();
         
-        chat.getMessages().add(message);
-        chatRepository.save(chat);
-        
-        return MessageDto.of(message);
+        MessageDto messageDto = groupCommitWriter.isEnabled()
+            ? awaitGroupCommit(message)
+            : MessageDto.of(messageRepository.save(message));
+        appendAfterCommit(messageDto);
+        return messageDto;
+    }
+
+    /** Messages after {@code afterMessageId}, oldest first, capped to the newest {@code limit}. */
+    @Transactional(readOnly = true)
+    public List<MessageDto> getMessagesAfter(Long chatId, Long afterMessageId, int limit) {
+        List<MessageDto> cached = recentMessageCache.after(chatId, afterMessageId).orElse(null);
+        if (cached != null) {
+            return cached.subList(Math.max(0, cached.size() - limit), cached.size());
+        }
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "id"));
+        return messageRepository.findAllByChat_IdAndIdGreaterThan(chatId, afterMessageId, pageable)
+            .reversed()
+            .stream()
+            .map(MessageDto::of)
+            .toList();
+    }
+
+    /**
+     * Ranked full-text search over the requester's chats, best match first. Pages are keyed on
+     * (rank, id) so deeper pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public MessageSearchDto searchMessages(String userId, String query, Long chatId, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query cannot be blank");
+        }
+        if (query.length() > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query cannot be longer than 200 characters");
+        }
+        if (size < 1 || size > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 50");
+        }
+        MessageSearchCursor after = cursor != null ? MessageSearchCursor.decode(cursor) : null;
+        List<MessageSearchHit> hits = messageRepository.searchMessages(
+            userId,
+            query.trim(),
+            chatId,
+            after != null ? after.rank() : null,
+            after != null ? after.messageId() : null,
+            size
+        );
+        if (hits.isEmpty()) {
+            return new MessageSearchDto(List.of(), null);
+        }
+        Map<Long, Message> messagesById = messageRepository.findAllById(hits.stream().map(MessageSearchHit::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Message::getId, Function.identity()));
+        List<MessageDto> messages = hits.stream()
+            .map(hit -> messagesById.get(hit.getId()))
+            .filter(Objects::nonNull)
+            .map(MessageDto::of)
+            .toList();
+        String nextCursor = hits.size() == size ? MessageSearchCursor.of(hits.getLast()).encode() : null;
+        return new MessageSearchDto(messages, nextCursor);
+    }
+
+    public void evictChat(Long chatId) {
+        recentMessageCache.evict(chatId);
+    }
+
+    private MessageDto awaitGroupCommit(Message message) {
+        try {
+            return groupCommitWriter.submit(message).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Page<MessageDto> loadLatestMessages(Long chatId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return messageRepository.findAllByChat_Id(chatId, pageable)
+            .map(MessageDto::of);
+    }
+
+    // Readers must never see a message whose transaction later rolls back.
+    private void appendAfterCommit(MessageDto messageDto) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentMessageCache.append(messageDto);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentMessageCache.append(messageDto);
+            }
+        });
     }
 }
 
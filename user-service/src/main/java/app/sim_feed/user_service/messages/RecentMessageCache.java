@@ -0,0 +1,210 @@
+package app.sim_feed.user_service.messages;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.sim_feed.user_service.messages.models.MessageDto;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * Keeps the last {@code capacity} messages of each active chat in memory so the newest page and
+ * the join backlog can be served without touching the messages table. A chat's buffer is created
+ * on its first read; new messages are appended lock-free after their transaction commits, and
+ * buffers that go unread for {@code idle-eviction-ms} are dropped.
+ * <p>
+ * Buffers are local to this instance and only see messages sent through it. In relay mode, where
+ * other nodes write to the same chats, a buffer is reloaded from the database once it is older
+ * than {@code max-age-ms}, however often it is read, so page 0 lags other nodes by at most that long.
+ */
+@Component
+@Setter(AccessLevel.PACKAGE)
+public class RecentMessageCache {
+
+    static final Comparator<MessageDto> NEWEST_FIRST = Comparator
+        .comparing(MessageDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(MessageDto::messageId, Comparator.reverseOrder());
+
+    @Value("${chat.recent-messages.capacity:50}")
+    private int capacity;
+
+    @Value("${chat.recent-messages.idle-eviction-ms:300000}")
+    private long idleEvictionMs;
+
+    @Value("${chat.recent-messages.max-age-ms:5000}")
+    private long maxAgeMs;
+
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    private final Map<Long, ChatBuffer> buffers = new ConcurrentHashMap<>();
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns up to {@code size} of the newest messages in the chat, newest first, loading the
+     * buffer through {@code loader} (asked for the newest {@code capacity} messages) on first use.
+     */
+    public RecentMessages latest(Long chatId, int size, Function<Integer, Page<MessageDto>> loader) {
+        ChatBuffer buffer = buffers.computeIfAbsent(chatId, id -> new ChatBuffer(capacity));
+        if (isRelayMode() && buffer.loadedBefore(System.currentTimeMillis() - maxAgeMs)) {
+            buffers.remove(chatId, buffer);
+            buffer = buffers.computeIfAbsent(chatId, id -> new ChatBuffer(capacity));
+        }
+        buffer.touch();
+        buffer.ensureLoaded(loader);
+        return buffer.latest(size);
+    }
+
+    /**
+     * Returns the messages after {@code afterMessageId}, oldest first, when this chat's buffer is
+     * loaded and still reaches back that far; empty when the caller has to ask the database. In relay
+     * mode the buffer misses messages committed on other nodes, so it is never used for a replay.
+     */
+    public Optional<List<MessageDto>> after(Long chatId, long afterMessageId) {
+        if (isRelayMode()) {
+            return Optional.empty();
+        }
+        ChatBuffer buffer = buffers.get(chatId);
+        if (buffer == null || buffer.base == null) {
+            return Optional.empty();
+        }
+        buffer.touch();
+        return buffer.after(afterMessageId);
+    }
+
+    /** Appends a committed message to its chat's buffer; chats nobody has read yet are skipped. */
+    public void append(MessageDto message) {
+        ChatBuffer buffer = buffers.get(message.chatId());
+        if (buffer != null) {
+            buffer.append(message);
+        }
+    }
+
+    public void evict(Long chatId) {
+        buffers.remove(chatId);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.recent-messages.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - idleEvictionMs;
+        boolean relayMode = isRelayMode();
+        buffers.entrySet().removeIf(entry -> entry.getValue().lastAccess < cutoff
+            || relayMode && entry.getValue().loadedBefore(now - maxAgeMs));
+    }
+
+    boolean isRelayMode() {
+        return "relay".equalsIgnoreCase(brokerMode);
+    }
+
+    int size() {
+        return buffers.size();
+    }
+
+    public record RecentMessages(List<MessageDto> messages, long totalElements) {}
+
+    /*
+     * Live messages go into a fixed ring of slots claimed with an atomic counter, so writers never
+     * block each other or readers. The rows loaded from the database on first read sit in a
+     * separate immutable base list; the buffer is installed before that load runs, so every message
+     * committed afterwards lands in the ring and the union of both always holds the newest page.
+     */
+    private static final class ChatBuffer {
+        private final AtomicReferenceArray<MessageDto> slots;
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicLong appended = new AtomicLong();
+        private volatile List<MessageDto> base;
+        private volatile long baseTotal;
+        private volatile long loadedAt;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private ChatBuffer(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        boolean loadedBefore(long cutoff) {
+            return base != null && loadedAt < cutoff;
+        }
+
+        void append(MessageDto message) {
+            long sequence = next.getAndIncrement();
+            slots.set((int) (sequence % slots.length()), message);
+            appended.incrementAndGet();
+        }
+
+        void ensureLoaded(Function<Integer, Page<MessageDto>> loader) {
+            if (base != null) {
+                return;
+            }
+            synchronized (this) {
+                if (base != null) {
+                    return;
+                }
+                long appendedBeforeLoad = appended.get();
+                Page<MessageDto> page = loader.apply(slots.length());
+                // Messages appended before the query ran are already part of its total.
+                baseTotal = page.getTotalElements() - appendedBeforeLoad;
+                loadedAt = System.currentTimeMillis();
+                base = List.copyOf(page.getContent());
+            }
+        }
+
+        RecentMessages latest(int size) {
+            List<MessageDto> merged = snapshot(true);
+            long total = Math.max(baseTotal + appended.get(), merged.size());
+            return new RecentMessages(List.copyOf(merged.subList(0, Math.min(size, merged.size()))), total);
+        }
+
+        Optional<List<MessageDto>> after(long afterMessageId) {
+            // Once the ring has wrapped, the loaded rows no longer join up with the live ones.
+            boolean wrapped = next.get() > slots.length();
+            List<MessageDto> merged = snapshot(!wrapped);
+            boolean complete = (!wrapped && baseTotal + appended.get() <= merged.size())
+                || merged.stream().anyMatch(message -> message.messageId() <= afterMessageId);
+            if (!complete) {
+                return Optional.empty();
+            }
+            return Optional.of(merged.reversed().stream()
+                .filter(message -> message.messageId() > afterMessageId)
+                .toList());
+        }
+
+        private List<MessageDto> snapshot(boolean includeBase) {
+            Map<Long, MessageDto> byId = new HashMap<>();
+            if (includeBase) {
+                for (MessageDto message : base) {
+                    byId.put(message.messageId(), message);
+                }
+            }
+            for (int i = 0; i < slots.length(); i++) {
+                MessageDto message = slots.get(i);
+                if (message != null) {
+                    byId.putIfAbsent(message.messageId(), message);
+                }
+            }
+            List<MessageDto> merged = new ArrayList<>(byId.values());
+            merged.sort(NEWEST_FIRST);
+            return merged;
+        }
+    }
+}
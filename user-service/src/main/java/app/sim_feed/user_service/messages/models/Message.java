@@ -3,15 +3,16 @@ package app.sim_feed.user_service.messages.models;
 import app.sim_feed.user_service.chats.models.Chat;
 import app.sim_feed.user_service.persona.models.Persona;
 import app.sim_feed.user_service.users.models.User;
+import app.sim_feed.user_service.ids.SnowflakeId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,10 +25,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_message_chat_id_id", columnList = "chat_id, id"))
 public class Message {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @SnowflakeId
     private Long id;
     
     @Column(name = "body", nullable = false, length = 1000)
@@ -0,0 +1,10 @@
+package app.sim_feed.user_service.messages.models;
+
+import java.util.List;
+
+public record MessageCursorDto(List<MessageDto> messages, Long nextCursor) {
+    public static MessageCursorDto of(List<MessageDto> messages, int size) {
+        Long nextCursor = messages.size() == size ? messages.getLast().messageId() : null;
+        return new MessageCursorDto(messages, nextCursor);
+    }
+}
@@ -0,0 +1,30 @@
+package app.sim_feed.user_service.messages.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Opaque keyset cursor for ranked search: the (rank, id) of the last hit on the previous page. */
+public record MessageSearchCursor(float rank, long messageId) {
+    
+    public static MessageSearchCursor of(MessageSearchHit hit) {
+        return new MessageSearchCursor(hit.getRank(), hit.getId());
+    }
+    
+    public String encode() {
+        String raw = rank + ":" + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static MessageSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new MessageSearchCursor(Float.parseFloat(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package app.sim_feed.user_service.messages.models;
+
+import java.util.List;
+
+public record MessageSearchDto(List<MessageDto> messages, String nextCursor) {
+    
+}
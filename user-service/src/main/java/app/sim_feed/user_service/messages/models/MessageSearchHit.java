@@ -0,0 +1,8 @@
+package app.sim_feed.user_service.messages.models;
+
+/** Row of a full-text search: the matching message id and its ts_rank score. */
+public interface MessageSearchHit {
+    Long getId();
+    
+    Float getRank();
+}
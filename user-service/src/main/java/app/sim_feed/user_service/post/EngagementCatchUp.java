@@ -0,0 +1,163 @@
+package app.sim_feed.user_service.post;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Feeds {@link TrendingPostEngine} with every like and comment, whoever wrote it: users through
+ * this service or another instance, personas through the agent scheduler or the ingest endpoint.
+ * Counting only what the database holds keeps the scores of all instances alike, and the startup
+ * pass rebuilds the last {@code trending.posts.max-age-hours} after a restart.
+ * <p>
+ * Each pass reads rows by {@code (created_at, id)} from a lower bound that trails the database
+ * clock by 30 seconds, {@code batch-size} rows at a time, so a row whose transaction
+ * commits after later rows were read is still picked up; ids counted inside that window are
+ * remembered so the rescan does not count them twice. An unlike is retracted by the instance that
+ * served it once the like has been counted.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class EngagementCatchUp {
+
+    private static final String LIKES_SQL = """
+        SELECT l.id, l.created_at, p.id AS post_id, p.created_at AS post_created_at
+        FROM likes l
+        JOIN posts p ON p.id = l.post_id AND p.deleted_at IS NULL
+        WHERE (l.created_at, l.id) > (?, ?)
+        ORDER BY l.created_at, l.id
+        LIMIT ?
+    """;
+    private static final String COMMENTS_SQL = """
+        SELECT c.id, c.created_at, p.id AS post_id, p.created_at AS post_created_at
+        FROM comments c
+        JOIN posts p ON p.id = c.post_id AND p.deleted_at IS NULL
+        WHERE (c.created_at, c.id) > (?, ?)
+        ORDER BY c.created_at, c.id
+        LIMIT ?
+    """;
+    // Rows committed late can carry a created_at older than the last pass, so each pass looks back this far.
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrendingPostEngine trendingPostEngine;
+
+    private final Scan likes = new Scan(LIKES_SQL, TrendingPostEngine.LIKE_WEIGHT);
+    private final Scan comments = new Scan(COMMENTS_SQL, TrendingPostEngine.COMMENT_WEIGHT);
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${trending.posts.catch-up.enabled:true}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${trending.posts.catch-up.batch-size:5000}")
+    private int batchSize;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${trending.posts.catch-up.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${trending.posts.max-age-hours:48}")
+    private long maxAgeHours;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${trending.posts.catch-up.interval-ms:5000}")
+    public synchronized void catchUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Timestamp since = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+            likes.drain(since);
+            comments.drain(since);
+        } catch (DataAccessException e) {
+            log.warning("Trending catch-up failed, retrying next cycle: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Takes back a deleted like. A like still inside the rescan window that no pass has read yet
+     * was never counted, and its row is gone, so there is nothing to take back.
+     */
+    public void retractLike(long likeId, long postId, long createdAtMs) {
+        Timestamp from = likes.from;
+        if (likes.counted.remove(likeId) == null && from != null && createdAtMs >= from.getTime()) {
+            return;
+        }
+        trendingPostEngine.retract(postId, createdAtMs, TrendingPostEngine.LIKE_WEIGHT);
+    }
+
+    private static long millis(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).toInstant().toEpochMilli();
+    }
+
+    private final class Scan {
+
+        private final String sql;
+        private final double weight;
+        // ids read at or after from, with their created_at; older ones can no longer be read again
+        private final Map<Long, Long> counted = new ConcurrentHashMap<>();
+        private volatile Timestamp from;
+        private long fromId;
+
+        private Timestamp cursorAt;
+        private long cursorId;
+
+        private Scan(String sql, double weight) {
+            this.sql = sql;
+            this.weight = weight;
+        }
+
+        void drain(Timestamp since) {
+            long settled = since.getTime() - CATCH_UP_OVERLAP.toMillis();
+            cursorAt = from != null ? from : new Timestamp(since.getTime() - TimeUnit.HOURS.toMillis(maxAgeHours));
+            cursorId = fromId;
+            boolean complete = false;
+            for (int batch = 0; batch < maxBatchesPerRun && !complete; batch++) {
+                int[] rows = { 0 };
+                jdbcTemplate.query(sql, rs -> {
+                    long id = rs.getLong("id");
+                    long createdAtMs = millis(rs, "created_at");
+                    if (counted.putIfAbsent(id, createdAtMs) == null) {
+                        trendingPostEngine.record(rs.getLong("post_id"), millis(rs, "post_created_at"), createdAtMs, weight);
+                    }
+                    // Keeps the column's microseconds, so rows sharing a millisecond are not read forever.
+                    cursorAt = rs.getTimestamp("created_at");
+                    cursorId = id;
+                    rows[0]++;
+                }, cursorAt, cursorId, batchSize);
+                complete = rows[0] < batchSize;
+            }
+            // An unfinished backlog resumes after the last row read; otherwise the overlap is rescanned.
+            if (complete || cursorAt.getTime() >= settled) {
+                from = new Timestamp(settled);
+                fromId = 0;
+            } else {
+                from = cursorAt;
+                fromId = cursorId;
+            }
+            long oldest = from.getTime();
+            counted.values().removeIf(createdAtMs -> createdAtMs < oldest);
+        }
+    }
+}
@@ -9,17 +9,24 @@ import lombok.RequiredArgsConstructor;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
+import app.sim_feed.user_service.post.models.HydratedPostDto;
 import app.sim_feed.user_service.post.models.NewPostDto;
+import app.sim_feed.user_service.post.models.PostBatchDto;
 import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.post.models.PostSearchDto;
+import app.sim_feed.user_service.post.models.TrendingPostDto;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/api/v1/posts")
@@ -27,6 +34,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 public class PostController {
 
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final TrendingPostService trendingPostService;
+    private final PostHydrationService postHydrationService;
 
     @PostMapping()
     @RateLimiter(name = "api-limiter")
@@ -35,6 +45,24 @@ public class PostController {
         return ResponseEntity.created(new URI("/api/v1/posts/" + dto.id())).body(dto);
     }
     
+    @GetMapping("/search")
+    @RateLimiter(name = "api-limiter")
+    public PostSearchDto searchPosts(@RequestParam("q") String query, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+        return postSearchService.searchPosts(query, cursor, size);
+    }
+    
+    @PostMapping("/batch")
+    @RateLimiter(name = "api-limiter")
+    public List<HydratedPostDto> getPosts(@RequestBody @Valid PostBatchDto postBatchDto, @AuthenticationPrincipal String userId) {
+        return postHydrationService.hydrate(postBatchDto.postIds(), userId);
+    }
+    
+    @GetMapping("/trending")
+    @RateLimiter(name = "api-limiter")
+    public List<TrendingPostDto> getTrendingPosts(@RequestParam(defaultValue = "20") int limit) {
+        return trendingPostService.getTrendingPosts(limit);
+    }
+    
     @DeleteMapping("/{postId}")
     public ResponseEntity<Void> deletePost(@PathVariable Long postId, @AuthenticationPrincipal String userId) {
         postService.deletePost(postId, userId);
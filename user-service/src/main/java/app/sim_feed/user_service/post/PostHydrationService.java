@@ -0,0 +1,96 @@
+package app.sim_feed.user_service.post;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import app.sim_feed.user_service.comment.CommentRepository;
+import app.sim_feed.user_service.like.LikeRepository;
+import app.sim_feed.user_service.like.models.ViewerLike;
+import app.sim_feed.user_service.post.models.HydratedPostDto;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostCount;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.post.models.PostSummary;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class PostHydrationService {
+
+    public static final String CACHE_NAME = "post-summaries";
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the requested posts, in request order, with authors, like and comment counts and the
+     * viewer's like id. Summaries come from the {@code post-summaries} cache; misses are loaded
+     * together with one post query and one grouped count per table, and the viewer's likes with one
+     * more, so a call runs at most four statements however many ids it carries. Missing and deleted
+     * posts are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<HydratedPostDto> hydrate(List<Long> postIds, String viewerId) {
+        Set<Long> ids = new LinkedHashSet<>(postIds);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<Long, PostSummary> summaries = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            PostSummary cached = cache != null ? cache.get(id, PostSummary.class) : null;
+            if (cached == null) {
+                misses.add(id);
+            } else {
+                summaries.put(id, cached);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Long> likeCounts = totals(likeRepository.countByPostIds(misses));
+            Map<Long, Long> commentCounts = totals(commentRepository.countByPostIds(misses));
+            for (Post post : postRepository.findAllWithAuthorsByIdIn(misses)) {
+                PostSummary summary = new PostSummary(
+                    PostDto.of(post),
+                    likeCounts.getOrDefault(post.getId(), 0L),
+                    commentCounts.getOrDefault(post.getId(), 0L)
+                );
+                summaries.put(post.getId(), summary);
+                if (cache != null) {
+                    cache.put(post.getId(), summary);
+                }
+            }
+        }
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Long> viewerLikes = likeRepository.findViewerLikes(viewerId, summaries.keySet()).stream()
+            .collect(Collectors.toMap(ViewerLike::getPostId, ViewerLike::getLikeId));
+        return ids.stream()
+            .filter(summaries::containsKey)
+            .map(id -> HydratedPostDto.of(summaries.get(id), viewerLikes.get(id)))
+            .toList();
+    }
+
+    /** Drops a post's cached summary after its likes, comments or state change. */
+    public void evict(Long postId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(postId);
+        }
+    }
+
+    private static Map<Long, Long> totals(List<PostCount> counts) {
+        return counts.stream().collect(Collectors.toMap(PostCount::getPostId, PostCount::getTotal));
+    }
+}
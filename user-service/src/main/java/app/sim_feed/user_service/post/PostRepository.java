@@ -3,8 +3,17 @@ package app.sim_feed.user_service.post;
 import org.springframework.stereotype.Repository;
 
 import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostSearchHit;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +22,63 @@ public interface PostRepository extends JpaRepository<Post, Long>{
 	Optional<Post> findByIdAndUserAuthorClerkId(Long id, String clerkId);
 	
 	int countByUserAuthor_ClerkId(String userId);
+	
+	@Query("SELECT p FROM Post p LEFT JOIN FETCH p.personaAuthor LEFT JOIN FETCH p.userAuthor WHERE p.id IN :ids")
+	List<Post> findAllWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+	
+	@Modifying
+	@NativeQuery("UPDATE posts SET deleted_at = CURRENT_TIMESTAMP WHERE id = :postId AND deleted_at IS NULL")
+	int tombstone(@Param("postId") Long postId);
+	
+	@Modifying
+	@NativeQuery("UPDATE posts SET deleted_at = CURRENT_TIMESTAMP WHERE user_author = :userId AND deleted_at IS NULL")
+	int tombstoneAllByUserAuthor(@Param("userId") String userId);
+	
+	/*
+	 * A recency-window search: candidates are matches created between :since and :asOf, capped at the
+	 * newest :maxCandidates. idx_posts_search_tsv and idx_posts_created_at are combined in a bitmap
+	 * scan, so cost follows the number of posts in the window rather than the size of the table; older
+	 * posts are never returned. Score = 0.6 * normalised text rank (title weighted A, body B)
+	 * + 0.25 * recency (1 at :asOf, 0.5 a day earlier) + 0.15 * like popularity (saturating in ln(likes)).
+	 * Only likes made by :asOf are counted, so likes arriving while a client pages do not move a post
+	 * across the (score, id) keyset.
+	 */
+	@NativeQuery("""
+		WITH q AS (
+			SELECT websearch_to_tsquery('english', :query) AS query
+		),
+		candidates AS (
+			SELECT p.id, p.created_at, p.search_tsv
+			FROM posts p, q
+			WHERE p.search_tsv @@ q.query
+			AND p.deleted_at IS NULL
+			AND p.created_at <= CAST(:asOf AS TIMESTAMPTZ)
+			AND p.created_at > CAST(:since AS TIMESTAMPTZ)
+			ORDER BY p.id DESC
+			LIMIT :maxCandidates
+		),
+		scored AS (
+			SELECT c.id, CAST(
+				0.6 * ts_rank(c.search_tsv, q.query, 32)
+				+ 0.25 / (1 + EXTRACT(EPOCH FROM (CAST(:asOf AS TIMESTAMPTZ) - c.created_at)) / 86400.0)
+				+ 0.15 * (1 - 1 / (1 + LN(1 + (SELECT COUNT(*) FROM likes l WHERE l.post_id = c.id AND l.created_at <= CAST(:asOf AS TIMESTAMPTZ)))))
+			AS DOUBLE PRECISION) AS score
+			FROM candidates c, q
+		)
+		SELECT id, score FROM scored
+		WHERE CAST(:afterScore AS DOUBLE PRECISION) IS NULL
+		OR score < CAST(:afterScore AS DOUBLE PRECISION)
+		OR (score = CAST(:afterScore AS DOUBLE PRECISION) AND id < CAST(:afterId AS BIGINT))
+		ORDER BY score DESC, id DESC
+		LIMIT :limit
+	""")
+	List<PostSearchHit> searchPosts(
+		@Param("query") String query,
+		@Param("asOf") OffsetDateTime asOf,
+		@Param("since") OffsetDateTime since,
+		@Param("maxCandidates") int maxCandidates,
+		@Param("afterScore") Double afterScore,
+		@Param("afterId") Long afterId,
+		@Param("limit") int limit
+	);
 }
\ No newline at end of file
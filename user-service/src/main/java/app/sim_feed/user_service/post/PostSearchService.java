@@ -0,0 +1,110 @@
+package app.sim_feed.user_service.post;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.post.models.PostSearchCursor;
+import app.sim_feed.user_service.post.models.PostSearchDto;
+import app.sim_feed.user_service.post.models.PostSearchHit;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    public static final String CACHE_NAME = "post-search";
+
+    private final PostRepository postRepository;
+    private final CacheManager cacheManager;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${post.search.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${post.search.window-days:30}")
+    private int windowDays;
+
+    /**
+     * Ranked post search over the last {@code post.search.window-days} of posts, at most the newest
+     * {@code post.search.max-candidates} matches of them. Text relevance from the weighted
+     * {@code search_tsv} column is blended with recency and like count; pages are keyed on (score, id).
+     * Every page scores against the first page's time, counting only posts and likes made by then, so
+     * new likes cannot skip or repeat a post. An unlike or a deleted post in between can still shift
+     * a later page by one. Identical requests within the cache TTL
+     * are answered from the {@value #CACHE_NAME} cache, and concurrent misses for the same key are
+     * computed once.
+     */
+    @Transactional(readOnly = true)
+    public PostSearchDto searchPosts(String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query cannot be blank");
+        }
+        if (query.length() > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query cannot be longer than 200 characters");
+        }
+        if (size < 1 || size > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 50");
+        }
+        String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        PostSearchCursor after = cursor != null ? PostSearchCursor.decode(cursor) : null;
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return search(normalized, after, size);
+        }
+        return cache.get(normalized + "|" + cursor + "|" + size, () -> search(normalized, after, size));
+    }
+
+    public void evictAll() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private PostSearchDto search(String query, PostSearchCursor after, int size) {
+        Instant asOf = after != null ? after.asOf() : Instant.now();
+        List<PostSearchHit> hits = postRepository.searchPosts(
+            query,
+            OffsetDateTime.ofInstant(asOf, ZoneOffset.UTC),
+            OffsetDateTime.ofInstant(asOf.minus(Duration.ofDays(windowDays)), ZoneOffset.UTC),
+            maxCandidates,
+            after != null ? after.score() : null,
+            after != null ? after.postId() : null,
+            size
+        );
+        if (hits.isEmpty()) {
+            return new PostSearchDto(List.of(), null);
+        }
+        Map<Long, Post> postsById = postRepository.findAllById(hits.stream().map(PostSearchHit::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDto> posts = hits.stream()
+            .map(hit -> postsById.get(hit.getId()))
+            .filter(Objects::nonNull)
+            .map(PostDto::of)
+            .toList();
+        String nextCursor = hits.size() == size ? PostSearchCursor.of(asOf, hits.getLast()).encode() : null;
+        return new PostSearchDto(posts, nextCursor);
+    }
+}
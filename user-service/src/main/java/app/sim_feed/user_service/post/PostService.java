@@ -2,8 +2,12 @@ package app.sim_feed.user_service.post;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.feed.AuthorPostIndex;
+import app.sim_feed.user_service.feed.HomeFeedService;
+import app.sim_feed.user_service.feed.models.FeedAuthor;
 import app.sim_feed.user_service.post.models.NewPostDto;
 import app.sim_feed.user_service.post.models.Post;
 import app.sim_feed.user_service.post.models.PostDto;
@@ -19,7 +23,13 @@ public class PostService {
 
     private final PostRepository postRepository;
     private final UserService userService;
+    private final PostSearchService postSearchService;
+    private final AuthorPostIndex authorPostIndex;
+    private final HomeFeedService homeFeedService;
+    private final TrendingPostService trendingPostService;
+    private final PostHydrationService postHydrationService;
 
+    @Transactional
     public PostDto createPost(NewPostDto newPost, String userId) {
         if (newPost.title().isBlank())
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Title cannot be blank");
@@ -40,16 +50,27 @@ public class PostService {
             .build();
             
         post = postRepository.save(post);
+        authorPostIndex.evict(FeedAuthor.user(userId));
+        homeFeedService.publish(userId, post.getId());
         log.info("New post created by " + userId.substring(0,8) + "******");
         return PostDto.of(post);
     }
     
+    /**
+     * Tombstones the post so it disappears from reads right away; its comments and likes are removed
+     * later by {@link app.sim_feed.user_service.purge.TombstonePurger} in small batches.
+     */
+    @Transactional
     public void deletePost(Long postId, String userId) {
         Post post = postRepository.findByIdAndUserAuthorClerkId(postId, userId)
             .orElseThrow(() -> new ResponseStatusException(
                 HttpStatus.UNAUTHORIZED,
                 "User does not own this post or post not found"));
-        postRepository.delete(post);
+        postRepository.tombstone(post.getId());
+        postSearchService.evictAll();
+        trendingPostService.remove(post.getId());
+        postHydrationService.evict(post.getId());
+        authorPostIndex.evict(FeedAuthor.user(userId));
     }
     
     public int countPostsByUserId(String userId) {
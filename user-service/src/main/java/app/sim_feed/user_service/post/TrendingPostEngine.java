@@ -0,0 +1,196 @@
+package app.sim_feed.user_service.post;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * In-memory trending scores with exponential decay. Every engagement adds its weight scaled by
+ * {@code e^(λ·(t − t0))} instead of decaying every score on every tick, so an event costs one map
+ * update and all scores stay comparable; {@code t0} is moved forward now and then to keep the
+ * numbers finite. A scheduled refresh keeps the best {@code top-k} posts in an immutable snapshot
+ * built with a bounded heap, so reads copy at most k entries, and drops posts past
+ * {@code max-age-hours} or beyond {@code max-tracked}.
+ * <p>
+ * Scores are local to this instance and rebuilt from the database on restart by
+ * {@link EngagementCatchUp}.
+ */
+@Component
+@Setter(AccessLevel.PACKAGE)
+public class TrendingPostEngine {
+
+    public static final double LIKE_WEIGHT = 1.0;
+    public static final double COMMENT_WEIGHT = 2.0;
+
+    private static final Comparator<Ranked> LOWEST_FIRST = Comparator.comparingDouble(Ranked::scaledScore)
+        .thenComparing(Ranked::postId, Comparator.reverseOrder());
+
+    @Value("${trending.posts.half-life-minutes:360}")
+    private long halfLifeMinutes;
+
+    @Value("${trending.posts.top-k:100}")
+    private int topK;
+
+    @Value("${trending.posts.max-tracked:10000}")
+    private int maxTracked;
+
+    @Value("${trending.posts.max-age-hours:48}")
+    private long maxAgeHours;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+    private volatile long epochMs = System.currentTimeMillis();
+    private volatile List<Ranked> snapshot = List.of();
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Adds {@code weight} for an engagement at {@code occurredAtMs} on a post created at
+     * {@code postCreatedAtMs}; posts already past the maximum age are ignored.
+     */
+    public void record(long postId, long postCreatedAtMs, long occurredAtMs, double weight) {
+        if (postCreatedAtMs < clock.getAsLong() - TimeUnit.HOURS.toMillis(maxAgeHours)) {
+            return;
+        }
+        rebaseLock.readLock().lock();
+        try {
+            double scaled = weight * Math.exp(lambda() * (occurredAtMs - epochMs));
+            entries.computeIfAbsent(postId, id -> new Entry(postCreatedAtMs)).add(scaled);
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes back {@code weight} recorded for an engagement at {@code occurredAtMs}, so passing the
+     * original time cancels exactly what it added. Posts that are no longer tracked are left alone
+     * rather than tracked with a negative score.
+     */
+    public void retract(long postId, long occurredAtMs, double weight) {
+        rebaseLock.readLock().lock();
+        try {
+            Entry entry = entries.get(postId);
+            if (entry != null) {
+                entry.add(-weight * Math.exp(lambda() * (occurredAtMs - epochMs)));
+            }
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        entries.remove(postId);
+    }
+
+    /** The best {@code limit} posts of the last refresh, best first, with scores decayed to now. */
+    public List<TrendingScore> top(int limit) {
+        List<Ranked> current = snapshot;
+        double decay = Math.exp(-lambda() * (clock.getAsLong() - epochMs));
+        List<TrendingScore> top = new ArrayList<>(Math.min(limit, current.size()));
+        for (int i = 0; i < current.size() && top.size() < limit; i++) {
+            Ranked ranked = current.get(i);
+            if (entries.containsKey(ranked.postId())) {
+                top.add(new TrendingScore(ranked.postId(), ranked.scaledScore() * decay));
+            }
+        }
+        return top;
+    }
+
+    @Scheduled(fixedDelayString = "${trending.posts.refresh-ms:5000}")
+    public void refresh() {
+        long now = clock.getAsLong();
+        if (now - epochMs > TimeUnit.MINUTES.toMillis(halfLifeMinutes) * 32) {
+            rebase(now);
+        }
+        long oldest = now - TimeUnit.HOURS.toMillis(maxAgeHours);
+        entries.values().removeIf(entry -> entry.postCreatedAtMs < oldest);
+
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(LOWEST_FIRST);
+        entries.forEach((postId, entry) -> offer(heap, new Ranked(postId, entry.score()), topK));
+        List<Ranked> best = new ArrayList<>(heap);
+        best.sort(LOWEST_FIRST.reversed());
+        snapshot = List.copyOf(best);
+
+        if (entries.size() > maxTracked) {
+            PriorityQueue<Ranked> keep = new PriorityQueue<>(LOWEST_FIRST);
+            entries.forEach((postId, entry) -> offer(keep, new Ranked(postId, entry.score()), maxTracked));
+            double cutoff = keep.peek().scaledScore();
+            entries.entrySet().removeIf(entry -> entry.getValue().score() < cutoff);
+        }
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+        this.epochMs = clock.getAsLong();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static void offer(PriorityQueue<Ranked> heap, Ranked ranked, int capacity) {
+        heap.add(ranked);
+        if (heap.size() > capacity) {
+            heap.poll();
+        }
+    }
+
+    private void rebase(long now) {
+        rebaseLock.writeLock().lock();
+        try {
+            double factor = Math.exp(-lambda() * (now - epochMs));
+            entries.values().forEach(entry -> entry.scale(factor));
+            snapshot = snapshot.stream().map(ranked -> new Ranked(ranked.postId(), ranked.scaledScore() * factor)).toList();
+            epochMs = now;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+
+    private double lambda() {
+        return Math.log(2) / TimeUnit.MINUTES.toMillis(halfLifeMinutes);
+    }
+
+    public record TrendingScore(long postId, double score) {}
+
+    private record Ranked(long postId, double scaledScore) {}
+
+    private static final class Entry {
+        private final long postCreatedAtMs;
+        private double score;
+
+        private Entry(long postCreatedAtMs) {
+            this.postCreatedAtMs = postCreatedAtMs;
+        }
+
+        synchronized void add(double scaled) {
+            score += scaled;
+        }
+
+        synchronized void scale(double factor) {
+            score *= factor;
+        }
+
+        synchronized double score() {
+            return score;
+        }
+    }
+}
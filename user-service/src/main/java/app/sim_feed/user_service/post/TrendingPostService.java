@@ -0,0 +1,62 @@
+package app.sim_feed.user_service.post;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.like.models.Like;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.post.models.TrendingPostDto;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class TrendingPostService {
+
+    private final TrendingPostEngine trendingPostEngine;
+    private final EngagementCatchUp engagementCatchUp;
+    private final PostRepository postRepository;
+
+    /**
+     * Cancels what a deleted like added, at the like's original time. Likes themselves are counted
+     * from the database by {@link EngagementCatchUp}, so every instance sees the same ones.
+     */
+    public void recordUnlike(Like like) {
+        if (like.getCreatedAt() == null) {
+            return;
+        }
+        engagementCatchUp.retractLike(like.getId(), like.getPost().getId(), like.getCreatedAt().toInstant().toEpochMilli());
+    }
+
+    public void remove(Long postId) {
+        trendingPostEngine.remove(postId);
+    }
+
+    /** Posts ranked by time-decayed likes and comments; served from the engine's top-k snapshot. */
+    public List<TrendingPostDto> getTrendingPosts(int limit) {
+        if (limit < 1 || limit > trendingPostEngine.getTopK()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + trendingPostEngine.getTopK());
+        }
+        List<TrendingPostEngine.TrendingScore> top = trendingPostEngine.top(limit);
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Post> postsById = postRepository.findAllById(top.stream().map(TrendingPostEngine.TrendingScore::postId).toList())
+            .stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return top.stream()
+            .map(score -> {
+                Post post = postsById.get(score.postId());
+                return post == null ? null : new TrendingPostDto(PostDto.of(post), score.score());
+            })
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
@@ -0,0 +1,10 @@
+package app.sim_feed.user_service.post.models;
+
+import jakarta.annotation.Nullable;
+
+public record HydratedPostDto(PostDto post, long likeCount, long commentCount, @Nullable Long viewerLikeId) {
+    
+    public static HydratedPostDto of(PostSummary summary, @Nullable Long viewerLikeId) {
+        return new HydratedPostDto(summary.post(), summary.likeCount(), summary.commentCount(), viewerLikeId);
+    }
+}
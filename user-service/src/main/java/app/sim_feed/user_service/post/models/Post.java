@@ -13,6 +13,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Table(
@@ -22,6 +23,7 @@ import org.hibernate.annotations.CreationTimestamp;
         @Index(name = "idx_posts_user_author", columnList = "user_author"),
     }
 )
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -50,6 +52,9 @@ public class Post {
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    @Column(name = "deleted_at", nullable = true)
+    private OffsetDateTime deletedAt;
+
     @OneToMany(
         mappedBy = "post",
         cascade = CascadeType.ALL,
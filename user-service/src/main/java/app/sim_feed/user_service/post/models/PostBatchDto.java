@@ -0,0 +1,10 @@
+package app.sim_feed.user_service.post.models;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record PostBatchDto(@NotEmpty @Size(max = 100) List<Long> postIds) {
+    
+}
@@ -0,0 +1,7 @@
+package app.sim_feed.user_service.post.models;
+
+/** Per-post aggregate row from a grouped count query. */
+public interface PostCount {
+    Long getPostId();
+    Long getTotal();
+}
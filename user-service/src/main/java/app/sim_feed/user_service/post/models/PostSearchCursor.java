@@ -0,0 +1,36 @@
+package app.sim_feed.user_service.post.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque keyset cursor for post search. Besides the (score, id) of the last hit it pins the time the
+ * first page was computed, so recency and like counts are scored as of the same moment on every page.
+ */
+public record PostSearchCursor(Instant asOf, double score, long postId) {
+    
+    public static PostSearchCursor of(Instant asOf, PostSearchHit hit) {
+        return new PostSearchCursor(asOf, hit.getScore(), hit.getId());
+    }
+    
+    public String encode() {
+        String raw = asOf.toEpochMilli() + ":" + score + ":" + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static PostSearchCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three cursor parts");
+            }
+            return new PostSearchCursor(Instant.ofEpochMilli(Long.parseLong(parts[0])), Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package app.sim_feed.user_service.post.models;
+
+import java.util.List;
+
+public record PostSearchDto(List<PostDto> posts, String nextCursor) {
+    
+}
@@ -0,0 +1,8 @@
+package app.sim_feed.user_service.post.models;
+
+/** Row of a post search: the matching post id and its blended relevance score. */
+public interface PostSearchHit {
+    Long getId();
+    
+    Double getScore();
+}
@@ -0,0 +1,5 @@
+package app.sim_feed.user_service.post.models;
+
+/** The viewer-independent part of a hydrated post, cached per post id. */
+public record PostSummary(PostDto post, long likeCount, long commentCount) {
+}
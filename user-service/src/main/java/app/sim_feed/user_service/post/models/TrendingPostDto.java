@@ -0,0 +1,4 @@
+package app.sim_feed.user_service.post.models;
+
+public record TrendingPostDto(PostDto post, double score) {
+}
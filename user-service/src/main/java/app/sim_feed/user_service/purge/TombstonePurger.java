@@ -0,0 +1,213 @@
+package app.sim_feed.user_service.purge;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Background removal of tombstoned posts, chats and accounts. Deletes only set {@code deleted_at} on
+ * the root row; this purger later removes the children in batches of {@code purge.batch-size} rows,
+ * each batch in its own short transaction with a pause in between, and deletes the root row once
+ * nothing references it. A run stops after {@code purge.max-batches-per-run} batches and picks up
+ * where it left off on the next run, so a huge chat is drained over several runs instead of holding
+ * locks or the connection pool for minutes.
+ * <p>
+ * It runs on its own thread rather than the shared {@code @Scheduled} one so its pauses never delay
+ * presence or typing ticks.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class TombstonePurger {
+
+    private static final List<PurgeStep> POST_STEPS = List.of(
+        PurgeStep.eventDetails("agent_event_comment", "post_id = ?"),
+        PurgeStep.eventDetails("agent_event_like", "like_id IN (SELECT id FROM likes WHERE post_id = ?)"),
+        PurgeStep.eventDetails("agent_event_post", "post_id = ?"),
+        PurgeStep.children("comments", "post_id = ?"),
+        PurgeStep.children("likes", "post_id = ?"),
+        PurgeStep.children("post_tags", "post_id = ?"),
+        PurgeStep.root("posts")
+    );
+
+    private static final List<PurgeStep> CHAT_STEPS = List.of(
+        PurgeStep.children("message", "chat_id = ?"),
+        PurgeStep.children("chat_members", "chat_id = ?"),
+        PurgeStep.root("chats")
+    );
+
+    private static final List<PurgeStep> USER_STEPS = List.of(
+        PurgeStep.children("likes", "user_id = ?"),
+        PurgeStep.children("comments", "user_author_id = ?"),
+        PurgeStep.children("user_follows", "follower = ?"),
+        PurgeStep.children("user_follows", "user_followed = ?"),
+        PurgeStep.children("message", "user_id = ?"),
+        PurgeStep.children("chat_members", "user_id = ?"),
+        PurgeStep.root("users")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.enabled:true}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.interval-ms:10000}")
+    private long intervalMs;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.batch-size:500}")
+    private int batchSize;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.pause-ms:50}")
+    private long pauseMs;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${purge.roots-per-run:20}")
+    private int rootsPerRun;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("tombstone-purger").daemon().factory());
+        executor.scheduleWithFixedDelay(this::purge, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** One bounded pass over tombstoned posts, then chats, then accounts whose posts are already gone. */
+    public void purge() {
+        Budget budget = new Budget(maxBatchesPerRun);
+        try {
+            List<Long> posts = jdbcTemplate.queryForList(
+                "SELECT id FROM posts WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?", Long.class, rootsPerRun);
+            if (!purgeRoots("post", POST_STEPS, posts, budget)) {
+                return;
+            }
+            List<Long> chats = jdbcTemplate.queryForList(
+                "SELECT id FROM chats WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?", Long.class, rootsPerRun);
+            if (!purgeRoots("chat", CHAT_STEPS, chats, budget)) {
+                return;
+            }
+            // Accounts go last: their tombstoned posts must be purged before the user row can be deleted.
+            List<String> users = jdbcTemplate.queryForList("""
+                SELECT u.id FROM users u
+                WHERE u.deleted_at IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM posts p WHERE p.user_author = u.id)
+                ORDER BY u.deleted_at LIMIT ?
+            """, String.class, rootsPerRun);
+            purgeRoots("user", USER_STEPS, users, budget);
+        } catch (RuntimeException e) {
+            // Anything escaping here would cancel scheduleWithFixedDelay and stop purging for good.
+            log.warning("Tombstone purge pass failed, retrying next run: " + e.getMessage());
+        }
+    }
+
+    private boolean purgeRoots(String kind, List<PurgeStep> steps, List<?> rootIds, Budget budget) {
+        for (Object rootId : rootIds) {
+            try {
+                if (!purgeRoot(steps, rootId, budget)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                // Leave the tombstone in place; a later run retries once whatever blocked it is gone.
+                log.warning("Failed to purge " + kind + " " + rootId + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /** Returns false once the run's batch budget is spent or the thread is interrupted. */
+    private boolean purgeRoot(List<PurgeStep> steps, Object rootId, Budget budget) {
+        for (PurgeStep step : steps) {
+            if (!step.batched()) {
+                jdbcTemplate.update(step.sql(), rootId);
+                continue;
+            }
+            int deleted;
+            do {
+                if (!budget.take() || !pause()) {
+                    return false;
+                }
+                deleted = jdbcTemplate.update(step.sql(), rootId, batchSize);
+            } while (deleted >= batchSize);
+        }
+        return true;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    record PurgeStep(String sql, boolean batched) {
+
+        static PurgeStep children(String table, String condition) {
+            return new PurgeStep("DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table + " WHERE " + condition + " LIMIT ?)", true);
+        }
+
+        /**
+         * Agent event detail rows share their id with the parent agent_events row and its
+         * agent_activity projection, so all three go together.
+         */
+        static PurgeStep eventDetails(String table, String condition) {
+            return new PurgeStep(
+                "WITH purged AS (DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table + " WHERE " + condition + " LIMIT ?) RETURNING id), "
+                    + "activity AS (DELETE FROM agent_activity WHERE event_id IN (SELECT id FROM purged)) "
+                    + "DELETE FROM agent_events WHERE id IN (SELECT id FROM purged)",
+                true
+            );
+        }
+
+        static PurgeStep root(String table) {
+            return new PurgeStep("DELETE FROM " + table + " WHERE id = ?", false);
+        }
+    }
+
+    private static final class Budget {
+        private int remaining;
+
+        Budget(int batches) {
+            this.remaining = batches;
+        }
+
+        boolean take() {
+            return remaining-- > 0;
+        }
+    }
+}
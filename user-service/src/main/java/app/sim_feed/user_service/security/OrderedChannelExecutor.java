@@ -0,0 +1,148 @@
+package app.sim_feed.user_service.security;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.java.Log;
+
+/**
+ * Channel executor that hands every STOMP frame to a delegate (virtual threads in production)
+ * while keeping frames with the same ordering key strictly sequential. Both channels are keyed by
+ * session, the same guarantee Spring gives with {@code setPreservePublishOrder}: a session's
+ * SUBSCRIBE, SEND, UNSUBSCRIBE and DISCONNECT frames are handled in the order it sent them, while
+ * different sessions run in parallel.
+ */
+@Log
+public class OrderedChannelExecutor implements TaskExecutor {
+
+    private final Executor delegate;
+    private final Function<Message<?>, String> keyResolver;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+
+    public OrderedChannelExecutor(String channel, Executor delegate, Function<Message<?>, String> keyResolver, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.keyResolver = keyResolver;
+        Gauge.builder("websocket.channel.queue.depth", queueDepth, AtomicInteger::get)
+            .description("STOMP frames queued or running on the channel executor")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("websocket.channel.task.wait")
+            .description("Time a STOMP frame waited before its handler started")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("websocket.channel.task.execution")
+            .description("Time spent running the handler for a STOMP frame")
+            .tag("channel", channel)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Orders frames per session: inbound by the sending session, so control frames without a
+     * destination cannot overtake that session's earlier frames, and outbound by the receiving
+     * session, which keeps each subscriber's view of a chat in publish order.
+     */
+    public static String sessionKey(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? "session:" + sessionId : null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        String key = command instanceof MessageHandlingRunnable task ? keyResolver.apply(task.getMessage()) : null;
+        TimedTask timedTask = new TimedTask(command, System.nanoTime());
+        queueDepth.incrementAndGet();
+        if (key == null) {
+            delegate.execute(timedTask);
+            return;
+        }
+        Lane[] created = new Lane[1];
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane(k);
+                created[0] = lane;
+            }
+            lane.tasks.add(timedTask);
+            return lane;
+        });
+        if (created[0] != null) {
+            delegate.execute(created[0]);
+        }
+    }
+
+    int activeLanes() {
+        return lanes.size();
+    }
+
+    // A lane stays in the map exactly while it is scheduled, so at most one thread drains a key at a time.
+    private final class Lane implements Runnable {
+        private final String key;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private Lane(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    boolean[] drained = new boolean[1];
+                    lanes.compute(key, (k, current) -> {
+                        if (tasks.isEmpty()) {
+                            drained[0] = true;
+                            return null;
+                        }
+                        return current;
+                    });
+                    if (drained[0]) {
+                        return;
+                    }
+                    continue;
+                }
+                task.run();
+            }
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long queuedAt;
+
+        private TimedTask(Runnable task, long queuedAt) {
+            this.task = task;
+            this.queuedAt = queuedAt;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warning("STOMP channel task failed: " + e.getMessage());
+            } finally {
+                executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                queueDepth.decrementAndGet();
+            }
+        }
+    }
+}
@@ -35,6 +35,8 @@ public class SecurityConfiguration {
                 "/api/v1/follows/users/**",
                 "/api/v1/users/*/stats"
             ).permitAll()
+            // Authenticated by IngestController with the shared ingest token rather than Clerk.
+            .requestMatchers("/api/v1/ingest/**").permitAll()
             .requestMatchers(
                 "/swagger-ui.html",
                 "/swagger-ui/**",
@@ -0,0 +1,38 @@
+package app.sim_feed.user_service.security;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Time is passed in so callers (and tests) share one clock reading.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** Takes one token and returns 0, or returns how many nanoseconds until one is available. */
+    synchronized long tryConsume(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /** Returns a token taken by {@link #tryConsume} when the frame was rejected by another bucket. */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
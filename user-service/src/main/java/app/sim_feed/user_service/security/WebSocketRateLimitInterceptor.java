@@ -0,0 +1,102 @@
+package app.sim_feed.user_service.security;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * Applies a token bucket per STOMP session and another per user (shared by all of that user's
+ * sessions) to SEND and SUBSCRIBE frames. A frame over budget is rejected straight away, without
+ * holding the inbound thread, by raising a {@link MessageDeliveryException}. As with an
+ * authentication failure, the client gets an ERROR frame saying why and when to retry, and the
+ * connection is closed as STOMP requires; the client can reconnect and resume the chat with
+ * {@code last-message-id}. A frame only counts against the session bucket if the user bucket
+ * accepts it too.
+ */
+@Component
+public class WebSocketRateLimitInterceptor implements ChannelInterceptor {
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.rate-limit.session.capacity:20}")
+    private double sessionCapacity;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.rate-limit.session.refill-per-second:10}")
+    private double sessionRefillPerSecond;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.rate-limit.user.capacity:40}")
+    private double userCapacity;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${chat.rate-limit.user.refill-per-second:20}")
+    private double userRefillPerSecond;
+
+    private final Map<String, TokenBucket> sessionBuckets = new ConcurrentHashMap<>();
+    private final Cache<String, TokenBucket> userBuckets = Caffeine.newBuilder()
+        .expireAfterAccess(10, TimeUnit.MINUTES)
+        .build();
+    private final Counter rejectedFrames;
+
+    public WebSocketRateLimitInterceptor(MeterRegistry meterRegistry) {
+        this.rejectedFrames = Counter.builder("websocket.rate_limit.frames").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return message;
+        }
+        if (messageType == SimpMessageType.DISCONNECT) {
+            sessionBuckets.remove(sessionId);
+            return message;
+        }
+        if (messageType != SimpMessageType.MESSAGE && messageType != SimpMessageType.SUBSCRIBE) {
+            return message;
+        }
+
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        long waitNanos = acquire(sessionId, user);
+        if (waitNanos != 0) {
+            rejectedFrames.increment();
+            long retryAfterMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            throw new MessageDeliveryException(message, "Rate limit exceeded, retry in " + retryAfterMs + "ms");
+        }
+        return message;
+    }
+
+    private long acquire(String sessionId, Principal user) {
+        long now = System.nanoTime();
+        TokenBucket sessionBucket = sessionBuckets.computeIfAbsent(sessionId, id -> new TokenBucket(sessionCapacity, sessionRefillPerSecond, now));
+        long waitNanos = sessionBucket.tryConsume(now);
+        if (waitNanos != 0 || user == null) {
+            return waitNanos;
+        }
+        TokenBucket userBucket = userBuckets.get(user.getName(), name -> new TokenBucket(userCapacity, userRefillPerSecond, now));
+        waitNanos = userBucket.tryConsume(now);
+        if (waitNanos != 0) {
+            sessionBucket.refund();
+        }
+        return waitNanos;
+    }
+}
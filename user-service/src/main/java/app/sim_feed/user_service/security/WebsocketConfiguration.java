@@ -1,12 +1,22 @@
 package app.sim_feed.user_service.security;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import app.sim_feed.user_service.chats.ChatResumeInterceptor;
+import app.sim_feed.user_service.chats.PresenceRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -15,10 +25,67 @@ import lombok.RequiredArgsConstructor;
 public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final WebSocketRateLimitInterceptor webSocketRateLimitInterceptor;
+    private final ChatResumeInterceptor chatResumeInterceptor;
+    private final PresenceRegistry presenceRegistry;
+    private final MeterRegistry meterRegistry;
+    private ExecutorService virtualThreadExecutor;
+    private final ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${chat.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${chat.broker.relay.heartbeat-ms:10000}")
+    private long relayHeartbeatMs;
+
+    @Value("${chat.broker.heartbeat-ms:10000}")
+    private long clientHeartbeatMs;
+
+    @Value("${chat.outbound.send-buffer-limit-bytes:524288}")
+    private int sendBufferLimitBytes;
+
+    @Value("${chat.outbound.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${chat.inbound.message-size-limit-bytes:65536}")
+    private int messageSizeLimitBytes;
+
+    @Value("${chat.channels.virtual-threads:true}")
+    private boolean virtualThreadChannels;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                .setSystemHeartbeatSendInterval(relayHeartbeatMs)
+                .setSystemHeartbeatReceiveInterval(relayHeartbeatMs);
+        } else {
+            // Client heartbeats keep chat presence alive, so the simple broker has to negotiate them too.
+            heartbeatScheduler.setPoolSize(1);
+            heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+            heartbeatScheduler.initialize();
+            config.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] { clientHeartbeatMs, clientHeartbeatMs })
+                .setTaskScheduler(heartbeatScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -27,8 +94,42 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
     }
 
+    // A session whose unsent frames exceed the buffer or time limit is a slow consumer and gets closed.
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferLimitBytes)
+            .setSendTimeLimit(sendTimeLimitMs)
+            .setMessageSizeLimit(messageSizeLimitBytes);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        registration.interceptors(webSocketAuthInterceptor, webSocketRateLimitInterceptor, presenceRegistry, chatResumeInterceptor);
+        if (virtualThreadChannels) {
+            registration.executor(new OrderedChannelExecutor("inbound", channelExecutor(), OrderedChannelExecutor::sessionKey, meterRegistry));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreadChannels) {
+            registration.executor(new OrderedChannelExecutor("outbound", channelExecutor(), OrderedChannelExecutor::sessionKey, meterRegistry));
+        }
+    }
+
+    // Only created when virtual-thread channels are enabled; otherwise Spring's default pools are used.
+    private synchronized ExecutorService channelExecutor() {
+        if (virtualThreadExecutor == null) {
+            virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return virtualThreadExecutor;
+    }
+
+    @PreDestroy
+    void shutdownChannelExecutor() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+        heartbeatScheduler.shutdown();
     }
 }
@@ -0,0 +1,23 @@
+package app.sim_feed.user_service.tags;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import app.sim_feed.user_service.tags.models.PostTag;
+import app.sim_feed.user_service.tags.models.TagKind;
+
+public interface PostTagRepository extends JpaRepository<PostTag, Long> {
+    
+    // Range scan over idx_post_tags_kind_tag_post, newest post first.
+    @Query("""
+        SELECT t.postId FROM PostTag t
+        WHERE t.kind = :kind AND t.tag = :tag
+        AND (:beforePostId IS NULL OR t.postId < :beforePostId)
+        ORDER BY t.postId DESC
+    """)
+    List<Long> findPostIds(@Param("kind") TagKind kind, @Param("tag") String tag, @Param("beforePostId") Long beforePostId, Pageable pageable);
+}
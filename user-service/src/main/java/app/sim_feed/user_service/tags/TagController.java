@@ -0,0 +1,41 @@
+package app.sim_feed.user_service.tags;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.sim_feed.user_service.tags.models.TagKind;
+import app.sim_feed.user_service.tags.models.TagPostsDto;
+import app.sim_feed.user_service.tags.models.TrendingTagDto;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/tags")
+@RequiredArgsConstructor
+public class TagController {
+
+    private final TagService tagService;
+
+    @GetMapping("/trending")
+    @RateLimiter(name = "api-limiter")
+    public List<TrendingTagDto> getTrendingTags(@RequestParam(defaultValue = "10") int limit) {
+        return tagService.getTrendingTags(limit);
+    }
+
+    @GetMapping("/{tag}/posts")
+    @RateLimiter(name = "api-limiter")
+    public TagPostsDto getPostsByHashtag(@PathVariable String tag, @RequestParam(required = false) Long cursor, @RequestParam(defaultValue = "20") int size) {
+        return tagService.getPostsByTag(TagKind.HASHTAG, tag, cursor, size);
+    }
+
+    @GetMapping("/mentions/{username}/posts")
+    @RateLimiter(name = "api-limiter")
+    public TagPostsDto getPostsByMention(@PathVariable String username, @RequestParam(required = false) Long cursor, @RequestParam(defaultValue = "20") int size) {
+        return tagService.getPostsByTag(TagKind.MENTION, username, cursor, size);
+    }
+}
@@ -0,0 +1,72 @@
+package app.sim_feed.user_service.tags;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.tags.models.TagKind;
+import app.sim_feed.user_service.tags.models.TagPostsDto;
+import app.sim_feed.user_service.tags.models.TrendingTagDto;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class TagService {
+
+    private static final int MAX_TAG_LENGTH = 50;
+
+    private final PostTagRepository postTagRepository;
+    private final PostRepository postRepository;
+    private final TrendingTagCounter trendingTagCounter;
+
+    public List<TrendingTagDto> getTrendingTags(int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        return trendingTagCounter.top(limit);
+    }
+
+    /** Newest-first posts carrying the tag; {@code beforePostId} is the previous page's {@code nextCursor}. */
+    @Transactional(readOnly = true)
+    public TagPostsDto getPostsByTag(TagKind kind, String tag, Long beforePostId, int size) {
+        if (tag == null || tag.isBlank() || tag.length() > MAX_TAG_LENGTH + 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tag");
+        }
+        if (size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
+        }
+        String normalized = normalize(tag);
+        List<Long> postIds = postTagRepository.findPostIds(kind, normalized, beforePostId, PageRequest.of(0, size));
+        if (postIds.isEmpty()) {
+            return new TagPostsDto(normalized, List.of(), null);
+        }
+        // Tombstoned posts are filtered out here, so a page can come back short while the cursor still advances.
+        Map<Long, Post> postsById = postRepository.findAllById(postIds).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDto> posts = postIds.stream()
+            .map(postsById::get)
+            .filter(Objects::nonNull)
+            .map(PostDto::of)
+            .toList();
+        Long nextCursor = postIds.size() == size ? postIds.getLast() : null;
+        return new TagPostsDto(normalized, posts, nextCursor);
+    }
+
+    /** Matches how {@code index_post_tags} in {@code sql/init.sql} stores tags: no leading {@code #} or {@code @}, lower case. */
+    private static String normalize(String tag) {
+        String trimmed = tag.startsWith("#") || tag.startsWith("@") ? tag.substring(1) : tag;
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,125 @@
+package app.sim_feed.user_service.tags;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.sim_feed.user_service.tags.models.TrendingTagDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * Sliding-window hashtag counts held in memory as one bucket of counters per minute. A trend read
+ * sums the buckets inside the window and keeps the top entries in a bounded heap, so it touches only
+ * tags seen in the last {@code window-minutes} and never the database.
+ * <p>
+ * Buckets are filled from {@code post_tags}, which a trigger on {@code posts} writes for every post
+ * whichever service inserted it, so every node counts the same posts and reports the same trends.
+ * Startup loads the whole window; every {@code refresh-ms} the minutes touched since the previous
+ * refresh are recounted and replaced, looking back far enough to catch rows that committed late.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class TrendingTagCounter {
+
+    private static final String COUNTS_SQL = """
+        SELECT tag, CAST(FLOOR(EXTRACT(EPOCH FROM created_at) / 60) AS BIGINT) AS bucket_minute, COUNT(*) AS tag_count
+        FROM post_tags
+        WHERE kind = 'HASHTAG' AND created_at >= ?
+        GROUP BY tag, bucket_minute
+    """;
+    // Rows committed late can carry a created_at older than the last refresh, so each refresh looks back this far.
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Map<String, Long>> buckets = new ConcurrentHashMap<>();
+    private volatile Timestamp watermark;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${tags.trending.enabled:true}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${tags.trending.window-minutes:60}")
+    private int windowMinutes;
+
+    @Setter(AccessLevel.PACKAGE)
+    private LongSupplier clock = System::currentTimeMillis;
+
+    public List<TrendingTagDto> top(int limit) {
+        long oldest = currentMinute() - windowMinutes + 1;
+        Map<String, Long> totals = new HashMap<>();
+        buckets.forEach((minute, counts) -> {
+            if (minute >= oldest) {
+                counts.forEach((tag, count) -> totals.merge(tag, count, Long::sum));
+            }
+        });
+        Comparator<TrendingTagDto> order = Comparator.comparingLong(TrendingTagDto::count)
+            .thenComparing(TrendingTagDto::tag, Comparator.reverseOrder());
+        PriorityQueue<TrendingTagDto> heap = new PriorityQueue<>(limit + 1, order);
+        totals.forEach((tag, count) -> {
+            heap.add(new TrendingTagDto(tag, count));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<TrendingTagDto> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tags.trending.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long oldest = currentMinute() - windowMinutes + 1;
+        Timestamp previous = watermark;
+        long from = previous == null
+            ? oldest
+            : Math.max(oldest, TimeUnit.MILLISECONDS.toMinutes(previous.getTime() - CATCH_UP_OVERLAP.toMillis()));
+        try {
+            Timestamp since = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+            Map<Long, Map<String, Long>> recounted = new HashMap<>();
+            jdbcTemplate.query(COUNTS_SQL, rs -> {
+                recounted.computeIfAbsent(rs.getLong("bucket_minute"), minute -> new HashMap<>())
+                    .put(rs.getString("tag"), rs.getLong("tag_count"));
+            }, toTimestamp(from));
+            buckets.keySet().removeIf(minute -> minute < oldest || (minute >= from && !recounted.containsKey(minute)));
+            buckets.putAll(recounted);
+            watermark = since;
+        } catch (DataAccessException e) {
+            log.warning("Could not refresh trending tag counters, retrying next cycle: " + e.getMessage());
+        }
+    }
+
+    private long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(clock.getAsLong());
+    }
+
+    private static Timestamp toTimestamp(long minute) {
+        return Timestamp.from(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(minute)));
+    }
+}
@@ -0,0 +1,49 @@
+package app.sim_feed.user_service.tags.models;
+
+import java.time.OffsetDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inverted index row: one hashtag or mention found in one post, written by the {@code index_post_tags}
+ * trigger. Its indexes are defined with the trigger in {@code sql/init.sql}.
+ */
+@Entity
+@Table(name = "post_tags")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TagKind kind;
+
+    @Column(nullable = false, length = 100)
+    private String tag;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
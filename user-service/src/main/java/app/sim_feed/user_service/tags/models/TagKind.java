@@ -0,0 +1,6 @@
+package app.sim_feed.user_service.tags.models;
+
+public enum TagKind {
+    HASHTAG,
+    MENTION
+}
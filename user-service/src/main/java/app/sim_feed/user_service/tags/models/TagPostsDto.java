@@ -0,0 +1,9 @@
+package app.sim_feed.user_service.tags.models;
+
+import java.util.List;
+
+import app.sim_feed.user_service.post.models.PostDto;
+
+public record TagPostsDto(String tag, List<PostDto> posts, Long nextCursor) {
+    
+}
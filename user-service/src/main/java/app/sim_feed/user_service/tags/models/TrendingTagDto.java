@@ -0,0 +1,5 @@
+package app.sim_feed.user_service.tags.models;
+
+public record TrendingTagDto(String tag, long count) {
+    
+}
@@ -1,9 +1,12 @@
 package app.sim_feed.user_service.users;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -11,7 +14,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import app.sim_feed.user_service.users.models.UpdateBioDto;
+import app.sim_feed.user_service.users.models.UserBatchDto;
 import app.sim_feed.user_service.users.models.UserDto;
+import app.sim_feed.user_service.users.models.UserSearchDto;
+import app.sim_feed.user_service.users.models.UsernameSuggestionDto;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 
 import app.sim_feed.user_service.users.models.UserStatsDto;
@@ -29,8 +35,28 @@ public class UserController {
     
     @GetMapping("/search")
     @RateLimiter(name = "api-limiter")
-    public List<UserDto> searchUsersByUsername(@RequestParam String username) {
-        return userService.searchUsersByUsername(username);
+    public UserSearchDto searchUsersByUsername(
+        @RequestParam String username,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return userService.searchUsersByUsername(username, cursor, size);
+    }
+
+    @GetMapping("/autocomplete")
+    @RateLimiter(name = "api-limiter")
+    public List<UsernameSuggestionDto> suggestUsernames(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "10") int limit,
+        @RequestParam(defaultValue = "false") boolean usersOnly
+    ) {
+        return userService.suggestUsernames(prefix, limit, usersOnly);
+    }
+
+    @PostMapping("/batch")
+    @RateLimiter(name = "api-limiter")
+    public List<UserDto> getUsers(@RequestBody @Valid UserBatchDto userBatchDto) {
+        return userService.getUsersByIds(userBatchDto.userIds());
     }
 
     @PutMapping("/{id}")
@@ -45,6 +71,13 @@ public class UserController {
         return userService.getUserStatsByUserId(id);
     }
     
+    @DeleteMapping("/{id}")
+    @RateLimiter(name = "api-limiter")
+    public ResponseEntity<Void> deleteUser(@PathVariable String id, @AuthenticationPrincipal String authenticatedUser) {
+        userService.deleteUser(id, authenticatedUser);
+        return ResponseEntity.noContent().build();
+    }
+    
     @PatchMapping("/{id}/bio")
     @RateLimiter(name = "api-limiter")
     public UserDto updateUser(@PathVariable String id, @AuthenticationPrincipal String authenticatedUser, @RequestBody @Valid UpdateBioDto updateBioDto) {
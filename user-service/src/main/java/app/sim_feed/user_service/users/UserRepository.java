@@ -1,20 +1,52 @@
 package app.sim_feed.user_service.users;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import app.sim_feed.user_service.users.models.User;
+import app.sim_feed.user_service.users.models.UserSearchHit;
 
 import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     
-    @NativeQuery("SELECT * FROM users WHERE username ILIKE '%' || :query || '%' ORDER BY similarity(username, :query) DESC")
-    List<User> searchByUsername(@Param("query") String query);
+    /*
+     * Both predicates are served by idx_users_username_trgm: % keeps names whose trigram similarity
+     * reaches pg_trgm.similarity_threshold, and the escaped prefix pattern keeps typeahead matches on
+     * long names that are not similar enough overall. Keyset on (score DESC, id).
+     */
+    @NativeQuery("""
+        SELECT id, score FROM (
+            SELECT id, CAST(similarity(username, :query) AS DOUBLE PRECISION) AS score
+            FROM users
+            WHERE deleted_at IS NULL
+            AND (username % :query OR username ILIKE :prefixPattern)
+        ) hits
+        WHERE CAST(:afterScore AS DOUBLE PRECISION) IS NULL
+        OR score < CAST(:afterScore AS DOUBLE PRECISION)
+        OR (score = CAST(:afterScore AS DOUBLE PRECISION) AND id > CAST(:afterId AS VARCHAR))
+        ORDER BY score DESC, id
+        LIMIT :limit
+    """)
+    List<UserSearchHit> searchByUsername(
+        @Param("query") String query,
+        @Param("prefixPattern") String prefixPattern,
+        @Param("afterScore") Double afterScore,
+        @Param("afterId") String afterId,
+        @Param("limit") int limit
+    );
+    
+    @NativeQuery("SELECT set_config('pg_trgm.similarity_threshold', CAST(:threshold AS VARCHAR), true)")
+    String setSimilarityThreshold(@Param("threshold") double threshold);
     
     UserDetails findByUsername(String username);
+    
+    @Modifying
+    @NativeQuery("UPDATE users SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP WHERE id = :userId AND deleted_at IS NULL")
+    int tombstone(@Param("userId") String userId);
 }
\ No newline at end of file
@@ -1,36 +1,99 @@
 package app.sim_feed.user_service.users;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.chats.ChatRepository;
 import app.sim_feed.user_service.follow.FollowRepository;
 import app.sim_feed.user_service.post.PostRepository;
 import app.sim_feed.user_service.users.models.User;
 import app.sim_feed.user_service.users.models.UserDto;
+import app.sim_feed.user_service.users.models.UserSearchCursor;
+import app.sim_feed.user_service.users.models.UserSearchDto;
+import app.sim_feed.user_service.users.models.UserSearchHit;
+import app.sim_feed.user_service.users.models.UsernameSuggestionDto;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.java.Log;
 import app.sim_feed.user_service.users.models.UserStatsDto;
 import app.sim_feed.user_service.users.models.UpdateBioDto;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Log
 public class UserService implements UserDetailsService {
 
+    public static final String USERS_CACHE = "users";
+    public static final String SEARCH_CACHE = "user-search";
+
     private final UserRepository userRepository;
     private final FollowRepository followRepository;
     private final PostRepository postRepository;
+    private final ChatRepository chatRepository;
+    private final CacheManager cacheManager;
+    private final UsernameIndex usernameIndex;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${users.search.similarity-threshold:0.3}")
+    private double similarityThreshold;
 
     public User getUserById(String id) {
         return userRepository.findById(id).orElseThrow();
     }
+    
+    /**
+     * Looks up profiles for many ids at once, in request order. Hits come from the {@code users}
+     * cache and all misses are resolved with a single {@code IN} query and cached by id; unknown and
+     * deleted users are left out.
+     */
+    public List<UserDto> getUsersByIds(Collection<String> userIds) {
+        Set<String> ids = new LinkedHashSet<>(userIds);
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        Map<String, UserDto> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            UserDto cached = cache != null ? cache.get(id, UserDto.class) : null;
+            if (cached == null) {
+                misses.add(id);
+            } else {
+                found.put(id, cached);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (User user : userRepository.findAllById(misses)) {
+                UserDto dto = UserDto.of(user);
+                found.put(dto.id(), dto);
+                if (cache != null) {
+                    cache.put(dto.id(), dto);
+                }
+            }
+        }
+        return ids.stream()
+            .filter(found::containsKey)
+            .map(found::get)
+            .toList();
+    }
 
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto updateUser(String userId, String requesterId, UserDto userDto) {
         if (!userId.equals(requesterId)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Cannot update a user's information that is not owned by the requester");
@@ -47,7 +110,9 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setUsername(userDto.username());
         user.setBio(userDto.bio());
-        return UserDto.of(userRepository.save(user));
+        User saved = userRepository.save(user);
+        usernameIndex.putUser(saved.getClerkId(), saved.getUsername());
+        return UserDto.of(saved);
     }
 
     @Cacheable(cacheNames = "user-stats", key = "#userId")
@@ -61,6 +126,7 @@ public class UserService implements UserDetailsService {
         return new UserStatsDto(followersCount, followingCount, postsCount);
     }
 
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto updateUserBio(String userId, String requesterId, UpdateBioDto updateBioDto) {
         log.info("Updating bio for user " + userId);
         if (!userId.equals(requesterId)) {
@@ -77,19 +143,85 @@ public class UserService implements UserDetailsService {
         return UserDto.of(userRepository.save(user));
     }
     
-    public List<UserDto> searchUsersByUsername(String query) {
-        if (query == null || query.isBlank() || query.length() < 3) {
-            return List.of();
+    /**
+     * Tombstones the account together with its posts and the chats it created, which hides them from
+     * every read immediately. Everything the account owns is then removed by the tombstone purger.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {"user-stats", USERS_CACHE}, key = "#userId")
+    public void deleteUser(String userId, String requesterId) {
+        if (!userId.equals(requesterId)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Cannot delete a user that is not owned by the requester");
+        }
+        if (userRepository.tombstone(userId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        usernameIndex.removeUser(userId);
+        int posts = postRepository.tombstoneAllByUserAuthor(userId);
+        int chats = chatRepository.tombstoneAllByCreatorId(userId);
+        log.info("Tombstoned user " + userId.substring(0, Math.min(8, userId.length())) + "****** with " + posts + " posts and " + chats + " chats");
+    }
+    
+    /**
+     * Username search on the trigram index: names at least {@code users.search.similarity-threshold}
+     * similar to the query, or starting with it, ranked by similarity and paged on (score, id).
+     * Pages of matching ids are kept briefly in the {@value #SEARCH_CACHE} cache so repeated
+     * typeahead prefixes skip the index scan; profiles are resolved through {@link #getUsersByIds}.
+     */
+    @Transactional(readOnly = true)
+    public UserSearchDto searchUsersByUsername(String query, String cursor, int size) {
+        if (query == null || query.isBlank() || query.trim().length() < 3) {
+            return new UserSearchDto(List.of(), null);
         }
-        
         if (query.length() > 50) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username length is 50 characters max");
         }
-        return userRepository.searchByUsername(query.trim()).stream()
-            .map(UserDto::of)
-            .toList();
+        if (size < 1 || size > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 50");
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        UserSearchCursor after = cursor != null ? UserSearchCursor.decode(cursor) : null;
+        Cache cache = cacheManager.getCache(SEARCH_CACHE);
+        SearchPage page = cache == null
+            ? search(normalized, after, size)
+            : cache.get(normalized + "|" + cursor + "|" + size, () -> search(normalized, after, size));
+        return new UserSearchDto(getUsersByIds(page.userIds()), page.nextCursor());
+    }
+    
+    private SearchPage search(String query, UserSearchCursor after, int size) {
+        // Scoped to the surrounding transaction, so the pooled connection keeps its default afterwards.
+        userRepository.setSimilarityThreshold(similarityThreshold);
+        List<UserSearchHit> hits = userRepository.searchByUsername(
+            query,
+            escapeLike(query) + "%",
+            after != null ? after.score() : null,
+            after != null ? after.userId() : null,
+            size
+        );
+        String nextCursor = hits.size() == size ? UserSearchCursor.of(hits.getLast()).encode() : null;
+        return new SearchPage(hits.stream().map(UserSearchHit::getId).toList(), nextCursor);
+    }
+    
+    /** Typeahead over user and persona usernames, answered from {@link UsernameIndex} without database I/O. */
+    public List<UsernameSuggestionDto> suggestUsernames(String prefix, int limit, boolean usersOnly) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (prefix.length() > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username length is 50 characters max");
+        }
+        if (limit < 1 || limit > usernameIndex.getMaxResults()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + usernameIndex.getMaxResults());
+        }
+        return usernameIndex.suggest(prefix, limit, usersOnly);
     }
     
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    record SearchPage(List<String> userIds, String nextCursor) {}
+    
     @Override
     public UserDetails loadUserByUsername(String username) {
         return userRepository.findByUsername(username);
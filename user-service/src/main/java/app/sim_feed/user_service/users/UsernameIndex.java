@@ -0,0 +1,324 @@
+package app.sim_feed.user_service.users;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.sim_feed.user_service.users.models.UsernameSuggestionDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.java.Log;
+
+/**
+ * In-memory typeahead over user and persona usernames, ranked by follower count. Lookups read an
+ * immutable snapshot: usernames lowercased and sorted into one array, so a prefix is a binary
+ * search plus a scan of the matching range, and prefixes of up to {@code head-length} characters,
+ * whose ranges are the widest, have their top {@code max-results} precomputed. A second snapshot
+ * holds users alone, so a users-only lookup fills its limit without personas crowding it out. No
+ * lookup touches the database.
+ * <p>
+ * The index is loaded on startup and reloaded every {@code rebuild-interval-ms}, which also
+ * refreshes follower counts. In between, renames and deletions made through {@link UserService}
+ * are applied after commit, and every {@code refresh-ms} users updated by other writers (the sign-up
+ * API) and personas created or renamed by the agent scheduler are picked up from the
+ * {@code updated_at} columns of {@code users} and {@code personas}; a new snapshot is only built
+ * when something changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class UsernameIndex {
+
+    private static final String USERS_SQL = """
+        SELECT u.id, u.username, u.deleted_at,
+            (SELECT COUNT(*) FROM user_follows f WHERE f.user_followed = u.id) AS followers
+        FROM users u
+        WHERE u.deleted_at IS NULL
+    """;
+    private static final String CHANGED_USERS_SQL = """
+        SELECT u.id, u.username, u.deleted_at,
+            (SELECT COUNT(*) FROM user_follows f WHERE f.user_followed = u.id) AS followers
+        FROM users u
+        WHERE u.updated_at >= ?
+    """;
+    private static final String PERSONAS_SQL = """
+        SELECT p.persona_id, p.username,
+            (SELECT COUNT(*) FROM follows f WHERE f.followed = p.persona_id)
+            + (SELECT COUNT(*) FROM user_follows f WHERE f.persona_followed = p.persona_id) AS followers
+        FROM personas p
+        WHERE p.username IS NOT NULL
+    """;
+    private static final String CHANGED_PERSONAS_SQL = """
+        SELECT p.persona_id, p.username,
+            (SELECT COUNT(*) FROM follows f WHERE f.followed = p.persona_id)
+            + (SELECT COUNT(*) FROM user_follows f WHERE f.persona_followed = p.persona_id) AS followers
+        FROM personas p
+        WHERE p.updated_at >= ?
+    """;
+    // Rows committed late can carry an updated_at older than the last poll, so each poll looks back this far.
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${autocomplete.enabled:true}")
+    private boolean enabled;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${autocomplete.head-length:2}")
+    private int headLength;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${autocomplete.max-results:20}")
+    private int maxResults;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Snapshot userSnapshot = Snapshot.EMPTY;
+    private volatile boolean dirty;
+    private volatile Timestamp watermark;
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /** Top {@code limit} usernames starting with {@code prefix}, case-insensitively, most followed first. */
+    public List<UsernameSuggestionDto> suggest(String prefix, int limit) {
+        return suggest(prefix, limit, false);
+    }
+
+    /** As {@link #suggest(String, int)}, leaving out personas when {@code usersOnly} is set. */
+    public List<UsernameSuggestionDto> suggest(String prefix, int limit, boolean usersOnly) {
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int count = Math.min(limit, maxResults);
+        return Arrays.stream((usersOnly ? userSnapshot : snapshot).top(key, count))
+            .map(Entry::toDto)
+            .toList();
+    }
+
+    public void putUser(String userId, String username) {
+        afterCommit(() -> {
+            Entry previous = entries.get(userKey(userId));
+            long followers = previous != null ? previous.followers() : 0;
+            entries.put(userKey(userId), new Entry(userId, null, username, followers));
+            dirty = true;
+        });
+    }
+
+    public void removeUser(String userId) {
+        afterCommit(() -> {
+            if (entries.remove(userKey(userId)) != null) {
+                dirty = true;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${autocomplete.rebuild-interval-ms:600000}", initialDelayString = "${autocomplete.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Timestamp since = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+            Map<String, Entry> loaded = new HashMap<>();
+            jdbcTemplate.query(USERS_SQL, rs -> {
+                Entry entry = userEntry(rs);
+                loaded.put(userKey(entry.userId()), entry);
+            });
+            jdbcTemplate.query(PERSONAS_SQL, rs -> {
+                Entry entry = personaEntry(rs);
+                loaded.put(personaKey(entry.personaId()), entry);
+            });
+            entries.keySet().retainAll(loaded.keySet());
+            entries.putAll(loaded);
+            watermark = since;
+            publish();
+            log.info("Username index loaded with " + loaded.size() + " names");
+        } catch (DataAccessException e) {
+            log.warning("Could not load the username index, retrying next cycle: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autocomplete.refresh-ms:2000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (watermark == null) {
+            rebuild();
+            return;
+        }
+        try {
+            Timestamp since = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+            Timestamp from = Timestamp.from(watermark.toInstant().minus(CATCH_UP_OVERLAP));
+            jdbcTemplate.query(CHANGED_USERS_SQL, rs -> {
+                Entry entry = userEntry(rs);
+                if (rs.getTimestamp("deleted_at") != null) {
+                    dirty |= entries.remove(userKey(entry.userId())) != null;
+                } else if (!entry.equals(entries.put(userKey(entry.userId()), entry))) {
+                    dirty = true;
+                }
+            }, from);
+            jdbcTemplate.query(CHANGED_PERSONAS_SQL, rs -> {
+                Entry entry = personaEntry(rs);
+                if (entry.username() == null) {
+                    dirty |= entries.remove(personaKey(entry.personaId())) != null;
+                } else if (!entry.equals(entries.put(personaKey(entry.personaId()), entry))) {
+                    dirty = true;
+                }
+            }, from);
+            watermark = since;
+        } catch (DataAccessException e) {
+            log.warning("Username index catch-up failed, retrying next cycle: " + e.getMessage());
+        }
+        if (dirty) {
+            publish();
+        }
+    }
+
+    void publish() {
+        dirty = false;
+        Collection<Entry> values = List.copyOf(entries.values());
+        snapshot = Snapshot.build(values, headLength, maxResults);
+        userSnapshot = Snapshot.build(values.stream().filter(entry -> entry.userId() != null).toList(), headLength, maxResults);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Entry userEntry(ResultSet rs) throws SQLException {
+        return new Entry(rs.getString("id"), null, rs.getString("username"), rs.getLong("followers"));
+    }
+
+    private static Entry personaEntry(ResultSet rs) throws SQLException {
+        return new Entry(null, rs.getLong("persona_id"), rs.getString("username"), rs.getLong("followers"));
+    }
+
+    private static String userKey(String userId) {
+        return "u:" + userId;
+    }
+
+    private static String personaKey(long personaId) {
+        return "p:" + personaId;
+    }
+
+    record Entry(String userId, Long personaId, String username, long followers) {
+
+        static final Comparator<Entry> RANK = Comparator.comparingLong(Entry::followers).reversed()
+            .thenComparing(Entry::username);
+
+        String key() {
+            return username.toLowerCase(Locale.ROOT);
+        }
+
+        UsernameSuggestionDto toDto() {
+            return new UsernameSuggestionDto(userId, personaId, username, followers);
+        }
+    }
+
+    record Snapshot(String[] keys, Entry[] entries, Map<String, Entry[]> heads, int headLength) {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new Entry[0], Map.of(), 0);
+
+        static Snapshot build(Collection<Entry> values, int headLength, int maxResults) {
+            Entry[] sorted = values.toArray(Entry[]::new);
+            String[] keys = new String[sorted.length];
+            Arrays.sort(sorted, Comparator.comparing(Entry::key));
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key();
+            }
+            Map<String, Entry[]> heads = new HashMap<>();
+            for (int length = 1; length <= headLength; length++) {
+                int start = 0;
+                while (start < sorted.length) {
+                    if (keys[start].length() < length) {
+                        start++;
+                        continue;
+                    }
+                    String prefix = keys[start].substring(0, length);
+                    int end = start + 1;
+                    while (end < sorted.length && keys[end].startsWith(prefix)) {
+                        end++;
+                    }
+                    Entry[] run = Arrays.copyOfRange(sorted, start, end);
+                    Arrays.sort(run, Entry.RANK);
+                    heads.put(prefix, Arrays.copyOf(run, Math.min(run.length, maxResults)));
+                    start = end;
+                }
+            }
+            return new Snapshot(keys, sorted, heads, headLength);
+        }
+
+        Entry[] top(String prefix, int limit) {
+            if (prefix.length() <= headLength) {
+                Entry[] head = heads.getOrDefault(prefix, new Entry[0]);
+                return Arrays.copyOf(head, Math.min(head.length, limit));
+            }
+            int from = lowerBound(prefix);
+            // Keeps the best matches so far in rank order; limit is small, so insertion beats a heap.
+            Entry[] best = new Entry[limit];
+            int size = 0;
+            for (int i = from; i < keys.length && keys[i].startsWith(prefix); i++) {
+                Entry entry = entries[i];
+                if (size == limit && Entry.RANK.compare(entry, best[size - 1]) >= 0) {
+                    continue;
+                }
+                int at = size < limit ? size++ : size - 1;
+                while (at > 0 && Entry.RANK.compare(entry, best[at - 1]) < 0) {
+                    best[at] = best[at - 1];
+                    at--;
+                }
+                best[at] = entry;
+            }
+            return Arrays.copyOf(best, size);
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
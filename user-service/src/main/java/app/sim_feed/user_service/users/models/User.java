@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +23,7 @@ import lombok.Builder;
 
 @Entity
 @Table(name = "users", indexes = @Index(name = "idx_users_username", columnList = "username"))
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @Builder
@@ -47,6 +49,9 @@ public class User implements Author, UserDetails{
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Column(name = "deleted_at", nullable = true)
+    private OffsetDateTime deletedAt;
+
     @OneToMany(mappedBy = "userAuthor", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Post> posts = new ArrayList<>();
@@ -0,0 +1,30 @@
+package app.sim_feed.user_service.users.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Opaque keyset cursor for username search: the (similarity, id) of the last hit on the previous page. */
+public record UserSearchCursor(double score, String userId) {
+    
+    public static UserSearchCursor of(UserSearchHit hit) {
+        return new UserSearchCursor(hit.getScore(), hit.getId());
+    }
+    
+    public String encode() {
+        String raw = score + ":" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static UserSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new UserSearchCursor(Double.parseDouble(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+    }
+}
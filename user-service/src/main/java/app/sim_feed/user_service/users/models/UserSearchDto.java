@@ -0,0 +1,6 @@
+package app.sim_feed.user_service.users.models;
+
+import java.util.List;
+
+public record UserSearchDto(List<UserDto> users, String nextCursor) {
+}
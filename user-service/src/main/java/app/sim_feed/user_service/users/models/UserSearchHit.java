@@ -0,0 +1,6 @@
+package app.sim_feed.user_service.users.models;
+
+public interface UserSearchHit {
+    String getId();
+    Double getScore();
+}
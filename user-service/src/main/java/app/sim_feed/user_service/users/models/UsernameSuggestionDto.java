@@ -0,0 +1,5 @@
+package app.sim_feed.user_service.users.models;
+
+/** A typeahead match: exactly one of {@code userId} and {@code personaId} is set. */
+public record UsernameSuggestionDto(String userId, Long personaId, String username, long followers) {
+}
@@ -0,0 +1,127 @@
+package app.sim_feed.user_service.chats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import app.sim_feed.user_service.chats.models.ChatNotification;
+import app.sim_feed.user_service.messages.MessageService;
+import app.sim_feed.user_service.messages.models.MessageDto;
+
+class ChatResumeInterceptorTest {
+
+    private static final Long CHAT_ID = 3L;
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private final MessageChannel outbound = (message, timeout) -> sent.add(message);
+    private MessageService messageService;
+    private ChatResumeInterceptor interceptor;
+    private MessageHandler broker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messageService = mock(MessageService.class);
+        ObjectProvider<MessageChannel> channelProvider = mock(ObjectProvider.class);
+        ObjectProvider<MessageConverter> converterProvider = mock(ObjectProvider.class);
+        when(channelProvider.getObject()).thenReturn(outbound);
+        when(converterProvider.getObject()).thenReturn(new SimpleMessageConverter());
+        interceptor = new ChatResumeInterceptor(messageService, channelProvider, converterProvider);
+        broker = mock(SimpleBrokerMessageHandler.class);
+    }
+
+    private static Message<byte[]> subscribe(String destination, String lastMessageId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        if (lastMessageId != null) {
+            accessor.setNativeHeader(ChatResumeInterceptor.LAST_MESSAGE_ID_HEADER, lastMessageId);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static MessageDto message(long id) {
+        return new MessageDto(id, CHAT_ID, "missed " + id, null, null, LocalDateTime.now());
+    }
+
+    @Nested
+    @DisplayName("afterMessageHandled")
+    class AfterMessageHandled {
+
+        @Test
+        @DisplayName("should replay missed messages to the subscribing session in order")
+        void shouldReplayMissedMessages() {
+            when(messageService.getMessagesAfter(CHAT_ID, 10L, 0)).thenReturn(List.of(message(11), message(12)));
+
+            interceptor.afterMessageHandled(subscribe("/topic/chats/3", "10"), outbound, broker, null);
+
+            assertThat(sent).hasSize(2);
+            assertThat(sent).allSatisfy(frame -> {
+                SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(frame);
+                assertThat(headers.getSessionId()).isEqualTo("session-1");
+                assertThat(headers.getSubscriptionId()).isEqualTo("sub-1");
+                assertThat(headers.getDestination()).isEqualTo("/topic/chats/3");
+            });
+            assertThat(sent).extracting(frame -> ((ChatNotification) frame.getPayload()).message().messageId())
+                .containsExactly(11L, 12L);
+        }
+
+        @Test
+        @DisplayName("should do nothing when the client sent no resume header")
+        void shouldIgnoreFreshSubscriptions() {
+            interceptor.afterMessageHandled(subscribe("/topic/chats/3", null), outbound, broker, null);
+
+            verify(messageService, never()).getMessagesAfter(anyLong(), anyLong(), anyInt());
+            assertThat(sent).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should wait for the broker handler before replaying")
+        void shouldIgnoreOtherHandlers() {
+            interceptor.afterMessageHandled(subscribe("/topic/chats/3", "10"), outbound, mock(MessageHandler.class), null);
+
+            verify(messageService, never()).getMessagesAfter(anyLong(), anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should skip replay when the subscription failed")
+        void shouldIgnoreFailedSubscriptions() {
+            interceptor.afterMessageHandled(subscribe("/topic/chats/3", "10"), outbound, broker, new IllegalStateException());
+
+            verify(messageService, never()).getMessagesAfter(anyLong(), anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should ignore a malformed resume header")
+        void shouldIgnoreMalformedHeader() {
+            interceptor.afterMessageHandled(subscribe("/topic/chats/3", "abc"), outbound, broker, null);
+
+            assertThat(sent).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package app.sim_feed.user_service.chats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.chats.models.BulkMembersResultDto;
+import app.sim_feed.user_service.chats.models.Chat;
+import app.sim_feed.user_service.chats.models.ChatMemberCandidate;
+import app.sim_feed.user_service.ids.Snowflake;
+import app.sim_feed.user_service.messages.MessageService;
+import app.sim_feed.user_service.users.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ChatServiceTest {
+
+    @Mock
+    private ChatRepository chatRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChatMemberRepository chatMemberRepository;
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ChatService chatService;
+
+    private static final Long CHAT_ID = 1L;
+    private static final String CREATOR_ID = "clerk_creator";
+
+    @BeforeAll
+    static void configureSnowflake() {
+        Snowflake.configure(0);
+    }
+
+    private void givenChat() {
+        Chat chat = Chat.builder().id(CHAT_ID).chatName("chat").creatorId(CREATOR_ID).members(Set.of()).build();
+        when(chatRepository.findById(CHAT_ID)).thenReturn(Optional.of(chat));
+    }
+
+    @Nested
+    @DisplayName("addMember")
+    class AddMember {
+
+        @Test
+        @DisplayName("should insert the member with its chat id through the bulk insert")
+        void shouldInsertMember() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(CHAT_ID, List.of("user_a"))).thenReturn(List.of(new ChatMemberCandidate("user_a", null)));
+
+            chatService.addMember(CHAT_ID, "user_a", CREATOR_ID);
+
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(startsWith("INSERT INTO chat_members"), args.capture());
+            assertThat(args.getValue()[1]).isEqualTo(CHAT_ID);
+            assertThat(args.getValue()[2]).isEqualTo("user_a");
+            verify(chatRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject a user who is already a member")
+        void shouldRejectExistingMember() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(CHAT_ID, List.of("user_a"))).thenReturn(List.of(new ChatMemberCandidate("user_a", 7L)));
+
+            assertThatThrownBy(() -> chatService.addMember(CHAT_ID, "user_a", CREATOR_ID))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("should report an unknown user as not found")
+        void shouldRejectUnknownUser() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(CHAT_ID, List.of("ghost"))).thenReturn(List.of());
+
+            assertThatThrownBy(() -> chatService.addMember(CHAT_ID, "ghost", CREATOR_ID))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Nested
+    @DisplayName("addMembers")
+    class AddMembers {
+
+        @Test
+        @DisplayName("should insert only new members in one statement and report the rest as skipped")
+        void shouldInsertNewMembers() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(eq(CHAT_ID), any())).thenReturn(List.of(
+                new ChatMemberCandidate("user_a", null),
+                new ChatMemberCandidate("user_b", 42L),
+                new ChatMemberCandidate("user_c", null)
+            ));
+
+            BulkMembersResultDto result = chatService.addMembers(CHAT_ID, List.of("user_a", "user_b", "user_c", "ghost", CREATOR_ID), CREATOR_ID);
+
+            assertThat(result.changed()).containsExactly("user_a", "user_c");
+            assertThat(result.skipped()).containsExactly("user_b", "ghost", CREATOR_ID);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(sql.capture(), args.capture());
+            assertThat(sql.getValue()).startsWith("INSERT INTO chat_members").endsWith("(?, ?, ?, ?), (?, ?, ?, ?)");
+            assertThat(args.getValue()).hasSize(8);
+        }
+
+        @Test
+        @DisplayName("should skip the insert when everyone is already a member")
+        void shouldSkipInsertWhenNothingToAdd() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(eq(CHAT_ID), any())).thenReturn(List.of(new ChatMemberCandidate("user_a", 7L)));
+
+            BulkMembersResultDto result = chatService.addMembers(CHAT_ID, List.of("user_a"), CREATOR_ID);
+
+            assertThat(result.changed()).isEmpty();
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("should reject requesters who did not create the chat")
+        void shouldRejectNonCreator() {
+            givenChat();
+
+            assertThatThrownBy(() -> chatService.addMembers(CHAT_ID, List.of("user_a"), "someone_else"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+            verify(chatMemberRepository, never()).findCandidates(any(), any());
+        }
+
+        @Test
+        @DisplayName("should surface a concurrent add as a conflict")
+        void shouldMapDuplicateKeyToConflict() {
+            givenChat();
+            when(chatMemberRepository.findCandidates(eq(CHAT_ID), any())).thenReturn(List.of(new ChatMemberCandidate("user_a", null)));
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DuplicateKeyException("idx_chat_room_user"));
+
+            assertThatThrownBy(() -> chatService.addMembers(CHAT_ID, List.of("user_a"), CREATOR_ID))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        }
+    }
+
+    @Nested
+    @DisplayName("removeMembers")
+    class RemoveMembers {
+
+        @Test
+        @DisplayName("should delete current members in one statement and evict their unread counters")
+        void shouldDeleteMembers() {
+            givenChat();
+            when(chatMemberRepository.findMemberUserIds(eq(CHAT_ID), any())).thenReturn(List.of("user_a"));
+
+            BulkMembersResultDto result = chatService.removeMembers(CHAT_ID, List.of("user_a", "user_b", CREATOR_ID), CREATOR_ID);
+
+            assertThat(result.changed()).containsExactly("user_a");
+            assertThat(result.skipped()).containsExactly("user_b", CREATOR_ID);
+            verify(chatMemberRepository).deleteMembers(CHAT_ID, List.of("user_a"));
+            verify(unreadCounterService).evictMember(CHAT_ID, "user_a");
+        }
+    }
+
+    @Nested
+    @DisplayName("leaveChat")
+    class LeaveChat {
+
+        @Test
+        @DisplayName("should delete the membership row without loading the chat")
+        void shouldDeleteMembership() {
+            when(chatMemberRepository.deleteMembers(CHAT_ID, List.of("user_a"))).thenReturn(1);
+
+            chatService.leaveChat(CHAT_ID, "user_a");
+
+            verifyNoInteractions(chatRepository);
+            verify(unreadCounterService).evictMember(CHAT_ID, "user_a");
+        }
+
+        @Test
+        @DisplayName("should return not found when the user is not a member")
+        void shouldRejectNonMember() {
+            when(chatMemberRepository.deleteMembers(CHAT_ID, List.of("user_a"))).thenReturn(0);
+
+            assertThatThrownBy(() -> chatService.leaveChat(CHAT_ID, "user_a"))
+                .isInstanceOf(ResponseStatusException.class);
+            verify(unreadCounterService, never()).evictMember(any(), any());
+        }
+
+        @Test
+        @DisplayName("should drop the kicked member's read cursor")
+        void shouldEvictCursorOnKick() {
+            givenChat();
+            when(chatMemberRepository.deleteMembers(CHAT_ID, List.of("user_a"))).thenReturn(1);
+
+            chatService.kickMember(CHAT_ID, "user_a", CREATOR_ID);
+
+            verify(unreadCounterService).evictMember(CHAT_ID, "user_a");
+        }
+    }
+}
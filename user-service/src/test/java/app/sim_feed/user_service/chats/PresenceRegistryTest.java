@@ -0,0 +1,196 @@
+package app.sim_feed.user_service.chats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import app.sim_feed.user_service.chats.models.PresenceNotification;
+
+class PresenceRegistryTest {
+
+    private static final Long CHAT_ID = 4L;
+    private static final String USER_ID = "clerk_user_123";
+
+    private SimpMessagingTemplate messagingTemplate;
+    private PresenceRegistry presenceRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        ObjectProvider<SimpMessagingTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(messagingTemplate);
+        presenceRegistry = new PresenceRegistry(provider);
+        presenceRegistry.setTtlMs(30_000);
+        presenceRegistry.setTickMs(1_000);
+        presenceRegistry.setBrokerMode("simple");
+    }
+
+    private static Principal user(String userId) {
+        return () -> userId;
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void subscribe(String sessionId, String userId) {
+        Message<byte[]> message = frame(StompCommand.SUBSCRIBE, sessionId, "sub-" + sessionId, "/topic/chats/" + CHAT_ID);
+        presenceRegistry.onSubscribe(new SessionSubscribeEvent(this, message, user(userId)));
+    }
+
+    private void unsubscribe(String sessionId, String userId) {
+        Message<byte[]> message = frame(StompCommand.UNSUBSCRIBE, sessionId, "sub-" + sessionId, null);
+        presenceRegistry.onUnsubscribe(new SessionUnsubscribeEvent(this, message, user(userId)));
+    }
+
+    private void disconnect(String sessionId, String userId) {
+        Message<byte[]> message = frame(StompCommand.DISCONNECT, sessionId, null, null);
+        presenceRegistry.onDisconnect(new SessionDisconnectEvent(this, message, sessionId, CloseStatus.NORMAL, user(userId)));
+    }
+
+    private PresenceNotification publishedDiff() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/chats/" + CHAT_ID), captor.capture());
+        return (PresenceNotification) captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("publishDiffs")
+    class PublishDiffs {
+
+        @Test
+        @DisplayName("should coalesce joins in a window into a single diff")
+        void shouldCoalesceJoins() {
+            subscribe("s1", USER_ID);
+            subscribe("s2", "clerk_other_456");
+
+            presenceRegistry.publishDiffs();
+
+            PresenceNotification diff = publishedDiff();
+            assertThat(diff.type()).isEqualTo("PRESENCE_DIFF");
+            assertThat(diff.joined()).containsExactlyInAnyOrder(USER_ID, "clerk_other_456");
+            assertThat(diff.left()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should publish nothing when a user joins and leaves within one window")
+        void shouldCancelFlaps() {
+            subscribe("s1", USER_ID);
+            disconnect("s1", USER_ID);
+
+            presenceRegistry.publishDiffs();
+
+            verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+            assertThat(presenceRegistry.getOnlineUsers(CHAT_ID)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should announce a leave once the user's last session unsubscribes")
+        void shouldAnnounceLeaveAfterLastSession() {
+            subscribe("s1", USER_ID);
+            subscribe("s2", USER_ID);
+            presenceRegistry.publishDiffs();
+            clearInvocations(messagingTemplate);
+
+            unsubscribe("s1", USER_ID);
+            assertThat(presenceRegistry.getOnlineUsers(CHAT_ID)).containsExactly(USER_ID);
+            disconnect("s2", USER_ID);
+            presenceRegistry.publishDiffs();
+
+            assertThat(publishedDiff().left()).containsExactly(USER_ID);
+            assertThat(presenceRegistry.getOnlineUsers(CHAT_ID)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("expiry")
+    class Expiry {
+
+        @Test
+        @DisplayName("should expire silent sessions and revive them on the next frame")
+        void shouldExpireAndRevive() throws InterruptedException {
+            presenceRegistry.setTtlMs(0);
+            presenceRegistry.setTickMs(1);
+            presenceRegistry.advanceWheel();
+            subscribe("s1", USER_ID);
+            Thread.sleep(5);
+
+            presenceRegistry.advanceWheel();
+            assertThat(presenceRegistry.getOnlineUsers(CHAT_ID)).isEmpty();
+
+            SimpMessageHeaderAccessor heartbeat = SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT);
+            heartbeat.setSessionId("s1");
+            presenceRegistry.preSend(MessageBuilder.createMessage(new byte[0], heartbeat.getMessageHeaders()), null);
+
+            assertThat(presenceRegistry.getOnlineUsers(CHAT_ID)).containsExactly(USER_ID);
+        }
+
+        @Test
+        @DisplayName("should keep sessions that are still sending frames")
+        void shouldKeepActiveSessions() {
+            subscribe("s1", USER_ID);
+
+            presenceRegistry.advanceWheel();
+
+            assertThat(presenceRegistry.snapshot(CHAT_ID).online()).containsExactly(USER_ID);
+        }
+    }
+
+    @Nested
+    @DisplayName("relay mode")
+    class RelayMode {
+
+        @Test
+        @DisplayName("should flag snapshots and diffs as partial since other nodes' sessions are not seen")
+        void shouldFlagPartialPresence() {
+            presenceRegistry.setBrokerMode("relay");
+            subscribe("s1", USER_ID);
+
+            presenceRegistry.publishDiffs();
+
+            ArgumentCaptor<PresenceNotification> diff = ArgumentCaptor.forClass(PresenceNotification.class);
+            verify(messagingTemplate).convertAndSend(eq("/topic/chats/" + CHAT_ID), diff.capture());
+            assertThat(diff.getValue().partial()).isTrue();
+            assertThat(presenceRegistry.snapshot(CHAT_ID).partial()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should report complete presence with the simple broker")
+        void shouldReportCompletePresence() {
+            subscribe("s1", USER_ID);
+
+            assertThat(presenceRegistry.snapshot(CHAT_ID).partial()).isFalse();
+        }
+    }
+}
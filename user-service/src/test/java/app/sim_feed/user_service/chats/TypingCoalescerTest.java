@@ -0,0 +1,111 @@
+package app.sim_feed.user_service.chats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import app.sim_feed.user_service.chats.models.TypingNotification;
+
+class TypingCoalescerTest {
+
+    private static final Long CHAT_ID = 9L;
+    private static final String TOPIC = "/topic/chats/9";
+
+    private SimpMessagingTemplate messagingTemplate;
+    private TypingCoalescer typingCoalescer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        ObjectProvider<SimpMessagingTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(messagingTemplate);
+        typingCoalescer = new TypingCoalescer(provider);
+        typingCoalescer.setTtlMs(5_000);
+    }
+
+    private TypingNotification lastBroadcast() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(TOPIC), captor.capture());
+        return (TypingNotification) captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("flush")
+    class Flush {
+
+        @Test
+        @DisplayName("should broadcast one notification carrying every typist in the window")
+        void shouldCoalesceTypists() {
+            typingCoalescer.update(CHAT_ID, "user_b", true);
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+
+            typingCoalescer.flush();
+
+            assertThat(lastBroadcast().typists()).containsExactly("user_a", "user_b");
+        }
+
+        @Test
+        @DisplayName("should skip the broadcast when the typist set did not change")
+        void shouldSkipUnchangedSet() {
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+            typingCoalescer.flush();
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+
+            typingCoalescer.flush();
+
+            verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("should broadcast an empty set once the last typist stops")
+        void shouldBroadcastStop() {
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+            typingCoalescer.flush();
+            clearInvocations(messagingTemplate);
+
+            typingCoalescer.update(CHAT_ID, "user_a", false);
+            typingCoalescer.flush();
+
+            assertThat(lastBroadcast().typists()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should publish nothing for a start and stop within one window")
+        void shouldCancelFlaps() {
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+            typingCoalescer.update(CHAT_ID, "user_a", false);
+
+            typingCoalescer.flush();
+
+            verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("should drop typists that went quiet past the ttl")
+        void shouldExpireTypists() {
+            typingCoalescer.setTtlMs(-1);
+            typingCoalescer.update(CHAT_ID, "user_a", true);
+
+            typingCoalescer.flush();
+
+            verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package app.sim_feed.user_service.chats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.chats.models.ChatUnreadDto;
+import app.sim_feed.user_service.chats.models.ChatUnreadSnapshot;
+import app.sim_feed.user_service.messages.MessageRepository;
+import app.sim_feed.user_service.messages.models.MessageDto;
+import app.sim_feed.user_service.users.models.ChatMemberUserDto;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private ChatMemberRepository chatMemberRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    private static final String USER_ID = "clerk_user_123";
+    private static final String OTHER_USER_ID = "clerk_other_456";
+    private static final Long CHAT_ID = 1L;
+
+    private MessageDto message(Long messageId, String authorId) {
+        return new MessageDto(messageId, CHAT_ID, "hello", new ChatMemberUserDto(authorId, "user", null), null, LocalDateTime.now());
+    }
+
+    private void loadUnread(long unreadCount, Long lastRead, Long latestUnread) {
+        when(chatMemberRepository.findChatIdsByUserId(USER_ID)).thenReturn(List.of(CHAT_ID));
+        when(chatMemberRepository.findUnreadSnapshots(USER_ID, List.of(CHAT_ID)))
+            .thenReturn(List.of(new ChatUnreadSnapshot(CHAT_ID, lastRead, unreadCount, latestUnread)));
+        unreadCounterService.getUnreadCounts(USER_ID);
+    }
+
+    @Nested
+    @DisplayName("getUnreadCounts")
+    class GetUnreadCounts {
+
+        @Test
+        @DisplayName("should load counts from the database on first call only")
+        void shouldLoadCountsOnce() {
+            loadUnread(3, 10L, 13L);
+
+            List<ChatUnreadDto> counts = unreadCounterService.getUnreadCounts(USER_ID);
+
+            assertThat(counts).containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 3));
+            verify(chatMemberRepository, times(1)).findUnreadSnapshots(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("should return empty list when user has no chats")
+        void shouldReturnEmptyWhenNoChats() {
+            when(chatMemberRepository.findChatIdsByUserId(USER_ID)).thenReturn(List.of());
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID)).isEmpty();
+            verify(chatMemberRepository, never()).findUnreadSnapshots(anyString(), anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("recordMessage")
+    class RecordMessage {
+
+        @Test
+        @DisplayName("should increment unread count for other members")
+        void shouldIncrementForOtherMembers() {
+            loadUnread(0, 10L, null);
+
+            unreadCounterService.recordMessage(message(11L, OTHER_USER_ID));
+            unreadCounterService.recordMessage(message(12L, OTHER_USER_ID));
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 2));
+        }
+
+        @Test
+        @DisplayName("should not count messages already included when loaded")
+        void shouldSkipMessagesAlreadyCounted() {
+            loadUnread(2, 10L, 12L);
+
+            unreadCounterService.recordMessage(message(12L, OTHER_USER_ID));
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 2));
+        }
+
+        @Test
+        @DisplayName("should recount from the database after a message arrives out of id order")
+        void shouldReloadAfterOutOfOrderMessage() {
+            loadUnread(2, 10L, 12L);
+            unreadCounterService.recordMessage(message(14L, OTHER_USER_ID));
+            when(chatMemberRepository.findUnreadSnapshots(USER_ID, List.of(CHAT_ID)))
+                .thenReturn(List.of(new ChatUnreadSnapshot(CHAT_ID, 10L, 4L, 14L)));
+
+            unreadCounterService.recordMessage(message(13L, OTHER_USER_ID));
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 4));
+        }
+
+        @Test
+        @DisplayName("should mark chat as read for the sender")
+        void shouldMarkReadForSender() {
+            loadUnread(4, 10L, 14L);
+
+            unreadCounterService.recordMessage(message(15L, USER_ID));
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 15L, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("acknowledgeRead")
+    class AcknowledgeRead {
+
+        @Test
+        @DisplayName("should clear unread count when latest message is read")
+        void shouldClearWhenLatestRead() {
+            loadUnread(2, 10L, 12L);
+            when(messageRepository.existsByIdAndChat_Id(12L, CHAT_ID)).thenReturn(true);
+
+            ChatUnreadDto result = unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 12L);
+
+            assertThat(result).isEqualTo(new ChatUnreadDto(CHAT_ID, 12L, 0));
+            verify(messageRepository, never()).countUnreadAfter(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should recount remaining messages when an older message is read")
+        void shouldRecountWhenOlderMessageRead() {
+            loadUnread(3, 10L, 13L);
+            when(messageRepository.existsByIdAndChat_Id(11L, CHAT_ID)).thenReturn(true);
+            when(messageRepository.countUnreadAfter(CHAT_ID, 11L, USER_ID)).thenReturn(2L);
+
+            ChatUnreadDto result = unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 11L);
+
+            assertThat(result).isEqualTo(new ChatUnreadDto(CHAT_ID, 11L, 2));
+        }
+
+        @Test
+        @DisplayName("should throw 404 when the message belongs to another chat")
+        void shouldThrowWhenMessageInOtherChat() {
+            loadUnread(2, 10L, 12L);
+            when(messageRepository.existsByIdAndChat_Id(99L, CHAT_ID)).thenReturn(false);
+
+            assertThatThrownBy(() -> unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 99L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Message not found in this chat");
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 2));
+        }
+
+        @Test
+        @DisplayName("should throw 403 when requester is not a member")
+        void shouldThrowWhenNotMember() {
+            when(chatMemberRepository.findUnreadSnapshots(USER_ID, List.of(CHAT_ID))).thenReturn(List.of());
+
+            assertThatThrownBy(() -> unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 5L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("not a member");
+        }
+    }
+
+    @Nested
+    @DisplayName("freshness and eviction")
+    class FreshnessAndEviction {
+
+        private long now = 1_000_000L;
+
+        @BeforeEach
+        void setClock() {
+            unreadCounterService.setClock(() -> now);
+        }
+
+        @Test
+        @DisplayName("should recompute counts older than the maximum age")
+        void shouldReloadAfterMaxAge() {
+            loadUnread(1, 10L, 11L);
+            when(chatMemberRepository.findUnreadSnapshots(USER_ID, List.of(CHAT_ID)))
+                .thenReturn(List.of(new ChatUnreadSnapshot(CHAT_ID, 10L, 5L, 15L)));
+            now += 60_001;
+
+            assertThat(unreadCounterService.getUnreadCounts(USER_ID))
+                .containsExactly(new ChatUnreadDto(CHAT_ID, 10L, 5));
+            verify(chatMemberRepository, times(2)).findUnreadSnapshots(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("should drop cursors idle past the eviction window")
+        void shouldEvictIdleCursors() {
+            loadUnread(1, 10L, 11L);
+            now += 600_001;
+
+            unreadCounterService.evictIdleCursors();
+            now = 1_000_000L;
+            unreadCounterService.getUnreadCounts(USER_ID);
+
+            verify(chatMemberRepository, times(2)).findUnreadSnapshots(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("should keep cursors with an unflushed read position")
+        void shouldKeepDirtyCursors() {
+            loadUnread(1, 10L, 11L);
+            when(messageRepository.existsByIdAndChat_Id(11L, CHAT_ID)).thenReturn(true);
+            unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 11L);
+            now += 600_001;
+
+            unreadCounterService.evictIdleCursors();
+            unreadCounterService.flushReadCursors();
+
+            verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("should evict the least recently read cursors beyond the cap")
+        void shouldCapCursorCount() {
+            unreadCounterService.setMaxCursors(1);
+            loadUnread(1, 10L, 11L);
+            when(chatMemberRepository.findUnreadSnapshots(OTHER_USER_ID, List.of(CHAT_ID)))
+                .thenReturn(List.of(new ChatUnreadSnapshot(CHAT_ID, 10L, 1L, 11L)));
+            when(chatMemberRepository.findChatIdsByUserId(OTHER_USER_ID)).thenReturn(List.of(CHAT_ID));
+            now += 1;
+            unreadCounterService.getUnreadCounts(OTHER_USER_ID);
+
+            unreadCounterService.evictIdleCursors();
+            unreadCounterService.getUnreadCounts(USER_ID);
+            unreadCounterService.getUnreadCounts(OTHER_USER_ID);
+
+            verify(chatMemberRepository, times(2)).findUnreadSnapshots(USER_ID, List.of(CHAT_ID));
+            verify(chatMemberRepository, times(1)).findUnreadSnapshots(OTHER_USER_ID, List.of(CHAT_ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("flushReadCursors")
+    class FlushReadCursors {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should write dirty cursors in a single batch")
+        void shouldBatchDirtyCursors() {
+            loadUnread(1, 10L, 11L);
+            when(messageRepository.existsByIdAndChat_Id(11L, CHAT_ID)).thenReturn(true);
+            unreadCounterService.acknowledgeRead(CHAT_ID, USER_ID, 11L);
+
+            unreadCounterService.flushReadCursors();
+            unreadCounterService.flushReadCursors();
+
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+            assertThat(captor.getValue()).hasSize(1);
+            assertThat(captor.getValue().get(0)).containsExactly(11L, CHAT_ID, USER_ID, 11L);
+        }
+
+        @Test
+        @DisplayName("should skip the database when nothing changed")
+        void shouldSkipWhenClean() {
+            unreadCounterService.flushReadCursors();
+
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+}
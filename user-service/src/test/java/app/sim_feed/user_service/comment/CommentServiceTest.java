@@ -24,6 +24,7 @@ import app.sim_feed.user_service.comment.models.Comment;
 import app.sim_feed.user_service.comment.models.CommentDto;
 import app.sim_feed.user_service.comment.models.NewCommentDto;
 import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.PostHydrationService;
 import app.sim_feed.user_service.post.models.Post;
 import app.sim_feed.user_service.users.UserRepository;
 import app.sim_feed.user_service.users.models.User;
@@ -41,6 +42,9 @@ class CommentServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostHydrationService postHydrationService;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -96,6 +100,7 @@ class CommentServiceTest {
             assertThat(result.commentAuthor().id()).isEqualTo(USER_ID);
             assertThat(result.body()).isEqualTo("This is a comment");
             verify(commentRepository).save(any(Comment.class));
+            verify(postHydrationService).evict(POST_ID);
         }
 
         @Test
@@ -303,6 +308,7 @@ class CommentServiceTest {
 
             verify(commentRepository).findById(COMMENT_ID);
             verify(commentRepository).delete(existingComment);
+            verify(postHydrationService).evict(POST_ID);
         }
 
         @Test
@@ -0,0 +1,70 @@
+package app.sim_feed.user_service.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.events.models.AgentActivity;
+import app.sim_feed.user_service.events.models.AgentActivityDto;
+import app.sim_feed.user_service.events.models.AgentActivityPageDto;
+
+@ExtendWith(MockitoExtension.class)
+class AgentActivityServiceTest {
+
+    @Mock
+    private AgentActivityRepository agentActivityRepository;
+
+    @InjectMocks
+    private AgentActivityService agentActivityService;
+
+    private static AgentActivity activity(long eventId) {
+        return AgentActivity.builder().eventId(eventId).personaId(3L).eventType("LIKE_POST").postId(10L).likeId(20L).summary("title").build();
+    }
+
+    @Test
+    @DisplayName("should return the newest events first with a cursor when the page is full")
+    void shouldReturnFullPageWithCursor() {
+        when(agentActivityRepository.findByPersonaIdAndEventIdLessThanOrderByEventIdDesc(3L, Long.MAX_VALUE, PageRequest.of(0, 2)))
+            .thenReturn(List.of(activity(9), activity(7)));
+
+        AgentActivityPageDto result = agentActivityService.getPersonaActivity(3L, null, 2);
+
+        assertThat(result.activity()).extracting(AgentActivityDto::eventId).containsExactly(9L, 7L);
+        assertThat(result.nextCursor()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("should continue below the cursor and stop on a short page")
+    void shouldContinueBelowCursor() {
+        when(agentActivityRepository.findByEventIdLessThanOrderByEventIdDesc(7L, PageRequest.of(0, 2))).thenReturn(List.of(activity(5)));
+
+        AgentActivityPageDto result = agentActivityService.getActivity(7L, 2);
+
+        assertThat(result.activity()).extracting(AgentActivityDto::eventId).containsExactly(5L);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("should reject page sizes outside 1 to 50")
+    void shouldValidateSize() {
+        assertThatThrownBy(() -> agentActivityService.getActivity(null, 0)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> agentActivityService.getPersonaActivity(3L, null, 51)).isInstanceOf(ResponseStatusException.class);
+
+        verify(agentActivityRepository, never()).findByEventIdLessThanOrderByEventIdDesc(anyLong(), any());
+    }
+}
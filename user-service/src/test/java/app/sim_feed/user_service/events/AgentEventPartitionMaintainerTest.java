@@ -0,0 +1,77 @@
+package app.sim_feed.user_service.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class AgentEventPartitionMaintainerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AgentEventPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        maintainer = new AgentEventPartitionMaintainer(jdbcTemplate);
+        maintainer.setEnabled(true);
+        maintainer.setPremakeWeeks(2);
+        maintainer.setRetentionWeeks(4);
+        // A Thursday, so the current week starts on Monday 2026-10-12.
+        maintainer.setClock(Clock.fixed(Instant.parse("2026-10-15T09:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("should create the current week and the weeks ahead")
+    void shouldPremakePartitions() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate).queryForObject("SELECT ensure_agent_event_partitions(?)", Integer.class, LocalDate.parse("2026-10-12"));
+        verify(jdbcTemplate).queryForObject("SELECT ensure_agent_event_partitions(?)", Integer.class, LocalDate.parse("2026-10-19"));
+        verify(jdbcTemplate).queryForObject("SELECT ensure_agent_event_partitions(?)", Integer.class, LocalDate.parse("2026-10-26"));
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT roll_up_agent_event_partition(?)"), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("should roll up and drop only weeks older than the retention window, oldest first")
+    void shouldRollUpExpiredWeeks() {
+        List<String> partitions = List.of("agent_events_p20261012", "agent_events_p20260914", "agent_events_p20260907", "agent_events_default");
+
+        assertThat(AgentEventPartitionMaintainer.expiredWeeks(partitions, LocalDate.parse("2026-09-14")))
+            .containsExactly(LocalDate.parse("2026-09-07"));
+
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(partitions);
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate).queryForObject("SELECT roll_up_agent_event_partition(?)", Long.class, LocalDate.parse("2026-09-07"));
+        verify(jdbcTemplate, never()).queryForObject("SELECT roll_up_agent_event_partition(?)", Long.class, LocalDate.parse("2026-09-14"));
+    }
+
+    @Test
+    @DisplayName("should do nothing when disabled")
+    void shouldSkipWhenDisabled() {
+        maintainer.setEnabled(false);
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+}
@@ -0,0 +1,95 @@
+package app.sim_feed.user_service.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+
+class AuthorPostIndexTest {
+
+    private static final FeedAuthor PERSONA = FeedAuthor.persona(3L);
+
+    private JdbcTemplate jdbcTemplate;
+    private ConcurrentMapCacheManager cacheManager;
+    private AuthorPostIndex authorPostIndex;
+    private final Deque<List<Long>> queryResults = new ArrayDeque<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cacheManager = new ConcurrentMapCacheManager(AuthorPostIndex.CACHE_NAME);
+        authorPostIndex = new AuthorPostIndex(jdbcTemplate, cacheManager);
+        authorPostIndex.setCacheDepth(3);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1)).thenReturn(PERSONA.personaId());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Long postId : queryResults.pop()) {
+                when(rs.getLong(2)).thenReturn(postId);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Nested
+    @DisplayName("postIdsBefore")
+    class PostIdsBefore {
+
+        @Test
+        @DisplayName("should load an author once and answer later pages inside the window from the cache")
+        void shouldServeFromCache() {
+            queryResults.add(List.of(9L, 7L, 5L));
+
+            Map<FeedAuthor, List<Long>> first = authorPostIndex.postIdsBefore(List.of(PERSONA), null, 2);
+            Map<FeedAuthor, List<Long>> second = authorPostIndex.postIdsBefore(List.of(PERSONA), 9L, 2);
+
+            assertThat(first.get(PERSONA)).containsExactly(9L, 7L);
+            assertThat(second.get(PERSONA)).containsExactly(7L, 5L);
+            verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        }
+
+        @Test
+        @DisplayName("should go to the database once the cursor passes the cached window")
+        void shouldLoadBeyondWindow() {
+            queryResults.add(List.of(9L, 7L, 5L));
+            queryResults.add(List.of(4L, 2L));
+
+            Map<FeedAuthor, List<Long>> page = authorPostIndex.postIdsBefore(List.of(PERSONA), 5L, 2);
+
+            assertThat(page.get(PERSONA)).containsExactly(4L, 2L);
+        }
+
+        @Test
+        @DisplayName("should trust a short window as the author's whole history")
+        void shouldNotQueryPastHistory() {
+            cacheManager.getCache(AuthorPostIndex.CACHE_NAME).put(PERSONA, List.of(9L, 7L));
+
+            Map<FeedAuthor, List<Long>> page = authorPostIndex.postIdsBefore(List.of(PERSONA), 7L, 2);
+
+            assertThat(page.get(PERSONA)).isEmpty();
+            verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package app.sim_feed.user_service.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import app.sim_feed.user_service.feed.models.HomeFeedDto;
+import app.sim_feed.user_service.follow.FollowRepository;
+import app.sim_feed.user_service.persona.models.Persona;
+import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+
+class HomeFeedServiceTest {
+
+    private static final String USER_ID = "user_a";
+    private static final FeedAuthor SELF = FeedAuthor.user(USER_ID);
+    private static final FeedAuthor FRIEND = FeedAuthor.user("user_b");
+    private static final FeedAuthor PERSONA = FeedAuthor.persona(3L);
+
+    private FollowRepository followRepository;
+    private AuthorPostIndex authorPostIndex;
+    private TimelineStore timelineStore;
+    private PostRepository postRepository;
+    private HomeFeedService homeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        followRepository = mock(FollowRepository.class);
+        authorPostIndex = mock(AuthorPostIndex.class);
+        postRepository = mock(PostRepository.class);
+        timelineStore = new TimelineStore();
+        timelineStore.setCapacity(200);
+        timelineStore.setIdleEvictionMs(60_000);
+        timelineStore.setMaxAgeMs(60_000);
+        homeFeedService = new HomeFeedService(followRepository, authorPostIndex, timelineStore, postRepository);
+        homeFeedService.setFollowerThreshold(1000);
+
+        when(followRepository.findFollowedUserIds(USER_ID)).thenReturn(List.of("user_b"));
+        when(followRepository.findFollowedPersonaIds(USER_ID)).thenReturn(List.of(3L));
+        when(postRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.reversed().stream().map(HomeFeedServiceTest::post).toList();
+        });
+    }
+
+    private static Post post(long id) {
+        Persona persona = new Persona();
+        persona.setPersonaId(1L);
+        persona.setUsername("agent");
+        return Post.builder().id(id).title("title " + id).body("body").personaAuthor(persona).build();
+    }
+
+    @Nested
+    @DisplayName("merge")
+    class Merge {
+
+        @Test
+        @DisplayName("should interleave the per-author runs newest first")
+        void shouldMergeRuns() {
+            List<Long> merged = HomeFeedService.merge(List.of(List.of(9L, 4L, 1L), List.of(8L, 7L), List.of(), List.of(5L)), 10);
+
+            assertThat(merged).containsExactly(9L, 8L, 7L, 5L, 4L, 1L);
+        }
+
+        @Test
+        @DisplayName("should stop once the page is full")
+        void shouldStopAtLimit() {
+            assertThat(HomeFeedService.merge(List.of(List.of(9L, 4L), List.of(8L, 7L)), 3)).containsExactly(9L, 8L, 7L);
+        }
+
+        @Test
+        @DisplayName("should keep a post that is both pushed and pulled only once")
+        void shouldDropDuplicateIds() {
+            assertThat(HomeFeedService.merge(List.of(List.of(9L, 8L, 4L), List.of(8L, 7L)), 3)).containsExactly(9L, 8L, 7L);
+        }
+    }
+
+    @Nested
+    @DisplayName("getHomeFeed")
+    class GetHomeFeed {
+
+        @Test
+        @DisplayName("should merge the materialized timeline with pulled personas into one page")
+        void shouldMergeTimelineWithPulledAuthors() {
+            when(followRepository.findUserIdsWithMoreFollowersThan(List.of("user_b"), 1000)).thenReturn(List.of());
+            when(authorPostIndex.postIdsBefore(eq(Set.of(FRIEND)), eq(null), eq(200)))
+                .thenReturn(Map.of(FRIEND, List.of(15L, 11L)));
+            when(authorPostIndex.postIdsBefore(eq(Set.of(SELF, PERSONA)), eq(null), eq(2)))
+                .thenReturn(Map.of(SELF, List.of(12L), PERSONA, List.of(14L, 13L)));
+
+            HomeFeedDto result = homeFeedService.getHomeFeed(USER_ID, null, 2);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(15L, 14L);
+            assertThat(result.nextCursor()).isEqualTo(14L);
+        }
+
+        @Test
+        @DisplayName("should pull authors above the follower threshold at read time")
+        void shouldPullPopularUsers() {
+            when(followRepository.findUserIdsWithMoreFollowersThan(List.of("user_b"), 1000)).thenReturn(List.of("user_b"));
+            when(authorPostIndex.postIdsBefore(eq(Set.of(SELF, FRIEND, PERSONA)), eq(null), eq(3)))
+                .thenReturn(Map.of(SELF, List.of(12L), FRIEND, List.of(15L), PERSONA, List.of(14L)));
+
+            HomeFeedDto result = homeFeedService.getHomeFeed(USER_ID, null, 3);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(15L, 14L, 12L);
+        }
+
+        @Test
+        @DisplayName("should only consult pulled authors once the timeline is built")
+        void shouldReuseTimeline() {
+            when(followRepository.findUserIdsWithMoreFollowersThan(anyList(), eq(1000L))).thenReturn(List.of());
+            when(authorPostIndex.postIdsBefore(anyCollection(), any(), eq(200))).thenReturn(Map.of(FRIEND, List.of(15L)));
+            when(authorPostIndex.postIdsBefore(eq(Set.of(SELF, PERSONA)), any(), eq(2))).thenReturn(Map.of());
+            when(followRepository.findFollowerIds(eq("user_b"), any())).thenReturn(List.of(USER_ID));
+
+            homeFeedService.getHomeFeed(USER_ID, null, 2);
+            homeFeedService.publish("user_b", 16L);
+            HomeFeedDto result = homeFeedService.getHomeFeed(USER_ID, null, 2);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(16L, 15L);
+            verify(followRepository).findFollowedUserIds(USER_ID);
+        }
+
+        @Test
+        @DisplayName("should show the reader's own new posts without waiting for a push or a rebuild")
+        void shouldAlwaysPullOwnPosts() {
+            when(followRepository.findUserIdsWithMoreFollowersThan(anyList(), eq(1000L))).thenReturn(List.of());
+            when(authorPostIndex.postIdsBefore(anyCollection(), any(), eq(200))).thenReturn(Map.of(FRIEND, List.of(15L)));
+            when(authorPostIndex.postIdsBefore(eq(Set.of(SELF, PERSONA)), any(), eq(2)))
+                .thenReturn(Map.of())
+                .thenReturn(Map.of(SELF, List.of(20L)));
+
+            homeFeedService.getHomeFeed(USER_ID, null, 2);
+            HomeFeedDto result = homeFeedService.getHomeFeed(USER_ID, null, 2);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(20L, 15L);
+            verify(followRepository).findFollowedUserIds(USER_ID);
+        }
+
+        @Test
+        @DisplayName("should end the feed without a cursor when nobody has older posts")
+        void shouldReturnEmptyPage() {
+            when(followRepository.findFollowedUserIds(USER_ID)).thenReturn(List.of());
+            when(followRepository.findFollowedPersonaIds(USER_ID)).thenReturn(List.of());
+            when(authorPostIndex.postIdsBefore(anyCollection(), any(), any(Integer.class))).thenReturn(Map.of());
+
+            HomeFeedDto result = homeFeedService.getHomeFeed(USER_ID, null, 20);
+
+            assertThat(result.posts()).isEmpty();
+            assertThat(result.nextCursor()).isNull();
+            verify(postRepository, never()).findAllById(anyList());
+        }
+
+        @Test
+        @DisplayName("should reject an out-of-range page size")
+        void shouldRejectBadSize() {
+            assertThatThrownBy(() -> homeFeedService.getHomeFeed(USER_ID, null, 51))
+                .isInstanceOf(ResponseStatusException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("publish")
+    class Publish {
+
+        @Test
+        @DisplayName("should skip follower timelines for authors above the threshold")
+        void shouldNotFanOutPopularAuthors() {
+            homeFeedService.setFollowerThreshold(1);
+            when(followRepository.findFollowerIds(eq("user_b"), any())).thenReturn(List.of(USER_ID, "user_c"));
+            TimelineStore.Timeline timeline = timelineStore.get(USER_ID, capacity -> new TimelineStore.Seed(List.of(), Set.of(SELF), Set.of(FRIEND)));
+
+            homeFeedService.publish("user_b", 16L);
+
+            assertThat(timeline.idsBefore(null, 10)).contains(List.of());
+        }
+
+        @Test
+        @DisplayName("should not push to the author's own timeline, which pulls its own posts")
+        void shouldNotPushToAuthor() {
+            when(followRepository.findFollowerIds(eq(USER_ID), any())).thenReturn(List.of());
+            TimelineStore.Timeline timeline = timelineStore.get(USER_ID, capacity -> new TimelineStore.Seed(List.of(), Set.of(SELF), Set.of()));
+
+            homeFeedService.publish(USER_ID, 16L);
+
+            assertThat(timeline.idsBefore(null, 10)).contains(List.of());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package app.sim_feed.user_service.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+
+class TimelineStoreTest {
+
+    private static final String USER_ID = "user_a";
+
+    private TimelineStore timelineStore;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        timelineStore = new TimelineStore();
+        timelineStore.setCapacity(3);
+        timelineStore.setIdleEvictionMs(60_000);
+        timelineStore.setMaxAgeMs(60_000);
+    }
+
+    private TimelineStore.Timeline timeline(List<Long> seed) {
+        return timelineStore.get(USER_ID, capacity -> {
+            loads.incrementAndGet();
+            return new TimelineStore.Seed(seed, Set.of(FeedAuthor.persona(1L)), Set.of(FeedAuthor.user(USER_ID)));
+        });
+    }
+
+    @Nested
+    @DisplayName("get")
+    class Get {
+
+        @Test
+        @DisplayName("should build a timeline once and then serve it from memory")
+        void shouldSeedOnce() {
+            timeline(List.of(5L, 2L));
+            TimelineStore.Timeline timeline = timeline(List.of());
+
+            assertThat(loads).hasValue(1);
+            assertThat(timeline.idsBefore(null, 10)).contains(List.of(5L, 2L));
+            assertThat(timeline.pulledAuthors()).containsExactly(FeedAuthor.persona(1L));
+        }
+
+        @Test
+        @DisplayName("should rebuild timelines past their maximum age")
+        void shouldRebuildStaleTimelines() {
+            timelineStore.setMaxAgeMs(-1);
+            timeline(List.of(5L));
+            timeline(List.of(5L));
+
+            assertThat(loads).hasValue(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("push")
+    class Push {
+
+        @Test
+        @DisplayName("should add new posts to loaded timelines and keep only the newest")
+        void shouldPushToLoadedTimelines() {
+            TimelineStore.Timeline timeline = timeline(List.of(5L, 2L));
+
+            timelineStore.push(List.of(USER_ID, "user_b"), 7L);
+            timelineStore.push(List.of(USER_ID), 9L);
+
+            assertThat(timeline.idsBefore(null, 3)).contains(List.of(9L, 7L, 5L));
+            assertThat(timelineStore.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should report a miss once the cursor passes a truncated timeline")
+        void shouldMissPastTruncatedWindow() {
+            TimelineStore.Timeline timeline = timeline(List.of(9L, 7L, 5L));
+
+            assertThat(timeline.idsBefore(7L, 1)).contains(List.of(5L));
+            assertThat(timeline.idsBefore(7L, 2)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should answer deep pages of a complete timeline without a miss")
+        void shouldServeCompleteTimeline() {
+            TimelineStore.Timeline timeline = timeline(List.of(9L, 7L));
+
+            assertThat(timeline.idsBefore(7L, 5)).contains(List.of());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -26,6 +28,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.feed.TimelineStore;
 import app.sim_feed.user_service.follow.models.FollowDto;
 import app.sim_feed.user_service.follow.models.NewFollowDto;
 import app.sim_feed.user_service.follow.models.UserFollow;
@@ -49,6 +52,9 @@ class FollowServiceTest {
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private TimelineStore timelineStore;
+
     @InjectMocks
     private FollowService followService;
 
@@ -114,6 +120,21 @@ class FollowServiceTest {
             verify(followRepository).save(any(UserFollow.class));
         }
 
+        @Test
+        @DisplayName("should drop the requester's timeline only after the follow is saved")
+        void shouldEvictTimelineAfterSave() {
+            UserFollow savedFollow = UserFollow.builder().id(1L).follower(requester).userFollowed(targetUser).build();
+            when(userService.getUserById(TARGET_USER_ID)).thenReturn(targetUser);
+            when(userService.getUserById(REQUESTER_ID)).thenReturn(requester);
+            when(followRepository.save(any(UserFollow.class))).thenReturn(savedFollow);
+
+            followService.follow(new NewFollowDto(TARGET_USER_ID, null), REQUESTER_ID);
+
+            InOrder inOrder = inOrder(followRepository, timelineStore);
+            inOrder.verify(followRepository).save(any(UserFollow.class));
+            inOrder.verify(timelineStore).evict(REQUESTER_ID);
+        }
+
         @Test
         @DisplayName("should follow a persona successfully")
         void shouldFollowPersonaSuccessfully() {
@@ -234,6 +255,7 @@ class FollowServiceTest {
 
             verify(followRepository).findById(1L);
             verify(followRepository).delete(follow);
+            verify(timelineStore).evict(REQUESTER_ID);
         }
 
         @Test
@@ -0,0 +1,76 @@
+package app.sim_feed.user_service.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class SnowflakeConfigurationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SnowflakeConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        configuration = new SnowflakeConfiguration(jdbcTemplate);
+        configuration.setNodeId(-1);
+        configuration.setLeaseEnabled(true);
+        // Long enough that fencing the shared generator never affects other tests in this JVM.
+        configuration.setLeaseDurationMs(TimeUnit.DAYS.toMillis(1));
+    }
+
+    @Test
+    @DisplayName("should use the free node id leased from the database")
+    void shouldLeaseFreeNodeId() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any())).thenReturn(List.of(0L));
+
+        configuration.configureNodeId();
+
+        assertThat(Snowflake.instance().getNodeId()).isZero();
+    }
+
+    @Test
+    @DisplayName("should fail startup when every node id is leased")
+    void shouldFailWithoutFreeNodeId() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any())).thenReturn(List.of());
+
+        assertThatThrownBy(configuration::configureNodeId)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("No free Snowflake node id");
+    }
+
+    @Test
+    @DisplayName("should fail startup when the configured node id is leased by another instance")
+    void shouldFailWhenConfiguredNodeIdIsTaken() {
+        configuration.setNodeId(4);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), eq(4L), any())).thenReturn(List.of());
+
+        assertThatThrownBy(configuration::configureNodeId)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("leased by another instance");
+    }
+
+    @Test
+    @DisplayName("should require an explicit node id when leasing is disabled")
+    void shouldRequireNodeIdWithoutLease() {
+        configuration.setLeaseEnabled(false);
+
+        assertThatThrownBy(configuration::configureNodeId)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("ids.snowflake.node-id");
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,135 @@
+package app.sim_feed.user_service.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    private static List<Long> generate(Snowflake snowflake, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(snowflake.nextId());
+        }
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("nextId")
+    class NextId {
+
+        @Test
+        @DisplayName("should issue strictly increasing ids that stay JavaScript-safe")
+        void shouldBeMonotonic() {
+            Snowflake snowflake = new Snowflake(3, System::currentTimeMillis);
+
+            List<Long> ids = generate(snowflake, 5_000);
+
+            assertThat(ids).isSorted().doesNotHaveDuplicates();
+            assertThat(ids).allMatch(id -> id > 0 && id <= (1L << 53) - 1);
+        }
+
+        @Test
+        @DisplayName("should encode the node id so two nodes never collide")
+        void shouldEncodeNodeId() {
+            Snowflake first = new Snowflake(1, () -> NOW);
+            Snowflake second = new Snowflake(2, () -> NOW);
+
+            long a = first.nextId();
+            long b = second.nextId();
+
+            assertThat(a).isNotEqualTo(b);
+            assertThat((a >> Snowflake.SEQUENCE_BITS) & Snowflake.MAX_NODE_ID).isEqualTo(1);
+            assertThat((b >> Snowflake.SEQUENCE_BITS) & Snowflake.MAX_NODE_ID).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should keep increasing when the clock moves backwards")
+        void shouldSurviveClockSkew() {
+            AtomicLong clock = new AtomicLong(NOW);
+            Snowflake snowflake = new Snowflake(0, clock::get);
+            long before = snowflake.nextId();
+
+            clock.set(NOW - 10_000);
+            List<Long> ids = generate(snowflake, 1_000);
+
+            assertThat(ids.getFirst()).isGreaterThan(before);
+            assertThat(ids).isSorted().doesNotHaveDuplicates();
+        }
+
+        @Test
+        @DisplayName("should move to the next millisecond once the sequence is exhausted")
+        void shouldRollOverSequence() {
+            AtomicLong clock = new AtomicLong(NOW);
+            Snowflake snowflake = new Snowflake(0, () -> clock.getAndIncrement() / 200 + NOW);
+
+            List<Long> ids = generate(snowflake, 300);
+
+            assertThat(ids).isSorted().doesNotHaveDuplicates();
+            assertThat(Snowflake.timestampOf(ids.getLast())).isAfter(Snowflake.timestampOf(ids.getFirst()));
+        }
+
+        @Test
+        @DisplayName("should reject node ids outside the configured bits")
+        void shouldRejectInvalidNodeId() {
+            assertThatThrownBy(() -> new Snowflake(Snowflake.MAX_NODE_ID + 1, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should refuse to issue ids once the lease has run out")
+        void shouldStopAtLeaseExpiry() {
+            AtomicLong clock = new AtomicLong(NOW);
+            Snowflake snowflake = new Snowflake(0, clock::get);
+            snowflake.extendLease(NOW + 1_000);
+            snowflake.nextId();
+
+            clock.set(NOW + 1_000);
+
+            assertThatThrownBy(snowflake::nextId).isInstanceOf(IllegalStateException.class);
+            snowflake.extendLease(NOW + 2_000);
+            assertThat(snowflake.nextId()).isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("configure")
+    class Configure {
+
+        @Test
+        @DisplayName("should keep a generator that has issued ids and reject switching its node")
+        void shouldNotReplaceUsedGenerator() {
+            Snowflake.configure(0).nextId();
+            Snowflake used = Snowflake.instance();
+
+            assertThat(Snowflake.configure(0)).isSameAs(used);
+            assertThatThrownBy(() -> Snowflake.configure(1)).isInstanceOf(IllegalStateException.class);
+            assertThat(Snowflake.instance()).isSameAs(used);
+        }
+    }
+
+    @Nested
+    @DisplayName("timestampOf")
+    class TimestampOf {
+
+        @Test
+        @DisplayName("should recover the creation millisecond and bound it with lowestIdAt")
+        void shouldRoundTrip() {
+            long id = new Snowflake(7, () -> NOW).nextId();
+
+            assertThat(Snowflake.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+            assertThat(Snowflake.lowestIdAt(Instant.ofEpochMilli(NOW))).isLessThanOrEqualTo(id);
+            assertThat(Snowflake.lowestIdAt(Instant.ofEpochMilli(NOW + 1))).isGreaterThan(id);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package app.sim_feed.user_service.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.sim_feed.user_service.feed.AuthorPostIndex;
+import app.sim_feed.user_service.feed.models.FeedAuthor;
+import app.sim_feed.user_service.ingest.models.PersonaActionDto;
+import app.sim_feed.user_service.ingest.models.PersonaActionResultDto;
+import app.sim_feed.user_service.ingest.models.PersonaActionStatus;
+import app.sim_feed.user_service.ingest.models.PersonaActionType;
+import app.sim_feed.user_service.post.PostHydrationService;
+
+class PersonaActionIngestServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AuthorPostIndex authorPostIndex;
+    private PersonaActionIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        authorPostIndex = mock(AuthorPostIndex.class);
+        ingestService = new PersonaActionIngestService(jdbcTemplate, mock(PlatformTransactionManager.class), authorPostIndex, mock(PostHydrationService.class));
+    }
+
+    private static PersonaActionDto post(long personaId, String title) {
+        return new PersonaActionDto(PersonaActionType.CREATE_POST, personaId, title, "body", null, null, null);
+    }
+
+    private static PersonaActionDto follow(long personaId, long followedId) {
+        return new PersonaActionDto(PersonaActionType.FOLLOW, personaId, null, null, null, followedId, null);
+    }
+
+    private static PersonaActionDto bio(long personaId, String bio) {
+        return new PersonaActionDto(PersonaActionType.UPDATE_BIO, personaId, null, null, null, null, bio);
+    }
+
+    private void knownIds(long... ids) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long id : ids) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(id);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("should write posts and bios with their agent events in multi-row statements")
+    void shouldWriteBatch() throws Exception {
+        knownIds(3L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("posts"), eq(2))).thenReturn(List.of(100L, 101L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("agent_events"), eq(3))).thenReturn(List.of(500L, 501L, 502L));
+
+        List<PersonaActionResultDto> results = ingestService.ingest(List.of(post(3, "first"), bio(3, "new bio"), post(3, "second")));
+
+        assertThat(results).extracting(PersonaActionResultDto::status).containsOnly(PersonaActionStatus.CREATED);
+        assertThat(results).extracting(PersonaActionResultDto::id).containsExactly(100L, null, 101L);
+        assertThat(results).extracting(PersonaActionResultDto::eventId).containsExactly(500L, 502L, 501L);
+        verify(jdbcTemplate).update(
+            startsWith("INSERT INTO posts (id, title, body, author) VALUES (?, ?, ?, ?), (?, ?, ?, ?)"),
+            eq(100L), eq("first"), eq("body"), eq(3L), eq(101L), eq("second"), eq("body"), eq(3L)
+        );
+        verify(jdbcTemplate).update(startsWith("UPDATE personas p SET bio"), eq(3L), eq("new bio"));
+        verify(jdbcTemplate).update(
+            startsWith("INSERT INTO agent_events (id, persona_id, event_type) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?)"),
+            eq(500L), eq(3L), eq("CREATE_POST"), eq(501L), eq(3L), eq("CREATE_POST"), eq(502L), eq(3L), eq("UPDATE_BIO")
+        );
+        verify(jdbcTemplate).update(startsWith("INSERT INTO agent_event_post (id, post_id) VALUES (?, ?), (?, ?)"), eq(500L), eq(100L), eq(501L), eq(101L));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO agent_event_bio (id, bio) VALUES (?, ?)"), eq(502L), eq("new bio"));
+        verify(authorPostIndex).evict(FeedAuthor.persona(3L));
+    }
+
+    @Test
+    @DisplayName("should reject invalid actions and unknown personas and flag repeats without writing them")
+    void shouldRejectAndDeduplicate() throws Exception {
+        knownIds(3L, 4L);
+
+        List<PersonaActionResultDto> results = ingestService.ingest(List.of(
+            post(3, " "),
+            follow(3, 3),
+            bio(9, "hello"),
+            follow(3, 4),
+            follow(3, 4)
+        ));
+
+        assertThat(results).extracting(PersonaActionResultDto::status).containsExactly(
+            PersonaActionStatus.REJECTED,
+            PersonaActionStatus.REJECTED,
+            PersonaActionStatus.REJECTED,
+            PersonaActionStatus.DUPLICATE,
+            PersonaActionStatus.DUPLICATE
+        );
+        assertThat(results.get(2).message()).isEqualTo("Persona not found");
+        assertThat(results.get(3).message()).isEqualTo("Persona already followed");
+        assertThat(results.get(4).message()).isEqualTo("Repeated in this batch");
+    }
+
+    @Test
+    @DisplayName("should not touch the database when every action is invalid")
+    void shouldSkipDatabaseForInvalidBatch() {
+        List<PersonaActionResultDto> results = ingestService.ingest(List.of(bio(3, "x".repeat(201)), follow(3, 3)));
+
+        assertThat(results).extracting(PersonaActionResultDto::message)
+            .containsExactly("Bio cannot be longer than 200 characters", "A persona cannot follow itself");
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -30,6 +30,8 @@ import app.sim_feed.user_service.like.models.Like;
 import app.sim_feed.user_service.like.models.LikeDto;
 import app.sim_feed.user_service.like.models.NewLikeDto;
 import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.PostHydrationService;
+import app.sim_feed.user_service.post.TrendingPostService;
 import app.sim_feed.user_service.post.models.Post;
 import app.sim_feed.user_service.users.UserRepository;
 import app.sim_feed.user_service.users.models.User;
@@ -52,6 +54,12 @@ class LikeServiceTest {
     @Mock
     private Cache cache;
 
+    @Mock
+    private TrendingPostService trendingPostService;
+
+    @Mock
+    private PostHydrationService postHydrationService;
+
     @InjectMocks
     private LikeService likeService;
 
@@ -87,7 +95,7 @@ class LikeServiceTest {
         @Test
         @DisplayName("should like a post successfully")
         void shouldLikePostSuccessfully() {
-            NewLikeDto newLikeDto = new NewLikeDto(POST_ID, null, null);
+            NewLikeDto newLikeDto = new NewLikeDto(POST_ID);
             Like savedLike = Like.builder()
                     .id(LIKE_ID)
                     .post(testPost)
@@ -102,17 +110,18 @@ class LikeServiceTest {
             LikeDto result = likeService.like(newLikeDto, USER_ID);
 
             assertThat(result).isNotNull();
-            assertThat(result.id()).isEqualTo(LIKE_ID);
-            assertThat(result.post().id()).isEqualTo(POST_ID);
+            assertThat(result.likeId()).isEqualTo(LIKE_ID);
+            assertThat(result.postId()).isEqualTo(POST_ID);
             assertThat(result.user().id()).isEqualTo(USER_ID);
             assertThat(result.persona()).isNull();
             verify(likeRepository).save(any(Like.class));
+            verify(postHydrationService).evict(POST_ID);
         }
 
         @Test
         @DisplayName("should call userRepository and postRepository when liking a post")
         void shouldCallRepositoriesWhenLikingPost() {
-            NewLikeDto newLikeDto = new NewLikeDto(POST_ID, null, null);
+            NewLikeDto newLikeDto = new NewLikeDto(POST_ID);
             Like savedLike = Like.builder()
                     .id(LIKE_ID)
                     .post(testPost)
@@ -133,7 +142,7 @@ class LikeServiceTest {
         @Test
         @DisplayName("should clear the user likes cache after liking a post")
         void shouldClearCacheAfterLiking() {
-            NewLikeDto newLikeDto = new NewLikeDto(POST_ID, null, null);
+            NewLikeDto newLikeDto = new NewLikeDto(POST_ID);
             Like savedLike = Like.builder()
                     .id(LIKE_ID)
                     .post(testPost)
@@ -153,7 +162,7 @@ class LikeServiceTest {
         @Test
         @DisplayName("should throw when user not found")
         void shouldThrowWhenUserNotFound() {
-            NewLikeDto newLikeDto = new NewLikeDto(POST_ID, null, null);
+            NewLikeDto newLikeDto = new NewLikeDto(POST_ID);
 
             when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
 
@@ -166,7 +175,7 @@ class LikeServiceTest {
         @Test
         @DisplayName("should throw when post not found")
         void shouldThrowWhenPostNotFound() {
-            NewLikeDto newLikeDto = new NewLikeDto(POST_ID, null, null);
+            NewLikeDto newLikeDto = new NewLikeDto(POST_ID);
 
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
             when(postRepository.findById(POST_ID)).thenReturn(Optional.empty());
@@ -191,24 +200,27 @@ class LikeServiceTest {
                     .user(testUser)
                     .build();
 
-            when(likeRepository.findById(LIKE_ID)).thenReturn(Optional.of(existingLike));
+            when(likeRepository.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.of(existingLike));
             when(cacheManager.getCache("likes")).thenReturn(cache);
 
-            likeService.unlike(LIKE_ID, USER_ID);
+            likeService.unlike(POST_ID, USER_ID);
 
-            verify(likeRepository).findById(LIKE_ID);
+            verify(likeRepository).findByPostIdAndUserId(POST_ID, USER_ID);
             verify(likeRepository).delete(existingLike);
+            verify(trendingPostService).recordUnlike(existingLike);
+            verify(postHydrationService).evict(POST_ID);
         }
 
         @Test
-        @DisplayName("should throw NO_CONTENT when like does not exist")
-        void shouldThrowNoContentWhenLikeNotFound() {
-            when(likeRepository.findById(999L)).thenReturn(Optional.empty());
+        @DisplayName("should throw NOT_FOUND when like does not exist")
+        void shouldThrowNotFoundWhenLikeNotFound() {
+            when(likeRepository.findByPostIdAndUserId(999L, USER_ID)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> likeService.unlike(999L, USER_ID))
-                    .isInstanceOf(ResponseStatusException.class);
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("No like found");
 
-            verify(likeRepository).findById(999L);
+            verify(likeRepository).findByPostIdAndUserId(999L, USER_ID);
             verify(likeRepository, never()).delete(any());
         }
 
@@ -229,13 +241,13 @@ class LikeServiceTest {
                     .user(otherUser)
                     .build();
 
-            when(likeRepository.findById(LIKE_ID)).thenReturn(Optional.of(existingLike));
+            when(likeRepository.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.of(existingLike));
 
-            assertThatThrownBy(() -> likeService.unlike(LIKE_ID, USER_ID))
+            assertThatThrownBy(() -> likeService.unlike(POST_ID, USER_ID))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("User is not the author of this like");
 
-            verify(likeRepository).findById(LIKE_ID);
+            verify(likeRepository).findByPostIdAndUserId(POST_ID, USER_ID);
             verify(likeRepository, never()).delete(any());
         }
 
@@ -248,10 +260,10 @@ class LikeServiceTest {
                     .user(testUser)
                     .build();
 
-            when(likeRepository.findById(LIKE_ID)).thenReturn(Optional.of(existingLike));
+            when(likeRepository.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.of(existingLike));
             when(cacheManager.getCache("likes")).thenReturn(cache);
 
-            likeService.unlike(LIKE_ID, USER_ID);
+            likeService.unlike(POST_ID, USER_ID);
 
             verify(cacheManager).getCache("likes");
         }
@@ -285,8 +297,8 @@ class LikeServiceTest {
 
             assertThat(result).isNotNull();
             assertThat(result.getTotalElements()).isEqualTo(2);
-            assertThat(result.getContent().get(0).id()).isEqualTo(LIKE_ID);
-            assertThat(result.getContent().get(1).id()).isEqualTo(LIKE_ID + 1);
+            assertThat(result.getContent().get(0).likeId()).isEqualTo(LIKE_ID);
+            assertThat(result.getContent().get(1).likeId()).isEqualTo(LIKE_ID + 1);
             verify(userRepository).findById(USER_ID);
             verify(likeRepository).findAllByUserOrderByCreatedAtDesc(any(User.class), any(Pageable.class));
         }
@@ -327,8 +339,8 @@ class LikeServiceTest {
             Page<LikeDto> result = likeService.getUserLikes(0, 15, USER_ID);
 
             LikeDto dto = result.getContent().get(0);
-            assertThat(dto.id()).isEqualTo(LIKE_ID);
-            assertThat(dto.post().id()).isEqualTo(POST_ID);
+            assertThat(dto.likeId()).isEqualTo(LIKE_ID);
+            assertThat(dto.postId()).isEqualTo(POST_ID);
             assertThat(dto.user().id()).isEqualTo(USER_ID);
             assertThat(dto.persona()).isNull();
         }
@@ -0,0 +1,194 @@
+package app.sim_feed.user_service.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.chats.models.Chat;
+import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.messages.models.MessageDto;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MessageGroupCommitWriterTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageGroupCommitWriter writer;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            messages.forEach(message -> message.setId(ids.incrementAndGet()));
+            return messages;
+        });
+        writer = new MessageGroupCommitWriter(messageRepository, transactionManager);
+        writer.setEnabled(true);
+        writer.setFlushIntervalMs(50);
+        writer.setMaxBatchSize(100);
+        writer.setMaxQueueSize(1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    private static Message message(String body) {
+        Chat chat = new Chat();
+        chat.setId(1L);
+        return Message.builder().body(body).chat(chat).build();
+    }
+
+    @Nested
+    @DisplayName("submit")
+    class Submit {
+
+        @Test
+        @DisplayName("should persist messages arriving within the window in one batch, in order")
+        @SuppressWarnings("unchecked")
+        void shouldBatchMessages() throws Exception {
+            writer.start();
+            List<CompletableFuture<MessageDto>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(writer.submit(message("message " + i)));
+            }
+
+            List<MessageDto> acknowledged = new ArrayList<>();
+            for (CompletableFuture<MessageDto> result : results) {
+                acknowledged.add(result.get(5, TimeUnit.SECONDS));
+            }
+
+            ArgumentCaptor<List<Message>> captor = ArgumentCaptor.forClass(List.class);
+            verify(messageRepository, atLeastOnce()).saveAll(captor.capture());
+            assertThat(captor.getAllValues().getFirst()).hasSize(5);
+            assertThat(acknowledged).extracting(MessageDto::content)
+                .containsExactly("message 0", "message 1", "message 2", "message 3", "message 4");
+            assertThat(acknowledged).extracting(MessageDto::messageId).isSorted();
+        }
+
+        @Test
+        @DisplayName("should fail fast with 503 when the queue is full")
+        void shouldRejectWhenQueueFull() throws Exception {
+            writer.setMaxQueueSize(1);
+            writer.setFlushIntervalMs(0);
+            CountDownLatch flushing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+                flushing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return new SimpleTransactionStatus();
+            });
+            writer.start();
+            CompletableFuture<MessageDto> inFlight = writer.submit(message("in flight"));
+            assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<MessageDto> queued = writer.submit(message("queued"));
+            CompletableFuture<MessageDto> rejected = writer.submit(message("rejected"));
+            release.countDown();
+
+            assertThatThrownBy(rejected::join)
+                .hasCauseInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("please retry");
+            assertThat(inFlight.get(5, TimeUnit.SECONDS).content()).isEqualTo("in flight");
+            assertThat(queued.get(5, TimeUnit.SECONDS).content()).isEqualTo("queued");
+        }
+
+        @Test
+        @DisplayName("should reject submissions when group commit is not running")
+        void shouldRejectWhenStopped() {
+            assertThatThrownBy(() -> writer.submit(message("hello")).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("flush")
+    class Flush {
+
+        @Test
+        @DisplayName("should retry rows individually so one bad message fails alone")
+        void shouldIsolateFailures() {
+            when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Message> messages = invocation.getArgument(0);
+                if (messages.stream().anyMatch(message -> message.getBody().equals("bad"))) {
+                    throw new DataIntegrityViolationException("too long");
+                }
+                messages.forEach(message -> message.setId(ids.incrementAndGet()));
+                return messages;
+            });
+            CompletableFuture<MessageDto> good = new CompletableFuture<>();
+            CompletableFuture<MessageDto> bad = new CompletableFuture<>();
+
+            writer.flush(List.of(
+                new MessageGroupCommitWriter.PendingMessage(message("good"), good),
+                new MessageGroupCommitWriter.PendingMessage(message("bad"), bad)
+            ));
+
+            assertThat(good.join().content()).isEqualTo("good");
+            assertThat(bad).isCompletedExceptionally();
+        }
+
+        @Test
+        @DisplayName("should retry with fresh entities rather than the rolled-back ones")
+        void shouldRetryWithFreshEntities() {
+            List<Long> idsAtSave = new ArrayList<>();
+            when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Message> messages = invocation.getArgument(0);
+                messages.forEach(message -> idsAtSave.add(message.getId()));
+                messages.forEach(message -> message.setId(ids.incrementAndGet()));
+                if (messages.size() > 1) {
+                    throw new DataIntegrityViolationException("batch failed");
+                }
+                return messages;
+            });
+            Message first = message("first");
+            CompletableFuture<MessageDto> firstResult = new CompletableFuture<>();
+            CompletableFuture<MessageDto> secondResult = new CompletableFuture<>();
+
+            writer.flush(List.of(
+                new MessageGroupCommitWriter.PendingMessage(first, firstResult),
+                new MessageGroupCommitWriter.PendingMessage(message("second"), secondResult)
+            ));
+
+            assertThat(idsAtSave).containsOnlyNulls().hasSize(4);
+            assertThat(firstResult.join().content()).isEqualTo("first");
+            assertThat(firstResult.join().messageId()).isNotEqualTo(first.getId());
+            assertThat(secondResult.join().content()).isEqualTo("second");
+        }
+    }
+}
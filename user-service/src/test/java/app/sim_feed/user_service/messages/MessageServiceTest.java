@@ -0,0 +1,133 @@
+package app.sim_feed.user_service.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.chats.ChatRepository;
+import app.sim_feed.user_service.chats.models.Chat;
+import app.sim_feed.user_service.messages.models.Message;
+import app.sim_feed.user_service.messages.models.MessageDto;
+import app.sim_feed.user_service.messages.models.MessageSearchCursor;
+import app.sim_feed.user_service.messages.models.MessageSearchDto;
+import app.sim_feed.user_service.messages.models.MessageSearchHit;
+import app.sim_feed.user_service.users.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MessageServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ChatRepository chatRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RecentMessageCache recentMessageCache;
+
+    @Mock
+    private MessageGroupCommitWriter groupCommitWriter;
+
+    @InjectMocks
+    private MessageService messageService;
+
+    private static final String USER_ID = "clerk_user_123";
+
+    private static MessageSearchHit hit(long id, float rank) {
+        return new MessageSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+        };
+    }
+
+    private static Message message(long id, String body) {
+        Chat chat = new Chat();
+        chat.setId(1L);
+        Message message = Message.builder().body(body).chat(chat).build();
+        message.setId(id);
+        return message;
+    }
+
+    @Nested
+    @DisplayName("searchMessages")
+    class SearchMessages {
+
+        @Test
+        @DisplayName("should return hits in rank order with a cursor to the next page")
+        void shouldKeepRankOrder() {
+            when(messageRepository.searchMessages(USER_ID, "deploy", null, null, null, 2))
+                .thenReturn(List.of(hit(9, 0.8f), hit(3, 0.5f)));
+            when(messageRepository.findAllById(List.of(9L, 3L)))
+                .thenReturn(List.of(message(3, "deploy later"), message(9, "deploy now")));
+
+            MessageSearchDto result = messageService.searchMessages(USER_ID, " deploy ", null, null, 2);
+
+            assertThat(result.messages()).extracting(MessageDto::messageId).containsExactly(9L, 3L);
+            assertThat(MessageSearchCursor.decode(result.nextCursor())).isEqualTo(new MessageSearchCursor(0.5f, 3));
+        }
+
+        @Test
+        @DisplayName("should continue after the cursor and stop when the page is short")
+        void shouldResumeFromCursor() {
+            String cursor = new MessageSearchCursor(0.5f, 3).encode();
+            when(messageRepository.searchMessages(USER_ID, "deploy", 1L, 0.5f, 3L, 2)).thenReturn(List.of(hit(2, 0.5f)));
+            when(messageRepository.findAllById(List.of(2L))).thenReturn(List.of(message(2, "deploy")));
+
+            MessageSearchDto result = messageService.searchMessages(USER_ID, "deploy", 1L, cursor, 2);
+
+            assertThat(result.messages()).hasSize(1);
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject blank queries and malformed cursors before touching the database")
+        void shouldValidateInput() {
+            assertThatThrownBy(() -> messageService.searchMessages(USER_ID, "  ", null, null, 20))
+                .isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> messageService.searchMessages(USER_ID, "deploy", null, "not-a-cursor", 20))
+                .isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> messageService.searchMessages(USER_ID, "deploy", null, null, 51))
+                .isInstanceOf(ResponseStatusException.class);
+
+            verify(messageRepository, never()).searchMessages(anyString(), anyString(), any(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should skip the hydration query when nothing matches")
+        void shouldReturnEmptyPage() {
+            when(messageRepository.searchMessages(eq(USER_ID), eq("nothing"), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+            MessageSearchDto result = messageService.searchMessages(USER_ID, "nothing", null, null, 20);
+
+            assertThat(result.messages()).isEmpty();
+            verify(messageRepository, never()).findAllById(any());
+        }
+    }
+}
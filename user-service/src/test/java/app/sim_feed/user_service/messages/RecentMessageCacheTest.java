@@ -0,0 +1,225 @@
+package app.sim_feed.user_service.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import app.sim_feed.user_service.messages.RecentMessageCache.RecentMessages;
+import app.sim_feed.user_service.messages.models.MessageDto;
+
+class RecentMessageCacheTest {
+
+    private static final Long CHAT_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private RecentMessageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RecentMessageCache();
+        cache.setCapacity(5);
+        cache.setIdleEvictionMs(60_000);
+        cache.setMaxAgeMs(60_000);
+        cache.setBrokerMode("simple");
+        loads = new AtomicInteger();
+    }
+
+    private static MessageDto message(long id) {
+        return new MessageDto(id, CHAT_ID, "message " + id, null, null, START.plusSeconds(id));
+    }
+
+    // Simulates the repository returning the newest messages of a chat holding ids 1..total.
+    private Function<Integer, Page<MessageDto>> loader(long total) {
+        return limit -> {
+            loads.incrementAndGet();
+            List<MessageDto> newest = LongStream.iterate(total, id -> id > 0 && id > total - limit, id -> id - 1)
+                .mapToObj(RecentMessageCacheTest::message)
+                .toList();
+            return new PageImpl<>(newest, PageRequest.of(0, limit), total);
+        };
+    }
+
+    private static List<Long> ids(RecentMessages recent) {
+        return recent.messages().stream().map(MessageDto::messageId).toList();
+    }
+
+    @Nested
+    @DisplayName("latest")
+    class Latest {
+
+        @Test
+        @DisplayName("should load from the database on first read only")
+        void shouldLoadOnce() {
+            RecentMessages first = cache.latest(CHAT_ID, 3, loader(20));
+            RecentMessages second = cache.latest(CHAT_ID, 3, loader(20));
+
+            assertThat(ids(first)).containsExactly(20L, 19L, 18L);
+            assertThat(ids(second)).containsExactly(20L, 19L, 18L);
+            assertThat(first.totalElements()).isEqualTo(20);
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should serve appended messages newest first without reloading")
+        void shouldServeAppendedMessages() {
+            cache.latest(CHAT_ID, 5, loader(3));
+
+            cache.append(message(4));
+            cache.append(message(5));
+            RecentMessages recent = cache.latest(CHAT_ID, 5, loader(3));
+
+            assertThat(ids(recent)).containsExactly(5L, 4L, 3L, 2L, 1L);
+            assertThat(recent.totalElements()).isEqualTo(5);
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should keep only the newest messages once the ring wraps")
+        void shouldWrapRing() {
+            cache.latest(CHAT_ID, 5, loader(0));
+
+            LongStream.rangeClosed(1, 12).forEach(id -> cache.append(message(id)));
+
+            assertThat(ids(cache.latest(CHAT_ID, 5, loader(0)))).containsExactly(12L, 11L, 10L, 9L, 8L);
+        }
+
+        @Test
+        @DisplayName("should not duplicate messages present in both the load and the ring")
+        void shouldDeduplicate() {
+            cache.latest(CHAT_ID, 5, loader(2));
+
+            cache.append(message(2));
+            cache.append(message(3));
+
+            assertThat(ids(cache.latest(CHAT_ID, 5, loader(2)))).containsExactly(3L, 2L, 1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("after")
+    class After {
+
+        @Test
+        @DisplayName("should return newer messages oldest first when the buffer covers the gap")
+        void shouldReturnMissedMessages() {
+            cache.latest(CHAT_ID, 5, loader(10));
+            cache.append(message(11));
+
+            assertThat(cache.after(CHAT_ID, 8)).hasValueSatisfying(missed ->
+                assertThat(missed).extracting(MessageDto::messageId).containsExactly(9L, 10L, 11L));
+        }
+
+        @Test
+        @DisplayName("should defer to the database when the gap reaches past the buffer")
+        void shouldMissWhenGapTooOld() {
+            cache.latest(CHAT_ID, 5, loader(10));
+
+            assertThat(cache.after(CHAT_ID, 2)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not bridge loaded rows and live messages once the ring has wrapped")
+        void shouldMissAfterWrap() {
+            cache.latest(CHAT_ID, 5, loader(10));
+            LongStream.rangeClosed(11, 20).forEach(id -> cache.append(message(id)));
+
+            assertThat(cache.after(CHAT_ID, 7)).isEmpty();
+            assertThat(cache.after(CHAT_ID, 17)).hasValueSatisfying(missed ->
+                assertThat(missed).extracting(MessageDto::messageId).containsExactly(18L, 19L, 20L));
+        }
+
+        @Test
+        @DisplayName("should defer to the database in relay mode even when the buffer seems to cover the gap")
+        void shouldMissInRelayMode() {
+            cache.latest(CHAT_ID, 5, loader(10));
+            cache.append(message(11));
+            cache.setBrokerMode("relay");
+
+            assertThat(cache.after(CHAT_ID, 8)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should defer to the database for chats without a buffer")
+        void shouldMissWhenCold() {
+            assertThat(cache.after(CHAT_ID, 1)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("append")
+    class Append {
+
+        @Test
+        @DisplayName("should ignore chats that have not been read yet")
+        void shouldSkipColdChats() {
+            cache.append(message(1));
+
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("eviction")
+    class Eviction {
+
+        @Test
+        @DisplayName("should drop buffers that have been idle past the window")
+        void shouldEvictIdleBuffers() {
+            cache.setIdleEvictionMs(-1);
+            cache.latest(CHAT_ID, 1, loader(1));
+
+            cache.evictIdle();
+
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reload buffers past their maximum age in relay mode even while they are read")
+        void shouldReloadAgedBuffersInRelayMode() {
+            cache.setBrokerMode("relay");
+            cache.setMaxAgeMs(-1);
+            cache.latest(CHAT_ID, 3, loader(10));
+
+            RecentMessages reloaded = cache.latest(CHAT_ID, 3, loader(12));
+
+            assertThat(ids(reloaded)).containsExactly(12L, 11L, 10L);
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should ignore the maximum age when messages only go through this instance")
+        void shouldKeepAgedBuffersWithSimpleBroker() {
+            cache.setMaxAgeMs(-1);
+            cache.latest(CHAT_ID, 3, loader(10));
+
+            cache.latest(CHAT_ID, 3, loader(12));
+            cache.evictIdle();
+
+            assertThat(loads).hasValue(1);
+            assertThat(cache.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should keep recently read buffers")
+        void shouldKeepActiveBuffers() {
+            cache.latest(CHAT_ID, 1, loader(1));
+
+            cache.evictIdle();
+
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package app.sim_feed.user_service.post;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class EngagementCatchUpTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Instant POSTED = NOW.minusSeconds(3600);
+
+    private JdbcTemplate jdbcTemplate;
+    private TrendingPostEngine engine;
+    private EngagementCatchUp catchUp;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        engine = mock(TrendingPostEngine.class);
+        catchUp = new EngagementCatchUp(jdbcTemplate, engine);
+        catchUp.setEnabled(true);
+        catchUp.setBatchSize(100);
+        catchUp.setMaxBatchesPerRun(5);
+        catchUp.setMaxAgeHours(48);
+        when(jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class)).thenReturn(Timestamp.from(NOW));
+    }
+
+    private void likesReturn(ResultSet... rows) {
+        doAnswer(invocation -> {
+            for (ResultSet row : rows) {
+                invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM likes l"), any(RowCallbackHandler.class), any(), any(), any());
+    }
+
+    private static ResultSet row(long id, Instant createdAt) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getLong("post_id")).thenReturn(7L);
+        when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC));
+        when(rs.getObject("post_created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.ofInstant(POSTED, ZoneOffset.UTC));
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.from(createdAt));
+        return rs;
+    }
+
+    @Test
+    @DisplayName("should count a like read again inside the overlap window only once")
+    void shouldCountRescannedLikeOnce() throws SQLException {
+        ResultSet like = row(1, NOW.minusSeconds(5));
+        likesReturn(like);
+
+        catchUp.catchUp();
+        catchUp.catchUp();
+
+        verify(engine, times(1)).record(7L, POSTED.toEpochMilli(), NOW.minusSeconds(5).toEpochMilli(), TrendingPostEngine.LIKE_WEIGHT);
+    }
+
+    @Test
+    @DisplayName("should pick up a like that committed after later likes were read")
+    void shouldPickUpLateCommit() throws SQLException {
+        likesReturn(row(2, NOW.minusSeconds(5)));
+        catchUp.catchUp();
+
+        likesReturn(row(1, NOW.minusSeconds(10)), row(2, NOW.minusSeconds(5)));
+        catchUp.catchUp();
+
+        verify(engine).record(7L, POSTED.toEpochMilli(), NOW.minusSeconds(10).toEpochMilli(), TrendingPostEngine.LIKE_WEIGHT);
+        verify(engine, times(2)).record(anyLong(), anyLong(), anyLong(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("should retract a counted like at its original time")
+    void shouldRetractCountedLike() throws SQLException {
+        likesReturn(row(1, NOW.minusSeconds(5)));
+        catchUp.catchUp();
+
+        catchUp.retractLike(1, 7, NOW.minusSeconds(5).toEpochMilli());
+
+        verify(engine).retract(7L, NOW.minusSeconds(5).toEpochMilli(), TrendingPostEngine.LIKE_WEIGHT);
+    }
+
+    @Test
+    @DisplayName("should not retract a recent like that was never counted")
+    void shouldSkipUncountedLike() throws SQLException {
+        likesReturn();
+        catchUp.catchUp();
+
+        catchUp.retractLike(1, 7, NOW.minusSeconds(5).toEpochMilli());
+
+        verify(engine, never()).retract(anyLong(), anyLong(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("should retract a like older than the rescan window")
+    void shouldRetractOldLike() {
+        likesReturn();
+        catchUp.catchUp();
+
+        catchUp.retractLike(1, 7, NOW.minusSeconds(3600).toEpochMilli());
+
+        verify(engine).retract(eq(7L), eq(NOW.minusSeconds(3600).toEpochMilli()), eq(TrendingPostEngine.LIKE_WEIGHT));
+    }
+
+    @Test
+    @DisplayName("should read nothing while disabled")
+    void shouldSkipWhenDisabled() {
+        catchUp.setEnabled(false);
+
+        catchUp.catchUp();
+
+        verify(jdbcTemplate, never()).queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+        verify(engine, never()).record(anyLong(), anyLong(), anyLong(), anyDouble());
+    }
+}
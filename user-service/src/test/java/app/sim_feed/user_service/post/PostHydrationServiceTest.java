@@ -0,0 +1,134 @@
+package app.sim_feed.user_service.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import app.sim_feed.user_service.comment.CommentRepository;
+import app.sim_feed.user_service.like.LikeRepository;
+import app.sim_feed.user_service.like.models.ViewerLike;
+import app.sim_feed.user_service.persona.models.Persona;
+import app.sim_feed.user_service.post.models.HydratedPostDto;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostCount;
+
+class PostHydrationServiceTest {
+
+    private static final String VIEWER_ID = "user_a";
+
+    private PostRepository postRepository;
+    private LikeRepository likeRepository;
+    private CommentRepository commentRepository;
+    private PostHydrationService postHydrationService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        likeRepository = mock(LikeRepository.class);
+        commentRepository = mock(CommentRepository.class);
+        postHydrationService = new PostHydrationService(postRepository, likeRepository, commentRepository,
+            new ConcurrentMapCacheManager(PostHydrationService.CACHE_NAME));
+    }
+
+    private static Post post(long id) {
+        Persona persona = new Persona();
+        persona.setPersonaId(1L);
+        persona.setUsername("agent");
+        return Post.builder().id(id).title("title " + id).body("body").personaAuthor(persona).build();
+    }
+
+    private static PostCount count(long postId, long total) {
+        return new PostCount() {
+            @Override
+            public Long getPostId() {
+                return postId;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static ViewerLike viewerLike(long postId, long likeId) {
+        return new ViewerLike() {
+            @Override
+            public Long getPostId() {
+                return postId;
+            }
+
+            @Override
+            public Long getLikeId() {
+                return likeId;
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("hydrate")
+    class Hydrate {
+
+        @Test
+        @DisplayName("should return posts in request order with counts and the viewer's like")
+        void shouldHydratePosts() {
+            when(postRepository.findAllWithAuthorsByIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(post(1L), post(3L)));
+            when(likeRepository.countByPostIds(List.of(3L, 1L, 2L))).thenReturn(List.of(count(3L, 4L)));
+            when(commentRepository.countByPostIds(List.of(3L, 1L, 2L))).thenReturn(List.of(count(1L, 2L)));
+            when(likeRepository.findViewerLikes(VIEWER_ID, Set.of(1L, 3L))).thenReturn(List.of(viewerLike(3L, 99L)));
+
+            List<HydratedPostDto> result = postHydrationService.hydrate(List.of(3L, 1L, 2L, 3L), VIEWER_ID);
+
+            assertThat(result).extracting(hydrated -> hydrated.post().id()).containsExactly(3L, 1L);
+            assertThat(result.get(0).likeCount()).isEqualTo(4L);
+            assertThat(result.get(0).viewerLikeId()).isEqualTo(99L);
+            assertThat(result.get(1).commentCount()).isEqualTo(2L);
+            assertThat(result.get(1).viewerLikeId()).isNull();
+        }
+
+        @Test
+        @DisplayName("should serve cached summaries and only look up the viewer's likes")
+        void shouldUseCache() {
+            when(postRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(List.of(post(1L)));
+
+            postHydrationService.hydrate(List.of(1L), VIEWER_ID);
+            List<HydratedPostDto> result = postHydrationService.hydrate(List.of(1L), "user_b");
+
+            assertThat(result).hasSize(1);
+            verify(postRepository, times(1)).findAllWithAuthorsByIdIn(anyCollection());
+            verify(likeRepository).findViewerLikes("user_b", Set.of(1L));
+        }
+
+        @Test
+        @DisplayName("should reload a post after its summary is evicted")
+        void shouldReloadAfterEvict() {
+            when(postRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(List.of(post(1L)));
+            postHydrationService.hydrate(List.of(1L), VIEWER_ID);
+
+            postHydrationService.evict(1L);
+            postHydrationService.hydrate(List.of(1L), VIEWER_ID);
+
+            verify(postRepository, times(2)).findAllWithAuthorsByIdIn(anyCollection());
+        }
+
+        @Test
+        @DisplayName("should skip the viewer lookup when no post exists")
+        void shouldSkipMissingPosts() {
+            assertThat(postHydrationService.hydrate(List.of(5L), VIEWER_ID)).isEmpty();
+            verify(likeRepository, never()).findViewerLikes(VIEWER_ID, Set.of(5L));
+        }
+    }
+}
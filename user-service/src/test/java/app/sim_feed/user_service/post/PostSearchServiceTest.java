@@ -0,0 +1,133 @@
+package app.sim_feed.user_service.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.persona.models.Persona;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.post.models.PostSearchCursor;
+import app.sim_feed.user_service.post.models.PostSearchDto;
+import app.sim_feed.user_service.post.models.PostSearchHit;
+
+class PostSearchServiceTest {
+
+    private PostRepository postRepository;
+    private PostSearchService postSearchService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        postSearchService = new PostSearchService(postRepository, new ConcurrentMapCacheManager(PostSearchService.CACHE_NAME));
+        postSearchService.setMaxCandidates(1000);
+        postSearchService.setWindowDays(30);
+    }
+
+    private static PostSearchHit hit(long id, double score) {
+        return new PostSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getScore() {
+                return score;
+            }
+        };
+    }
+
+    private static Post post(long id) {
+        Persona persona = new Persona();
+        persona.setPersonaId(1L);
+        persona.setUsername("agent");
+        return Post.builder().id(id).title("title " + id).body("body").personaAuthor(persona).build();
+    }
+
+    @Nested
+    @DisplayName("searchPosts")
+    class SearchPosts {
+
+        @Test
+        @DisplayName("should return posts in score order with a cursor for the next page")
+        void shouldReturnRankedPage() {
+            when(postRepository.searchPosts(eq("rust"), any(), any(), eq(1000), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(hit(7, 0.9), hit(4, 0.4)));
+            when(postRepository.findAllById(List.of(7L, 4L))).thenReturn(List.of(post(4), post(7)));
+
+            PostSearchDto result = postSearchService.searchPosts("rust", null, 2);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(7L, 4L);
+            PostSearchCursor cursor = PostSearchCursor.decode(result.nextCursor());
+            assertThat(cursor.score()).isEqualTo(0.4);
+            assertThat(cursor.postId()).isEqualTo(4L);
+        }
+
+        @Test
+        @DisplayName("should score later pages against the time pinned in the cursor")
+        void shouldReuseCursorClock() {
+            Instant asOf = Instant.parse("2026-01-01T00:00:00Z");
+            String cursor = new PostSearchCursor(asOf, 0.4, 4).encode();
+            when(postRepository.searchPosts(anyString(), any(), any(), anyInt(), any(), any(), anyInt())).thenReturn(List.of());
+
+            postSearchService.searchPosts("rust", cursor, 2);
+
+            verify(postRepository).searchPosts("rust", OffsetDateTime.ofInstant(asOf, ZoneOffset.UTC), OffsetDateTime.ofInstant(asOf, ZoneOffset.UTC).minusDays(30), 1000, 0.4, 4L, 2);
+        }
+
+        @Test
+        @DisplayName("should answer repeated queries from the cache regardless of case and spacing")
+        void shouldCachePopularQueries() {
+            when(postRepository.searchPosts(anyString(), any(), any(), anyInt(), any(), any(), anyInt())).thenReturn(List.of());
+
+            postSearchService.searchPosts("Rust  Async", null, 20);
+            postSearchService.searchPosts(" rust async", null, 20);
+
+            verify(postRepository, times(1)).searchPosts(eq("rust async"), any(), any(), anyInt(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should run the query again after the cache is evicted")
+        void shouldRefreshAfterEviction() {
+            when(postRepository.searchPosts(anyString(), any(), any(), anyInt(), any(), any(), anyInt())).thenReturn(List.of());
+
+            postSearchService.searchPosts("rust", null, 20);
+            postSearchService.evictAll();
+            postSearchService.searchPosts("rust", null, 20);
+
+            verify(postRepository, times(2)).searchPosts(eq("rust"), any(), any(), anyInt(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should reject invalid input without querying")
+        void shouldValidateInput() {
+            assertThatThrownBy(() -> postSearchService.searchPosts(" ", null, 20)).isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> postSearchService.searchPosts("rust", "%%%", 20)).isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> postSearchService.searchPosts("rust", null, 0)).isInstanceOf(ResponseStatusException.class);
+
+            verify(postRepository, never()).searchPosts(anyString(), any(), any(), anyInt(), any(), any(), anyInt());
+        }
+    }
+}
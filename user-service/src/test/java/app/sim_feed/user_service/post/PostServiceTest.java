@@ -22,6 +22,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.feed.AuthorPostIndex;
+import app.sim_feed.user_service.feed.HomeFeedService;
 import app.sim_feed.user_service.post.models.NewPostDto;
 import app.sim_feed.user_service.post.models.Post;
 import app.sim_feed.user_service.post.models.PostDto;
@@ -37,6 +39,21 @@ class PostServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PostSearchService postSearchService;
+
+    @Mock
+    private AuthorPostIndex authorPostIndex;
+
+    @Mock
+    private HomeFeedService homeFeedService;
+
+    @Mock
+    private TrendingPostService trendingPostService;
+
+    @Mock
+    private PostHydrationService postHydrationService;
+
     @InjectMocks
     private PostService postService;
 
@@ -79,8 +96,8 @@ class PostServiceTest {
             assertThat(result.id()).isEqualTo(1L);
             assertThat(result.title()).isEqualTo("Valid Title");
             assertThat(result.body()).isEqualTo("Valid body content");
-            assertThat(result.user()).isNotNull();
-            assertThat(result.user().id()).isEqualTo(USER_ID);
+            assertThat(result.userAuthor()).isNotNull();
+            assertThat(result.userAuthor().id()).isEqualTo(USER_ID);
             verify(userService).getUserById(USER_ID);
             verify(postRepository).save(any(Post.class));
         }
@@ -254,7 +271,7 @@ class PostServiceTest {
     class DeletePost {
 
         @Test
-        @DisplayName("should delete post successfully when user owns the post")
+        @DisplayName("should tombstone the post when user owns it")
         void shouldDeletePostSuccessfully() {
             Long postId = 1L;
             Post existingPost = Post.builder()
@@ -271,7 +288,9 @@ class PostServiceTest {
             postService.deletePost(postId, USER_ID);
 
             verify(postRepository).findByIdAndUserAuthorClerkId(postId, USER_ID);
-            verify(postRepository).delete(existingPost);
+            verify(postRepository).tombstone(postId);
+            verify(postRepository, never()).delete(any());
+            verify(postHydrationService).evict(postId);
         }
 
         @Test
@@ -289,6 +308,7 @@ class PostServiceTest {
 
             verify(postRepository).findByIdAndUserAuthorClerkId(postId, differentUserId);
             verify(postRepository, never()).delete(any());
+            verify(postRepository, never()).tombstone(any());
         }
 
         @Test
@@ -305,6 +325,7 @@ class PostServiceTest {
 
             verify(postRepository).findByIdAndUserAuthorClerkId(nonexistentPostId, USER_ID);
             verify(postRepository, never()).delete(any());
+            verify(postRepository, never()).tombstone(any());
         }
     }
 }
@@ -0,0 +1,131 @@
+package app.sim_feed.user_service.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TrendingPostEngineTest {
+
+    private static final long START = TimeUnit.DAYS.toMillis(20_000);
+
+    private TrendingPostEngine engine;
+    private final AtomicLong now = new AtomicLong(START);
+
+    @BeforeEach
+    void setUp() {
+        engine = new TrendingPostEngine();
+        engine.setHalfLifeMinutes(60);
+        engine.setTopK(2);
+        engine.setMaxTracked(3);
+        engine.setMaxAgeHours(48);
+        engine.setClock(now::get);
+        engine.refresh();
+    }
+
+    private void advanceMinutes(long minutes) {
+        now.addAndGet(TimeUnit.MINUTES.toMillis(minutes));
+    }
+
+    private void like(long postId) {
+        engine.record(postId, START, now.get(), TrendingPostEngine.LIKE_WEIGHT);
+    }
+
+    @Nested
+    @DisplayName("top")
+    class Top {
+
+        @Test
+        @DisplayName("should rank posts by engagement and keep only the top k")
+        void shouldRankTopK() {
+            like(1);
+            like(2);
+            like(2);
+            engine.record(3, START, now.get(), TrendingPostEngine.COMMENT_WEIGHT * 2);
+
+            engine.refresh();
+
+            assertThat(engine.top(10)).extracting(TrendingPostEngine.TrendingScore::postId).containsExactly(3L, 2L);
+        }
+
+        @Test
+        @DisplayName("should halve a score every half-life so fresh engagement overtakes old")
+        void shouldDecayScores() {
+            like(1);
+            like(1);
+            advanceMinutes(120);
+            like(2);
+
+            engine.refresh();
+
+            assertThat(engine.top(2)).extracting(TrendingPostEngine.TrendingScore::postId).containsExactly(2L, 1L);
+            assertThat(engine.top(2).get(1).score()).isCloseTo(0.5, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("should keep scores stable across a rebase")
+        void shouldRebase() {
+            like(1);
+            advanceMinutes(60 * 40);
+            engine.refresh();
+
+            assertThat(engine.top(1).getFirst().score()).isCloseTo(Math.pow(2, -40), within(1e-15));
+        }
+    }
+
+    @Nested
+    @DisplayName("retract")
+    class Retract {
+
+        @Test
+        @DisplayName("should cancel exactly what the engagement added at its original time")
+        void shouldCancelOriginalWeight() {
+            like(1);
+            long likedAt = now.get();
+            like(1);
+            advanceMinutes(90);
+
+            engine.retract(1, likedAt, TrendingPostEngine.LIKE_WEIGHT);
+            engine.refresh();
+
+            assertThat(engine.top(1).getFirst().score()).isCloseTo(Math.pow(2, -1.5), within(1e-9));
+        }
+
+        @Test
+        @DisplayName("should not start tracking a post it has never seen")
+        void shouldSkipUntrackedPost() {
+            engine.retract(7, now.get(), TrendingPostEngine.LIKE_WEIGHT);
+
+            assertThat(engine.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh")
+    class Refresh {
+
+        @Test
+        @DisplayName("should drop deleted, too-old and lowest-scoring posts")
+        void shouldPrune() {
+            like(1);
+            like(2);
+            like(3);
+            like(3);
+            like(4);
+            like(4);
+            engine.record(5, START - TimeUnit.HOURS.toMillis(49), now.get(), TrendingPostEngine.LIKE_WEIGHT);
+            engine.remove(1);
+
+            engine.refresh();
+
+            assertThat(engine.size()).isEqualTo(3);
+            assertThat(engine.top(2)).extracting(TrendingPostEngine.TrendingScore::postId).containsExactlyInAnyOrder(3L, 4L);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package app.sim_feed.user_service.post;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.sim_feed.user_service.like.models.Like;
+import app.sim_feed.user_service.post.models.Post;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingPostServiceTest {
+
+    @Mock
+    private TrendingPostEngine trendingPostEngine;
+
+    @Mock
+    private EngagementCatchUp engagementCatchUp;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private TrendingPostService trendingPostService;
+
+    @Test
+    @DisplayName("should retract an unlike at the time the like was made")
+    void shouldRetractAtLikeTime() {
+        OffsetDateTime likedAt = OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        Like like = Like.builder()
+                .id(100L)
+                .post(Post.builder().id(1L).build())
+                .createdAt(likedAt)
+                .build();
+
+        trendingPostService.recordUnlike(like);
+
+        verify(engagementCatchUp).retractLike(100L, 1L, likedAt.toInstant().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("should skip a like without a creation time")
+    void shouldSkipLikeWithoutCreatedAt() {
+        Like like = Like.builder()
+                .id(100L)
+                .post(Post.builder().id(1L).build())
+                .build();
+
+        trendingPostService.recordUnlike(like);
+
+        verify(engagementCatchUp, never()).retractLike(anyLong(), anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,98 @@
+package app.sim_feed.user_service.purge;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TombstonePurgerTest {
+
+    private static final Long POST_ID = 5L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TombstonePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        purger = new TombstonePurger(jdbcTemplate);
+        purger.setBatchSize(100);
+        purger.setPauseMs(0);
+        purger.setMaxBatchesPerRun(50);
+        purger.setRootsPerRun(10);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM posts"), eq(Long.class), anyInt())).thenReturn(List.of(POST_ID));
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM chats"), eq(Long.class), anyInt())).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyInt())).thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("purge")
+    class Purge {
+
+        @Test
+        @DisplayName("should delete children in batches until drained, then the tombstoned root")
+        void shouldDrainChildrenThenRoot() {
+            when(jdbcTemplate.update(startsWith("DELETE FROM comments"), eq(POST_ID), eq(100))).thenReturn(100, 100, 40);
+
+            purger.purge();
+
+            verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM comments"), eq(POST_ID), eq(100));
+            verify(jdbcTemplate, times(1)).update(startsWith("DELETE FROM likes"), eq(POST_ID), eq(100));
+            verify(jdbcTemplate).update("DELETE FROM posts WHERE id = ?", POST_ID);
+        }
+
+        @Test
+        @DisplayName("should stop at the batch budget and leave the root for the next run")
+        void shouldRespectBudget() {
+            purger.setMaxBatchesPerRun(5);
+            when(jdbcTemplate.update(startsWith("DELETE FROM comments"), eq(POST_ID), eq(100))).thenReturn(100);
+
+            purger.purge();
+
+            verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM comments"), eq(POST_ID), eq(100));
+            verify(jdbcTemplate, never()).update("DELETE FROM posts WHERE id = ?", POST_ID);
+            verify(jdbcTemplate, never()).queryForList(startsWith("SELECT id FROM chats"), eq(Long.class), anyInt());
+        }
+
+        @Test
+        @DisplayName("should keep going with other roots when one cannot be purged yet")
+        void shouldSkipFailingRoot() {
+            when(jdbcTemplate.queryForList(startsWith("SELECT id FROM posts"), eq(Long.class), anyInt())).thenReturn(List.of(POST_ID, 6L));
+            when(jdbcTemplate.update("DELETE FROM posts WHERE id = ?", POST_ID)).thenThrow(new DataIntegrityViolationException("still referenced"));
+
+            purger.purge();
+
+            verify(jdbcTemplate).update("DELETE FROM posts WHERE id = ?", 6L);
+        }
+
+        @Test
+        @DisplayName("should not let an unexpected exception escape the scheduled pass")
+        void shouldSwallowUnexpectedFailures() {
+            when(jdbcTemplate.queryForList(startsWith("SELECT id FROM posts"), eq(Long.class), anyInt())).thenThrow(new IllegalStateException("pool closed"));
+
+            assertThatCode(() -> purger.purge()).doesNotThrowAnyException();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package app.sim_feed.user_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderedChannelExecutorTest {
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderedChannelExecutor executor = new OrderedChannelExecutor(
+        "inbound", virtualThreads, OrderedChannelExecutor::sessionKey, meterRegistry
+    );
+
+    @AfterEach
+    void shutdown() {
+        virtualThreads.shutdownNow();
+    }
+
+    private static Message<String> frame(String destination, String sessionId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(destination);
+        headers.setSessionId(sessionId);
+        return MessageBuilder.createMessage("", headers.getMessageHeaders());
+    }
+
+    private static MessageHandlingRunnable task(Message<?> message, Runnable body) {
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> body.run();
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nested
+    @DisplayName("key resolution")
+    class KeyResolution {
+
+        @Test
+        @DisplayName("should key every frame by its session")
+        void shouldKeyBySession() {
+            assertThat(OrderedChannelExecutor.sessionKey(frame("/app/chats/7/message", "s1"))).isEqualTo("session:s1");
+            assertThat(OrderedChannelExecutor.sessionKey(frame("/topic/chats/7", "s2"))).isEqualTo("session:s2");
+            assertThat(OrderedChannelExecutor.sessionKey(frame(null, "s1"))).isEqualTo("session:s1");
+        }
+    }
+
+    @Nested
+    @DisplayName("execute")
+    class Execute {
+
+        @Test
+        @DisplayName("should run a session's frames in submission order across chats")
+        void shouldPreservePerSessionOrder() throws InterruptedException {
+            int perSession = 2_000;
+            List<Integer> sessionOne = new CopyOnWriteArrayList<>();
+            List<Integer> sessionTwo = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(perSession * 2);
+
+            for (int i = 0; i < perSession; i++) {
+                int sequence = i;
+                executor.execute(task(frame("/app/chats/" + (i % 5) + "/message", "s1"), () -> {
+                    sessionOne.add(sequence);
+                    done.countDown();
+                }));
+                executor.execute(task(frame("/app/chats/" + (i % 5) + "/message", "s2"), () -> {
+                    sessionTwo.add(sequence);
+                    done.countDown();
+                }));
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(sessionOne).isSorted().hasSize(perSession);
+            assertThat(sessionTwo).isSorted().hasSize(perSession);
+        }
+
+        @Test
+        @DisplayName("should not let a frame without a destination overtake the session's subscribe")
+        void shouldOrderControlFramesWithSubscribe() throws InterruptedException {
+            List<String> handled = new CopyOnWriteArrayList<>();
+            CountDownLatch subscribeStarted = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+
+            executor.execute(task(frame("/topic/chats/1", "s1"), () -> {
+                subscribeStarted.countDown();
+                sleepQuietly(50);
+                handled.add("SUBSCRIBE");
+                done.countDown();
+            }));
+            assertThat(subscribeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(task(frame(null, "s1"), () -> {
+                handled.add("DISCONNECT");
+                done.countDown();
+            }));
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(handled).containsExactly("SUBSCRIBE", "DISCONNECT");
+        }
+
+        @Test
+        @DisplayName("should keep draining a chat after a handler fails")
+        void shouldSurviveFailingTask() throws InterruptedException {
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute(task(frame("/app/chats/1/message", "s1"), () -> {
+                throw new IllegalStateException("boom");
+            }));
+            executor.execute(task(frame("/app/chats/1/message", "s1"), done::countDown));
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should release idle lanes and report queue depth and latency")
+        void shouldRecordMetrics() throws InterruptedException {
+            CountDownLatch done = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++) {
+                executor.execute(task(frame("/app/chats/" + i + "/message", "s1"), done::countDown));
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (executor.activeLanes() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(executor.activeLanes()).isZero();
+            assertThat(meterRegistry.get("websocket.channel.queue.depth").tag("channel", "inbound").gauge().value()).isZero();
+            assertThat(meterRegistry.get("websocket.channel.task.wait").timer().count()).isEqualTo(3);
+            assertThat(meterRegistry.get("websocket.channel.task.execution").timer().count()).isEqualTo(3);
+        }
+    }
+}
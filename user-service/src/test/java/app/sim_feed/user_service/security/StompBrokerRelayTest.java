@@ -0,0 +1,235 @@
+package app.sim_feed.user_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Runs two broker relay "nodes" against an embedded Artemis broker to check that
+ * /topic/chats/{chatId} fan-out crosses instances. Run the benchmark with
+ * {@code ./mvnw test -Dtest=StompBrokerRelayTest -Dbenchmark=true}; it fails when p99 latency exceeds
+ * {@code benchmark.max-p99-ms} or throughput drops below {@code benchmark.min-throughput}.
+ */
+class StompBrokerRelayTest {
+
+    private static final String CHAT_TOPIC = "/topic/chats/1";
+
+    private static EmbeddedActiveMQ broker;
+    private static Path brokerDirectory;
+    private static int brokerPort;
+
+    private RelayNode publisherNode;
+    private RelayNode subscriberNode;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        brokerPort = freePort();
+        brokerDirectory = Files.createTempDirectory("artemis");
+        Configuration configuration = new ConfigurationImpl()
+            .setPersistenceEnabled(false)
+            .setSecurityEnabled(false);
+        configuration.setBrokerInstance(brokerDirectory.toFile());
+        configuration.addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + brokerPort + "?protocols=STOMP;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        broker.start();
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        broker.stop();
+    }
+
+    @BeforeEach
+    void startNodes() throws Exception {
+        publisherNode = new RelayNode("node-a", brokerPort);
+        subscriberNode = new RelayNode("node-b", brokerPort);
+        subscriberNode.subscribe("session-1", CHAT_TOPIC);
+    }
+
+    @AfterEach
+    void stopNodes() {
+        publisherNode.stop();
+        subscriberNode.stop();
+    }
+
+    @Test
+    @DisplayName("should deliver a message published on one node to a subscriber on another")
+    void shouldFanOutAcrossNodes() throws Exception {
+        publisherNode.publish(CHAT_TOPIC, "hello from node-a".getBytes(StandardCharsets.UTF_8));
+
+        Message<?> delivered = subscriberNode.awaitMessage(5, TimeUnit.SECONDS);
+
+        assertThat(delivered).isNotNull();
+        assertThat(new String((byte[]) delivered.getPayload(), StandardCharsets.UTF_8)).isEqualTo("hello from node-a");
+        assertThat(StompHeaderAccessor.wrap(delivered).getSessionId()).isEqualTo("session-1");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark: end-to-end delivery latency and throughput across two nodes")
+    void benchmarkCrossNodeDelivery() throws Exception {
+        quietLogging();
+        int roundTrips = Integer.getInteger("benchmark.round-trips", 5_000);
+        int messages = Integer.getInteger("benchmark.messages", 50_000);
+        int maxP99Ms = Integer.getInteger("benchmark.max-p99-ms", 25);
+        int minThroughput = Integer.getInteger("benchmark.min-throughput", 2_000);
+
+        BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+        subscriberNode.onMessage(message -> arrivals.add(System.nanoTime() - ByteBuffer.wrap((byte[]) message.getPayload()).getLong()));
+        long[] latencies = new long[roundTrips];
+        for (int i = -500; i < roundTrips; i++) {
+            publisherNode.publish(CHAT_TOPIC, timestamp());
+            Long latency = arrivals.poll(5, TimeUnit.SECONDS);
+            assertThat(latency).isNotNull();
+            if (i >= 0) {
+                latencies[i] = latency;
+            }
+        }
+        Arrays.sort(latencies);
+
+        CountDownLatch delivered = new CountDownLatch(messages);
+        subscriberNode.onMessage(message -> delivered.countDown());
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            publisherNode.publish(CHAT_TOPIC, timestamp());
+        }
+        assertThat(delivered.await(2, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        double p99Ms = latencies[(int) (roundTrips * 0.99)] / 1_000_000.0;
+        double throughput = messages / seconds;
+
+        assertThat(p99Ms).as("p99 cross-node latency in ms over %d round trips", roundTrips).isLessThanOrEqualTo(maxP99Ms);
+        assertThat(throughput).as("cross-node throughput in msg/s over %d messages", messages).isGreaterThanOrEqualTo(minThroughput);
+    }
+
+    private static byte[] timestamp() {
+        return ByteBuffer.allocate(Long.BYTES).putLong(System.nanoTime()).array();
+    }
+
+    private static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class RelayNode {
+        private final ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        private final ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        private final BlockingQueue<Message<?>> frames = new LinkedBlockingQueue<>();
+        private final StompBrokerRelayMessageHandler relay;
+        private volatile Consumer<Message<?>> listener;
+
+        RelayNode(String name, int port) throws InterruptedException {
+            relay = new StompBrokerRelayMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/topic"));
+            relay.setRelayHost("127.0.0.1");
+            relay.setRelayPort(port);
+            relay.setSystemHeartbeatSendInterval(0);
+            relay.setSystemHeartbeatReceiveInterval(0);
+            clientOutboundChannel.subscribe(message -> {
+                Consumer<Message<?>> current = listener;
+                if (current != null && StompHeaderAccessor.wrap(message).getCommand() == StompCommand.MESSAGE) {
+                    current.accept(message);
+                } else {
+                    frames.add(message);
+                }
+            });
+            relay.start();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(relay.isBrokerAvailable()).as(name + " connected to broker").isTrue();
+        }
+
+        void subscribe(String sessionId, String destination) throws InterruptedException {
+            StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+            connect.setSessionId(sessionId);
+            connect.setAcceptVersion("1.2");
+            connect.setHeartbeat(0, 0);
+            clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+            awaitCommand(StompCommand.CONNECTED);
+
+            StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            subscribe.setSessionId(sessionId);
+            subscribe.setSubscriptionId("sub-1");
+            subscribe.setDestination(destination);
+            subscribe.setReceipt("subscribed");
+            clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+            awaitCommand(StompCommand.RECEIPT);
+        }
+
+        void publish(String destination, byte[] payload) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setDestination(destination);
+            brokerChannel.send(MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+        }
+
+        void onMessage(Consumer<Message<?>> listener) {
+            this.listener = listener;
+        }
+
+        Message<?> awaitMessage(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            Message<?> frame;
+            while ((frame = frames.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+                if (StompHeaderAccessor.wrap(frame).getCommand() == StompCommand.MESSAGE) {
+                    return frame;
+                }
+            }
+            return null;
+        }
+
+        private void awaitCommand(StompCommand command) throws InterruptedException {
+            Message<?> frame;
+            do {
+                frame = frames.poll(10, TimeUnit.SECONDS);
+                assertThat(frame).as("waiting for " + command).isNotNull();
+            } while (StompHeaderAccessor.wrap(frame).getCommand() != command);
+        }
+
+        void stop() {
+            relay.stop();
+        }
+    }
+}
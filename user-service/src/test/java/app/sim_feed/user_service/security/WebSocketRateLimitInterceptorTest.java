@@ -0,0 +1,121 @@
+package app.sim_feed.user_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.Principal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WebSocketRateLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketRateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new WebSocketRateLimitInterceptor(meterRegistry);
+        interceptor.setSessionCapacity(3);
+        interceptor.setSessionRefillPerSecond(0.001);
+        interceptor.setUserCapacity(5);
+        interceptor.setUserRefillPerSecond(0.001);
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String userId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (userId != null) {
+            Principal user = () -> userId;
+            accessor.setUser(user);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private int accepted(SimpMessageType type, String sessionId, String userId, int attempts) {
+        int accepted = 0;
+        for (int i = 0; i < attempts; i++) {
+            try {
+                if (interceptor.preSend(frame(type, sessionId, userId), null) != null) {
+                    accepted++;
+                }
+            } catch (MessageDeliveryException e) {
+                // Rejected: the client gets an ERROR frame.
+            }
+        }
+        return accepted;
+    }
+
+    private double rejected() {
+        return meterRegistry.get("websocket.rate_limit.frames").tag("outcome", "rejected").counter().count();
+    }
+
+    @Nested
+    @DisplayName("preSend")
+    class PreSend {
+
+        @Test
+        @DisplayName("should reject frames once a session exhausts its bucket")
+        void shouldLimitPerSession() {
+            assertThat(accepted(SimpMessageType.MESSAGE, "s1", "user_a", 5)).isEqualTo(3);
+            assertThat(rejected()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should share the user bucket across that user's sessions")
+        void shouldLimitPerUser() {
+            int first = accepted(SimpMessageType.MESSAGE, "s1", "user_a", 3);
+            int second = accepted(SimpMessageType.MESSAGE, "s2", "user_a", 3);
+
+            assertThat(first + second).isEqualTo(5);
+            assertThat(accepted(SimpMessageType.MESSAGE, "s3", "user_b", 3)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should never limit heartbeats or connection frames")
+        void shouldIgnoreControlFrames() {
+            assertThat(accepted(SimpMessageType.HEARTBEAT, "s1", "user_a", 10)).isEqualTo(10);
+            assertThat(accepted(SimpMessageType.CONNECT, "s1", "user_a", 10)).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("should reset the session bucket on disconnect")
+        void shouldResetOnDisconnect() {
+            accepted(SimpMessageType.SUBSCRIBE, "s1", null, 3);
+
+            interceptor.preSend(frame(SimpMessageType.DISCONNECT, "s1", null), null);
+
+            assertThat(accepted(SimpMessageType.SUBSCRIBE, "s1", null, 1)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should reject an over-budget frame with the time until a token frees up")
+        void shouldRejectWithRetryHint() {
+            accepted(SimpMessageType.MESSAGE, "s1", null, 3);
+
+            assertThatThrownBy(() -> interceptor.preSend(frame(SimpMessageType.MESSAGE, "s1", null), null))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("Rate limit exceeded, retry in");
+        }
+
+        @Test
+        @DisplayName("should not charge the session when the user bucket rejects the frame")
+        void shouldRefundSessionOnUserRejection() {
+            interceptor.setUserCapacity(1);
+            accepted(SimpMessageType.MESSAGE, "s1", "user_a", 1);
+
+            assertThat(accepted(SimpMessageType.MESSAGE, "s1", "user_a", 5)).isZero();
+            assertThat(accepted(SimpMessageType.MESSAGE, "s1", "user_b", 2)).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package app.sim_feed.user_service.tags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import app.sim_feed.user_service.persona.models.Persona;
+import app.sim_feed.user_service.post.PostRepository;
+import app.sim_feed.user_service.post.models.Post;
+import app.sim_feed.user_service.post.models.PostDto;
+import app.sim_feed.user_service.tags.models.TagKind;
+import app.sim_feed.user_service.tags.models.TagPostsDto;
+
+class TagServiceTest {
+
+    private PostTagRepository postTagRepository;
+    private PostRepository postRepository;
+    private TrendingTagCounter trendingTagCounter;
+    private TagService tagService;
+
+    @BeforeEach
+    void setUp() {
+        postTagRepository = mock(PostTagRepository.class);
+        postRepository = mock(PostRepository.class);
+        trendingTagCounter = mock(TrendingTagCounter.class);
+        tagService = new TagService(postTagRepository, postRepository, trendingTagCounter);
+    }
+
+    private static Post post(long id, String title, String body) {
+        Persona persona = new Persona();
+        persona.setPersonaId(1L);
+        persona.setUsername("agent");
+        return Post.builder().id(id).title(title).body(body).personaAuthor(persona).build();
+    }
+
+    @Nested
+    @DisplayName("getPostsByTag")
+    class GetPostsByTag {
+
+        @Test
+        @DisplayName("should return posts newest first with a cursor when the page is full")
+        void shouldReturnPage() {
+            when(postTagRepository.findPostIds(eq(TagKind.HASHTAG), eq("rust"), isNull(), any())).thenReturn(List.of(9L, 4L));
+            when(postRepository.findAllById(List.of(9L, 4L))).thenReturn(List.of(post(4L, "a", "b"), post(9L, "c", "d")));
+
+            TagPostsDto result = tagService.getPostsByTag(TagKind.HASHTAG, "#Rust", null, 2);
+
+            assertThat(result.tag()).isEqualTo("rust");
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(9L, 4L);
+            assertThat(result.nextCursor()).isEqualTo(4L);
+        }
+
+        @Test
+        @DisplayName("should skip deleted posts but keep paging past them")
+        void shouldSkipDeletedPosts() {
+            when(postTagRepository.findPostIds(eq(TagKind.HASHTAG), eq("rust"), eq(10L), any())).thenReturn(List.of(9L, 4L));
+            when(postRepository.findAllById(List.of(9L, 4L))).thenReturn(List.of(post(9L, "c", "d")));
+
+            TagPostsDto result = tagService.getPostsByTag(TagKind.HASHTAG, "rust", 10L, 2);
+
+            assertThat(result.posts()).extracting(PostDto::id).containsExactly(9L);
+            assertThat(result.nextCursor()).isEqualTo(4L);
+        }
+
+        @Test
+        @DisplayName("should reject an out-of-range page size")
+        void shouldRejectBadSize() {
+            assertThatThrownBy(() -> tagService.getPostsByTag(TagKind.HASHTAG, "rust", null, 0))
+                .isInstanceOf(ResponseStatusException.class);
+        }
+    }
+}
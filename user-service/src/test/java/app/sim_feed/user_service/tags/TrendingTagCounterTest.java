@@ -0,0 +1,145 @@
+package app.sim_feed.user_service.tags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import app.sim_feed.user_service.tags.models.TrendingTagDto;
+
+class TrendingTagCounterTest {
+
+    private static final long START_MINUTE = 1_000_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private TrendingTagCounter counter;
+    private final AtomicLong now = new AtomicLong(TimeUnit.MINUTES.toMillis(START_MINUTE));
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class)).thenAnswer(invocation -> new Timestamp(now.get()));
+        counter = new TrendingTagCounter(jdbcTemplate);
+        counter.setEnabled(true);
+        counter.setWindowMinutes(60);
+        counter.setClock(now::get);
+    }
+
+    private record Row(String tag, long minute, long count) {
+    }
+
+    /** Answers the next recount with {@code rows}, as (tag, minute offset from the start, count). */
+    private void givenCounts(Row... rows) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Row row : rows) {
+                when(rs.getString("tag")).thenReturn(row.tag());
+                when(rs.getLong("bucket_minute")).thenReturn(START_MINUTE + row.minute());
+                when(rs.getLong("tag_count")).thenReturn(row.count());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+    }
+
+    private void advanceMinutes(long minutes) {
+        now.addAndGet(TimeUnit.MINUTES.toMillis(minutes));
+    }
+
+    @Nested
+    @DisplayName("top")
+    class Top {
+
+        @Test
+        @DisplayName("should rank tags by count summed across the window")
+        void shouldRankByCount() throws SQLException {
+            givenCounts(new Row("java", 0, 1), new Row("rust", 0, 1), new Row("rust", 5, 2), new Row("go", 5, 1));
+            advanceMinutes(5);
+
+            counter.refresh();
+
+            assertThat(counter.top(2)).containsExactly(new TrendingTagDto("rust", 3), new TrendingTagDto("go", 1));
+        }
+
+        @Test
+        @DisplayName("should forget counts that slid out of the window")
+        void shouldExpireOldBuckets() throws SQLException {
+            givenCounts(new Row("java", 0, 2));
+            counter.refresh();
+            advanceMinutes(60);
+            givenCounts(new Row("rust", 60, 1));
+
+            counter.refresh();
+
+            assertThat(counter.top(10)).containsExactly(new TrendingTagDto("rust", 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh")
+    class Refresh {
+
+        @Test
+        @DisplayName("should load the whole window on the first run")
+        void shouldLoadWindow() throws SQLException {
+            givenCounts();
+
+            counter.refresh();
+
+            verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(new Timestamp(TimeUnit.MINUTES.toMillis(START_MINUTE - 59))));
+        }
+
+        @Test
+        @DisplayName("should replace recent minutes with the recount and keep older ones")
+        void shouldReplaceRecentMinutes() throws SQLException {
+            givenCounts(new Row("java", 0, 4), new Row("rust", 10, 1));
+            advanceMinutes(10);
+            counter.refresh();
+            advanceMinutes(1);
+            givenCounts(new Row("rust", 10, 3), new Row("go", 11, 1));
+
+            counter.refresh();
+
+            verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(new Timestamp(TimeUnit.MINUTES.toMillis(START_MINUTE + 9))));
+            assertThat(counter.top(10)).containsExactly(
+                new TrendingTagDto("java", 4),
+                new TrendingTagDto("rust", 3),
+                new TrendingTagDto("go", 1)
+            );
+        }
+
+        @Test
+        @DisplayName("should keep the current counts when the database is unavailable")
+        void shouldSurviveDatabaseErrors() throws SQLException {
+            givenCounts(new Row("java", 0, 1));
+            counter.refresh();
+            doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+
+            counter.refresh();
+
+            assertThat(counter.top(1)).containsExactly(new TrendingTagDto("java", 1));
+        }
+    }
+}
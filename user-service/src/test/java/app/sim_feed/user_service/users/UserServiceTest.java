@@ -3,11 +3,18 @@ package app.sim_feed.user_service.users;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -18,11 +25,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import app.sim_feed.user_service.chats.ChatRepository;
+import app.sim_feed.user_service.post.PostRepository;
 import app.sim_feed.user_service.users.models.User;
 import app.sim_feed.user_service.users.models.UserDto;
+import app.sim_feed.user_service.users.models.UserSearchCursor;
+import app.sim_feed.user_service.users.models.UserSearchDto;
+import app.sim_feed.user_service.users.models.UserSearchHit;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -30,6 +44,18 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ChatRepository chatRepository;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Spy
+    private ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(UserService.USERS_CACHE, UserService.SEARCH_CACHE);
+
     @InjectMocks
     private UserService userService;
 
@@ -78,6 +104,157 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getUsersByIds")
+    class GetUsersByIds {
+
+        @Test
+        @DisplayName("should resolve misses in one query and keep request order")
+        void shouldResolveMissesInOneQuery() {
+            User other = User.builder().clerkId("clerk_other").username("other").build();
+            when(userRepository.findAllById(List.of("clerk_other", USER_ID, "clerk_missing"))).thenReturn(List.of(testUser, other));
+
+            List<UserDto> result = userService.getUsersByIds(List.of("clerk_other", USER_ID, "clerk_missing", USER_ID));
+
+            assertThat(result).extracting(UserDto::id).containsExactly("clerk_other", USER_ID);
+        }
+
+        @Test
+        @DisplayName("should serve cached users without touching the repository")
+        void shouldServeFromCache() {
+            when(userRepository.findAllById(List.of(USER_ID))).thenReturn(List.of(testUser));
+            userService.getUsersByIds(List.of(USER_ID));
+
+            List<UserDto> result = userService.getUsersByIds(List.of(USER_ID));
+
+            assertThat(result).extracting(UserDto::username).containsExactly(USERNAME);
+            verify(userRepository, times(1)).findAllById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("searchUsersByUsername")
+    class SearchUsersByUsername {
+
+        private UserSearchHit hit(String id, double score) {
+            return new UserSearchHit() {
+                @Override
+                public String getId() {
+                    return id;
+                }
+
+                @Override
+                public Double getScore() {
+                    return score;
+                }
+            };
+        }
+
+        @BeforeEach
+        void setThreshold() {
+            userService.setSimilarityThreshold(0.3);
+        }
+
+        @Test
+        @DisplayName("should return a bounded page in similarity order with a cursor")
+        void shouldReturnRankedPage() {
+            User other = User.builder().clerkId("clerk_other").username("testuser2").build();
+            when(userRepository.searchByUsername(eq("testu"), eq("testu%"), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(hit(USER_ID, 0.8), hit("clerk_other", 0.5)));
+            when(userRepository.findAllById(List.of(USER_ID, "clerk_other"))).thenReturn(List.of(other, testUser));
+
+            UserSearchDto result = userService.searchUsersByUsername("TestU", null, 2);
+
+            assertThat(result.users()).extracting(UserDto::id).containsExactly(USER_ID, "clerk_other");
+            UserSearchCursor cursor = UserSearchCursor.decode(result.nextCursor());
+            assertThat(cursor.score()).isEqualTo(0.5);
+            assertThat(cursor.userId()).isEqualTo("clerk_other");
+            verify(userRepository).setSimilarityThreshold(0.3);
+        }
+
+        @Test
+        @DisplayName("should continue after the cursor and escape LIKE wildcards in the prefix")
+        void shouldContinueAfterCursor() {
+            String cursor = new UserSearchCursor(0.5, "clerk_other").encode();
+            when(userRepository.searchByUsername(anyString(), anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+            UserSearchDto result = userService.searchUsersByUsername("a_b%", cursor, 20);
+
+            assertThat(result.users()).isEmpty();
+            assertThat(result.nextCursor()).isNull();
+            verify(userRepository).searchByUsername("a_b%", "a\\_b\\%%", 0.5, "clerk_other", 20);
+        }
+
+        @Test
+        @DisplayName("should answer repeated prefixes from the cache")
+        void shouldCacheRepeatedQueries() {
+            when(userRepository.searchByUsername(anyString(), anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+            userService.searchUsersByUsername("testu", null, 20);
+            userService.searchUsersByUsername(" TESTU ", null, 20);
+
+            verify(userRepository, times(1)).searchByUsername(anyString(), anyString(), any(), any(), anyInt());
+            verify(userRepository, times(1)).setSimilarityThreshold(anyDouble());
+        }
+
+        @Test
+        @DisplayName("should return an empty page for short queries without querying")
+        void shouldSkipShortQueries() {
+            UserSearchDto result = userService.searchUsersByUsername("ab", null, 20);
+
+            assertThat(result.users()).isEmpty();
+            verify(userRepository, never()).searchByUsername(anyString(), anyString(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should reject oversized queries, pages and malformed cursors")
+        void shouldValidateInput() {
+            assertThatThrownBy(() -> userService.searchUsersByUsername("a".repeat(51), null, 20)).isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> userService.searchUsersByUsername("testu", null, 51)).isInstanceOf(ResponseStatusException.class);
+            assertThatThrownBy(() -> userService.searchUsersByUsername("testu", "%%%", 20)).isInstanceOf(ResponseStatusException.class);
+
+            verify(userRepository, never()).searchByUsername(anyString(), anyString(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteUser")
+    class DeleteUser {
+
+        @Test
+        @DisplayName("should tombstone the account, its posts and the chats it created")
+        void shouldTombstoneAccount() {
+            when(userRepository.tombstone(USER_ID)).thenReturn(1);
+
+            userService.deleteUser(USER_ID, USER_ID);
+
+            verify(postRepository).tombstoneAllByUserAuthor(USER_ID);
+            verify(chatRepository).tombstoneAllByCreatorId(USER_ID);
+            verify(userRepository, never()).delete(any());
+        }
+
+        @Test
+        @DisplayName("should throw UNAUTHORIZED when deleting someone else's account")
+        void shouldRejectOtherRequester() {
+            assertThatThrownBy(() -> userService.deleteUser(USER_ID, "someone_else"))
+                    .isInstanceOf(ResponseStatusException.class);
+
+            verify(userRepository, never()).tombstone(any());
+        }
+
+        @Test
+        @DisplayName("should throw NOT_FOUND when the account is already gone")
+        void shouldRejectMissingAccount() {
+            when(userRepository.tombstone(USER_ID)).thenReturn(0);
+
+            assertThatThrownBy(() -> userService.deleteUser(USER_ID, USER_ID))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("User not found");
+
+            verify(postRepository, never()).tombstoneAllByUserAuthor(any());
+        }
+    }
+
     @Nested
     @DisplayName("updateUser")
     class UpdateUser {
@@ -0,0 +1,137 @@
+package app.sim_feed.user_service.users;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import app.sim_feed.user_service.users.models.UsernameSuggestionDto;
+
+class UsernameIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UsernameIndex usernameIndex;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        usernameIndex = new UsernameIndex(jdbcTemplate);
+        usernameIndex.setHeadLength(2);
+        usernameIndex.setMaxResults(20);
+    }
+
+    @Test
+    @DisplayName("should match prefixes case-insensitively without touching the database")
+    void shouldMatchPrefixes() {
+        usernameIndex.putUser("u1", "Alice");
+        usernameIndex.putUser("u2", "alicia");
+        usernameIndex.putUser("u3", "bob");
+        usernameIndex.publish();
+
+        assertThat(usernameIndex.suggest("ALI", 10)).extracting(UsernameSuggestionDto::username).containsExactly("Alice", "alicia");
+        assertThat(usernameIndex.suggest("al", 10)).extracting(UsernameSuggestionDto::userId).containsExactly("u1", "u2");
+        assertThat(usernameIndex.suggest("alz", 10)).isEmpty();
+        assertThat(usernameIndex.suggest(" ", 10)).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should rank matches by follower count and cap them at the limit")
+    void shouldRankByFollowers() {
+        UsernameIndex.Snapshot snapshot = UsernameIndex.Snapshot.build(List.of(
+            new UsernameIndex.Entry("u1", null, "carol", 3),
+            new UsernameIndex.Entry(null, 7L, "carla_bot", 40),
+            new UsernameIndex.Entry("u2", null, "carmen", 12),
+            new UsernameIndex.Entry("u3", null, "cara", 12)
+        ), 2, 20);
+
+        assertThat(snapshot.top("car", 3)).extracting(UsernameIndex.Entry::username).containsExactly("carla_bot", "cara", "carmen");
+        assertThat(snapshot.top("ca", 2)).extracting(UsernameIndex.Entry::username).containsExactly("carla_bot", "cara");
+        assertThat(snapshot.top("carl", 5)).extracting(UsernameIndex.Entry::personaId).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("should apply renames and deletions on the next snapshot")
+    void shouldApplyWrites() {
+        usernameIndex.putUser("u1", "dave");
+        usernameIndex.publish();
+
+        usernameIndex.putUser("u1", "david");
+        usernameIndex.putUser("u2", "dan");
+        usernameIndex.removeUser("u2");
+
+        assertThat(usernameIndex.suggest("dave", 5)).hasSize(1);
+
+        usernameIndex.publish();
+
+        assertThat(usernameIndex.suggest("dave", 5)).isEmpty();
+        assertThat(usernameIndex.suggest("da", 5)).extracting(UsernameSuggestionDto::username).containsExactly("david");
+    }
+
+    @Test
+    @DisplayName("should pick up persona renames on the next poll")
+    void shouldPollPersonaRenames() throws SQLException {
+        usernameIndex.setEnabled(true);
+        when(jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class))
+            .thenReturn(Timestamp.from(Instant.parse("2026-01-01T00:00:00Z")));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(personaRow(5L, "erin_bot"));
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM personas p"), any(RowCallbackHandler.class));
+        usernameIndex.rebuild();
+        assertThat(usernameIndex.suggest("erin", 5)).extracting(UsernameSuggestionDto::personaId).containsExactly(5L);
+
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(personaRow(5L, "frank_bot"));
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM personas p"), any(RowCallbackHandler.class), eq(Timestamp.from(Instant.parse("2025-12-31T23:59:30Z"))));
+        usernameIndex.refresh();
+
+        assertThat(usernameIndex.suggest("erin", 5)).isEmpty();
+        assertThat(usernameIndex.suggest("fr", 5)).extracting(UsernameSuggestionDto::personaId).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("should fill a users-only lookup with users when personas rank higher")
+    void shouldSuggestUsersOnly() throws SQLException {
+        usernameIndex.setEnabled(true);
+        usernameIndex.setMaxResults(2);
+        when(jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class))
+            .thenReturn(Timestamp.from(Instant.parse("2026-01-01T00:00:00Z")));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(personaRow(5L, "greta_bot"));
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(personaRow(6L, "gus_bot"));
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM personas p"), any(RowCallbackHandler.class));
+        usernameIndex.rebuild();
+        usernameIndex.putUser("u1", "gina");
+        usernameIndex.publish();
+
+        assertThat(usernameIndex.suggest("g", 2)).extracting(UsernameSuggestionDto::username).containsExactly("gus_bot", "greta_bot");
+        assertThat(usernameIndex.suggest("g", 2, true)).extracting(UsernameSuggestionDto::userId).containsExactly("u1");
+    }
+
+    private static ResultSet personaRow(long personaId, String username) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("persona_id")).thenReturn(personaId);
+        when(rs.getString("username")).thenReturn(username);
+        when(rs.getLong("followers")).thenReturn(personaId);
+        return rs;
+    }
+}